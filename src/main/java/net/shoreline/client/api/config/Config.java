@@ -176,11 +176,23 @@ public abstract class Config<T> implements Identifiable, Serializable<T> {
         event.setStage(EventStage.PRE);
         Shoreline.EVENT_HANDLER.dispatch(event);
         value = val;
+        onValueUpdate(val);
         // POST
         event.setStage(EventStage.POST);
         Shoreline.EVENT_HANDLER.dispatch(event);
     }
 
+    /**
+     * Called when the config value is set, before the POST update event is
+     * dispatched. Configs which keep values derived from the config value
+     * should update them here.
+     *
+     * @param val The new config value
+     */
+    protected void onValueUpdate(T val) {
+
+    }
+
     /**
      * @return
      */
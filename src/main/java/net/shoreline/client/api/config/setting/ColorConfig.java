@@ -2,6 +2,7 @@ package net.shoreline.client.api.config.setting;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import net.minecraft.util.math.MathHelper;
 import net.shoreline.client.api.config.Config;
 import net.shoreline.client.init.Modules;
 
@@ -17,10 +18,15 @@ public class ColorConfig extends Config<Color> {
     private final boolean allowAlpha;
     //
     private boolean global;
+    // Packed ARGB value and color of the current value with the alpha
+    // applied. Updated with every value change so reads do not allocate.
+    private int rgbPacked;
+    private Color color;
 
     public ColorConfig(String name, String desc, Color value, boolean allowAlpha, boolean global) {
         super(name, desc, value);
         this.allowAlpha = allowAlpha;
+        onValueUpdate(value);
         setGlobal(global);
     }
 
@@ -31,6 +37,7 @@ public class ColorConfig extends Config<Color> {
     public ColorConfig(String name, String desc, Color value, boolean allowAlpha, boolean global, Supplier<Boolean> visible) {
         super(name, desc, value, visible);
         this.allowAlpha = allowAlpha;
+        onValueUpdate(value);
         setGlobal(global);
     }
 
@@ -55,7 +62,7 @@ public class ColorConfig extends Config<Color> {
         if (Modules.COLORS != null && global) {
             return Modules.COLORS.getColor(getAlpha());
         }
-        return new Color(value.getRed(), value.getGreen(), value.getBlue(), allowAlpha ? value.getAlpha() : 255);
+        return color;
     }
 
     public Color getValue(int alpha) {
@@ -73,12 +80,40 @@ public class ColorConfig extends Config<Color> {
         setValue(color);
     }
 
+    /**
+     * @param val The new config value
+     */
+    @Override
+    protected void onValueUpdate(Color val) {
+        rgbPacked = allowAlpha ? val.getRGB() : val.getRGB() | 0xff000000;
+        color = new Color(rgbPacked, true);
+    }
+
     public int getRgb() {
-        return getValue().getRGB();
+        return getRgbPacked();
     }
 
     public int getRgb(int alpha) {
-        return getValue(alpha).getRGB();
+        return getRgbPacked(alpha);
+    }
+
+    /**
+     * Returns the packed ARGB value of the config color. Unlike
+     * {@link #getValue()} this does not allocate a {@link Color}.
+     *
+     * @return The packed ARGB color
+     */
+    public int getRgbPacked() {
+        return getRgbPacked(getAlpha());
+    }
+
+    /**
+     * @param alpha The color alpha, clamped to [0, 255]
+     * @return The packed ARGB color with the alpha
+     */
+    public int getRgbPacked(int alpha) {
+        int rgb = Modules.COLORS != null && global ? Modules.COLORS.getRgbPacked() : rgbPacked;
+        return MathHelper.clamp(alpha, 0, 255) << 24 | rgb & 0x00ffffff;
     }
 
     public int getRed() {
@@ -98,7 +133,7 @@ public class ColorConfig extends Config<Color> {
     }
 
     public int getAlpha() {
-        return allowAlpha ? value.getAlpha() : 255;
+        return rgbPacked >>> 24;
     }
 
     public float[] getHsb() {
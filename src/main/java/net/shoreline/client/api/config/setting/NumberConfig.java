@@ -20,6 +20,12 @@ public class NumberConfig<T extends Number> extends Config<T> {
     private final NumberDisplay format;
     //
     private final int roundingScale;
+    // Primitive copies of the current value. Hot paths read these to avoid
+    // unboxing the value on every access.
+    private float floatValue;
+    private int intValue;
+    private double doubleValue;
+    private double valueSq;
 
     /**
      * @param name
@@ -38,6 +44,7 @@ public class NumberConfig<T extends Number> extends Config<T> {
         // equal to number of decimal places in value
         String strValue = String.valueOf(getValue());
         this.roundingScale = strValue.substring(strValue.indexOf(".") + 1).length();
+        onValueUpdate(value);
     }
 
     /**
@@ -56,6 +63,7 @@ public class NumberConfig<T extends Number> extends Config<T> {
         this.max = max;
         this.format = format;
         this.roundingScale = roundingScale;
+        onValueUpdate(value);
     }
 
     /**
@@ -75,6 +83,7 @@ public class NumberConfig<T extends Number> extends Config<T> {
         this.format = format;
         String strValue = String.valueOf(getValue());
         this.roundingScale = strValue.substring(strValue.indexOf(".") + 1).length();
+        onValueUpdate(value);
     }
 
     /**
@@ -120,14 +129,14 @@ public class NumberConfig<T extends Number> extends Config<T> {
      * @return
      */
     public boolean isMin() {
-        return min.doubleValue() == getValue().doubleValue();
+        return min.doubleValue() == doubleValue;
     }
 
     /**
      * @return
      */
     public boolean isMax() {
-        return max.doubleValue() == getValue().doubleValue();
+        return max.doubleValue() == doubleValue;
     }
 
     /**
@@ -148,8 +157,28 @@ public class NumberConfig<T extends Number> extends Config<T> {
      * @return
      */
     public double getValueSq() {
-        T val = getValue();
-        return val.doubleValue() * val.doubleValue();
+        return valueSq;
+    }
+
+    /**
+     * @return The config value as a <tt>float</tt>
+     */
+    public float getFloat() {
+        return floatValue;
+    }
+
+    /**
+     * @return The config value as an <tt>int</tt>
+     */
+    public int getInt() {
+        return intValue;
+    }
+
+    /**
+     * @return The config value as a <tt>double</tt>
+     */
+    public double getDouble() {
+        return doubleValue;
     }
 
     /**
@@ -169,6 +198,17 @@ public class NumberConfig<T extends Number> extends Config<T> {
         }
     }
 
+    /**
+     * @param val The new config value
+     */
+    @Override
+    protected void onValueUpdate(T val) {
+        floatValue = val.floatValue();
+        intValue = val.intValue();
+        doubleValue = val.doubleValue();
+        valueSq = doubleValue * doubleValue;
+    }
+
     /**
      * @return
      */
@@ -0,0 +1,88 @@
+package net.shoreline.client.api.event;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds a single reusable {@link Event} instance for events which are
+ * dispatched every frame (or more often) from the same thread. The instance
+ * is confined to the first thread which acquires it, other threads and
+ * reentrant dispatches (i.e. the event is acquired again while it is still
+ * being dispatched) receive a new instance from the factory.
+ *
+ * <pre>{@code
+ * RenderWorldEvent event = RenderWorldEvent.POOL.acquire();
+ * try {
+ *     event.reset(matrices, tickDelta);
+ *     Shoreline.EVENT_HANDLER.dispatch(event);
+ * } finally {
+ *     RenderWorldEvent.POOL.release(event);
+ * }
+ * }</pre>
+ *
+ * <p>The event must be released in a <tt>finally</tt> block, otherwise a
+ * listener exception leaves the instance acquired and every later
+ * dispatch allocates.</p>
+ *
+ * <p>Listeners must not keep references to pooled events after the
+ * dispatch returns. Pooled event classes are annotated with {@link Pooled}
+ * so the event bus never queues them for other threads.</p>
+ *
+ * @param <T> The event type
+ * @author linus
+ * @see Event
+ * @since 1.0
+ */
+public class EventPool<T extends Event> {
+    // Creates new event instances for other threads and reentrant dispatches
+    private final Supplier<T> factory;
+    // The reusable event instance
+    private final T instance;
+    // The thread which the instance is confined to
+    private final AtomicReference<Thread> owner = new AtomicReference<>();
+    // Whether the instance is currently being dispatched. Only accessed by
+    // the owner thread.
+    private boolean acquired;
+
+    /**
+     * @param factory The event factory
+     */
+    public EventPool(Supplier<T> factory) {
+        this.factory = factory;
+        this.instance = factory.get();
+    }
+
+    /**
+     * Returns the reusable event instance if called from the owner thread
+     * and the instance is not currently acquired, otherwise returns a new
+     * instance. The canceled state of the reused instance is reset.
+     *
+     * @return The event instance
+     * @see #release(Event)
+     */
+    public T acquire() {
+        Thread thread = Thread.currentThread();
+        if (owner.get() != thread && !owner.compareAndSet(null, thread)) {
+            return factory.get();
+        }
+        if (acquired) {
+            return factory.get();
+        }
+        acquired = true;
+        instance.setCanceled(false);
+        return instance;
+    }
+
+    /**
+     * Releases the event instance so that it can be acquired again. Events
+     * which were not created by this pool are ignored.
+     *
+     * @param event The acquired event
+     * @see #acquire()
+     */
+    public void release(T event) {
+        if (event == instance) {
+            acquired = false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.shoreline.client.api.event;
+
+import net.shoreline.client.api.event.listener.EventListener;
+
+/**
+ * An {@link Event} which can be filtered by its listeners. Listeners which
+ * declare {@link EventListener#filter()} classes will only be invoked if
+ * the {@link #getFilterType()} of the event is assignable to one of them.
+ *
+ * @author linus
+ * @see EventListener#filter()
+ * @since 1.0
+ */
+public interface FilterableEvent {
+    /**
+     * Returns the class which is matched against the
+     * {@link EventListener#filter()} classes of the listeners.
+     *
+     * @return The filter type of the event
+     */
+    Class<?> getFilterType();
+}
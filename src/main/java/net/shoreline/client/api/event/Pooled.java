@@ -0,0 +1,24 @@
+package net.shoreline.client.api.event;
+
+import net.shoreline.client.api.event.listener.ThreadMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation used to identify an {@link Event} which is reused through an
+ * {@link EventPool}. Pooled events are recycled as soon as the dispatch
+ * returns, so they are only delivered to {@link ThreadMode#SAME}
+ * listeners.
+ *
+ * @author linus
+ * @see EventPool
+ * @since 1.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Pooled {
+
+}
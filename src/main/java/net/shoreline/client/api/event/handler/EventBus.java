@@ -1,16 +1,49 @@
 package net.shoreline.client.api.event.handler;
 
+import net.shoreline.client.Shoreline;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.FilterableEvent;
+import net.shoreline.client.api.event.Pooled;
 import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.event.listener.Listener;
-import net.shoreline.client.init.Managers;
+import net.shoreline.client.api.event.listener.ThreadMode;
 
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Default {@link EventHandler} implementation. Listeners are stored as
+ * immutable, priority-sorted {@link Listener} arrays per event class. The
+ * arrays are only rebuilt on {@link #subscribe(Object)} and
+ * {@link #unsubscribe(Object)} (copy-on-write) so {@link #dispatch(Event)}
+ * never allocates and never needs to copy the active listeners.
+ *
+ * <p>Events are routed through their class hierarchy, i.e. a listener for
+ * {@code PacketEvent} also receives {@code PacketEvent.Inbound} and
+ * {@code PacketEvent.Outbound}. The merged listeners of each concrete event
+ * class are resolved once and cached in a {@link ClassValue} table which is
+ * replaced whenever the subscribed listeners change.</p>
+ *
+ * <p>Listeners of {@link FilterableEvent} events can declare
+ * {@link EventListener#filter()} classes. These listeners are indexed by the
+ * filter type of the event, e.g. a {@code WorldTimeUpdateS2CPacket} only
+ * wakes the listeners filtered to that packet and the unfiltered
+ * listeners.</p>
+ *
+ * <p>Listeners can be invoked on other threads using
+ * {@link EventListener#threadMode()}. {@link ThreadMode#MAIN} invocations
+ * from other threads are handed off through a lock-free queue which is
+ * drained by {@link #drainMainThread()} once per tick, and
+ * {@link ThreadMode#ASYNC} invocations run on a background worker pool.
+ * {@link Pooled} events are recycled once the dispatch returns, so they
+ * are never handed off to other threads. The EventBus must be created on
+ * the main thread.</p>
+ *
  * @author linus
  * @see Event
  * @see EventHandler
@@ -19,24 +52,60 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * @since 1.0
  */
 public class EventBus implements EventHandler {
+    // Empty listener array, shared by all events which have no listeners
+    private static final Listener[] EMPTY = new Listener[0];
     // Active subscriber cache. Used to check if a class is already
-    // subscribed to this EventHandler.
-    private final Set<Object> subscribers = Collections.synchronizedSet(new HashSet<>());
+    // subscribed to this EventHandler. Guarded by the bus lock.
+    private final Set<Object> subscribers = new HashSet<>();
     // Map of events and their associated listeners. All listeners in a class
-    // will be added when the class is subscribed to this EventHandler.
-    private final Map<Object, PriorityQueue<Listener>> listeners = new ConcurrentHashMap<>();
+    // will be added when the class is subscribed to this EventHandler. The
+    // arrays are sorted by priority and are never modified once published.
+    private final Map<Class<?>, Listener[]> listeners = new ConcurrentHashMap<>();
+    // Dispatch table which caches the merged listeners of every concrete
+    // event class (including listeners of its superclasses and interfaces).
+    // A new table is created every time the listener map is modified.
+    private volatile ClassValue<ListenerTable> dispatchTable = createDispatchTable();
+    // All active listeners, rebuilt with the dispatch table so the profiler
+    // can read them every frame without copying the listener map
+    private volatile Collection<Listener> activeListeners = Collections.emptyList();
+    // The main (client) thread. ThreadMode.MAIN listeners are invoked
+    // directly when the event is dispatched from this thread.
+    private final Thread mainThread = Thread.currentThread();
+    // Listener invocations queued for the main thread. Multiple producers
+    // (network threads, workers) and a single consumer (the main thread).
+    private final Queue<QueuedInvocation> mainThreadQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mainThreadQueued = new AtomicInteger();
+    // Background workers for ThreadMode.ASYNC listeners. Created when the
+    // first async listener is invoked.
+    private volatile ExecutorService asyncExecutor;
+    // Optional listener and event instrumentation
+    private final EventProfiler profiler = new EventProfiler(this::getActiveListeners);
 
     /**
      * Subscribes a {@link Object} to the EventHandler and adds all
      * {@link net.shoreline.client.api.event.listener.EventListener} in the class to the active listener map.
      *
      * @param obj The subscriber object
+     * @throws IllegalArgumentException if a {@link Pooled} event listener
+     *                                  is not invoked on the same thread
      */
     @Override
-    public void subscribe(Object obj) {
+    public synchronized void subscribe(Object obj) {
         if (subscribers.contains(obj)) {
             return;
         }
+        // checked before any listener is added, so a rejected subscriber
+        // is not partially subscribed
+        for (Method method : obj.getClass().getMethods()) {
+            EventListener listener = method.getAnnotation(EventListener.class);
+            if (listener != null && listener.threadMode() != ThreadMode.SAME
+                    && method.getParameterCount() == 1
+                    && method.getParameterTypes()[0].isAnnotationPresent(Pooled.class)) {
+                throw new IllegalArgumentException(String.format(
+                        "Listener %s of pooled event %s must use ThreadMode.SAME",
+                        method.getName(), method.getParameterTypes()[0].getSimpleName()));
+            }
+        }
         subscribers.add(obj);
         for (Method method : obj.getClass().getMethods()) {
             method.trySetAccessible();
@@ -45,14 +114,21 @@ public class EventBus implements EventHandler {
                 if (method.getReturnType() == Void.TYPE) {
                     Class<?>[] params = method.getParameterTypes();
                     if (params.length == 1) {
-                        PriorityQueue<Listener> active = listeners.computeIfAbsent(params[0],
-                                v -> new PriorityQueue<>());
-                        active.add(new Listener(method, obj,
-                                listener.receiveCanceled(), listener.priority()));
+                        Listener[] active = listeners.getOrDefault(params[0], EMPTY);
+                        Listener[] update = Arrays.copyOf(active, active.length + 1);
+                        update[active.length] = new Listener(method, obj,
+                                listener.receiveCanceled(), listener.priority(),
+                                listener.filter(), listener.threadMode());
+                        // stable sort, listeners with the same priority are
+                        // invoked in the order they were subscribed
+                        Arrays.sort(update);
+                        listeners.put(params[0], update);
                     }
                 }
             }
         }
+        dispatchTable = createDispatchTable();
+        activeListeners = collectActiveListeners();
     }
 
 
@@ -63,17 +139,39 @@ public class EventBus implements EventHandler {
      * @param obj The subscriber object
      */
     @Override
-    public void unsubscribe(Object obj) {
-        if (subscribers.remove(obj)) {
-            listeners.values().forEach(set ->
-                    set.removeIf(l -> l.getSubscriber() == obj));
-            listeners.entrySet().removeIf(e -> e.getValue().isEmpty());
+    public synchronized void unsubscribe(Object obj) {
+        if (!subscribers.remove(obj)) {
+            return;
         }
+        for (Map.Entry<Class<?>, Listener[]> entry : listeners.entrySet()) {
+            Listener[] active = entry.getValue();
+            for (Listener listener : active) {
+                if (listener.getSubscriber() == obj) {
+                    // invocations which are already queued are skipped
+                    listener.setSubscribed(false);
+                }
+            }
+            Listener[] update = Arrays.stream(active)
+                    .filter(l -> l.getSubscriber() != obj)
+                    .toArray(Listener[]::new);
+            if (update.length == active.length) {
+                continue;
+            }
+            if (update.length == 0) {
+                listeners.remove(entry.getKey());
+            } else {
+                entry.setValue(update);
+            }
+        }
+        dispatchTable = createDispatchTable();
+        activeListeners = collectActiveListeners();
     }
 
     /**
      * Runs {@link Listener#invokeSubscriber(Event)} on all
-     * active {@link Listener} for the param {@link Event}
+     * active {@link Listener} for the param {@link Event}. The listener
+     * array is a snapshot, so listeners which are (un)subscribed during the
+     * dispatch will only be affected on the next dispatch.
      *
      * @param event The event to dispatch listeners
      * @return <tt>true</tt> if {@link Event#isCanceled()}
@@ -83,17 +181,317 @@ public class EventBus implements EventHandler {
         if (event == null) {
             return false;
         }
-        PriorityQueue<Listener> active = listeners.get(event.getClass());
+        ListenerTable table = dispatchTable.get(event.getClass());
+        Listener[] active = event instanceof FilterableEvent filterable ?
+                table.getListeners(filterable.getFilterType()) : table.getListeners();
         // if there are no items to dispatch to, just early return
-        if (active == null || active.isEmpty()) {
+        if (active.length == 0) {
             return false;
         }
-        for (Listener listener : new ArrayList<>(active)) {
+        // the profiler is only checked once per dispatch, each loop
+        // invokes the listeners directly
+        if (profiler.isEnabled()) {
+            long start = System.nanoTime();
+            dispatchProfiled(event, active);
+            profiler.recordDispatch(event.getClass(), System.nanoTime() - start);
+        } else {
+            dispatch(event, active);
+        }
+        return event.isCanceled();
+    }
+
+    /**
+     * @param event  The event to dispatch listeners
+     * @param active The listeners which receive the event
+     */
+    private void dispatch(Event event, Listener[] active) {
+        for (Listener listener : active) {
+            if (event.isCanceled() && !listener.isReceiveCanceled()) {
+                continue;
+            }
+            if (isDirect(listener)) {
+                listener.invokeSubscriber(event);
+            } else {
+                handOff(listener, event);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #dispatch(Event, Listener[])} but records the
+     * listener invocations in the profiler
+     *
+     * @param event  The event to dispatch listeners
+     * @param active The listeners which receive the event
+     */
+    private void dispatchProfiled(Event event, Listener[] active) {
+        for (Listener listener : active) {
             if (event.isCanceled() && !listener.isReceiveCanceled()) {
                 continue;
             }
+            if (isDirect(listener)) {
+                profiler.invoke(listener, event);
+            } else {
+                handOff(listener, event);
+            }
+        }
+    }
+
+    /**
+     * @param listener The listener
+     * @return <tt>true</tt> if the listener is invoked on the dispatching
+     * thread
+     */
+    private boolean isDirect(Listener listener) {
+        ThreadMode threadMode = listener.getThreadMode();
+        return threadMode == ThreadMode.SAME || threadMode == ThreadMode.MAIN
+                && Thread.currentThread() == mainThread;
+    }
+
+    /**
+     * Queues the invocation of a {@link ThreadMode#MAIN} listener for the
+     * main thread or runs a {@link ThreadMode#ASYNC} listener on the
+     * background workers
+     *
+     * @param listener The listener
+     * @param event    The event
+     */
+    private void handOff(Listener listener, Event event) {
+        if (listener.getThreadMode() == ThreadMode.MAIN) {
+            mainThreadQueue.offer(new QueuedInvocation(listener, event));
+            mainThreadQueued.incrementAndGet();
+        } else {
+            getAsyncExecutor().execute(() -> {
+                if (listener.isSubscribed()) {
+                    invoke(listener, event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invokes a queued listener, the profiler is checked when the
+     * invocation runs
+     *
+     * @param listener The listener
+     * @param event    The event
+     */
+    private void invoke(Listener listener, Event event) {
+        if (profiler.isEnabled()) {
+            profiler.invoke(listener, event);
+        } else {
             listener.invokeSubscriber(event);
         }
-        return event.isCanceled();
+    }
+
+    /**
+     * Invokes the {@link ThreadMode#MAIN} listeners which were queued by
+     * dispatches from other threads. Only the invocations which were queued
+     * before this call are drained, later invocations run on the next call.
+     * Invocations of listeners which were unsubscribed after they were
+     * queued are dropped.
+     */
+    @Override
+    public void drainMainThread() {
+        int pending = mainThreadQueued.get();
+        for (int i = 0; i < pending; i++) {
+            QueuedInvocation invocation = mainThreadQueue.poll();
+            if (invocation == null) {
+                break;
+            }
+            mainThreadQueued.decrementAndGet();
+            if (invocation.listener().isSubscribed()) {
+                invoke(invocation.listener(), invocation.event());
+            }
+        }
+    }
+
+    /**
+     * @return The event profiler
+     */
+    @Override
+    public EventProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * @return All active listeners
+     */
+    private Collection<Listener> getActiveListeners() {
+        return activeListeners;
+    }
+
+    /**
+     * @return A snapshot of all listeners in the listener map
+     */
+    private Collection<Listener> collectActiveListeners() {
+        Set<Listener> active = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Listener[] arr : listeners.values()) {
+            active.addAll(Arrays.asList(arr));
+        }
+        return Collections.unmodifiableCollection(active);
+    }
+
+    /**
+     * Returns the background worker pool for {@link ThreadMode#ASYNC}
+     * listeners. The pool uses the spare cores and daemon threads so it
+     * never keeps the game from shutting down.
+     *
+     * @return The async executor
+     */
+    private ExecutorService getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+                    AtomicInteger count = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(threads, r -> {
+                        Thread thread = new Thread(r, "Shoreline-Event-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns <tt>true</tt> if any {@link Listener} would receive events of
+     * the param class. This is a single lookup in the dispatch table, so it
+     * is cheap enough to guard event construction at hot call sites.
+     *
+     * @param eventClass The event class
+     * @return <tt>true</tt> if the event class has active listeners
+     */
+    @Override
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return dispatchTable.get(eventClass).getListeners().length > 0;
+    }
+
+    /**
+     * Creates a new dispatch table. Tables are never invalidated entry by
+     * entry, the whole table is replaced instead so that a dispatch never
+     * sees a partially updated table.
+     *
+     * @return The dispatch table
+     * @see #resolveListeners(Class)
+     */
+    private ClassValue<ListenerTable> createDispatchTable() {
+        return new ClassValue<>() {
+            @Override
+            protected ListenerTable computeValue(Class<?> type) {
+                return new ListenerTable(resolveListeners(type));
+            }
+        };
+    }
+
+    /**
+     * Merges the listeners of the event class and all of its superclasses
+     * and interfaces into a single priority-sorted array.
+     *
+     * @param type The concrete event class
+     * @return The listeners which receive events of the class
+     */
+    private Listener[] resolveListeners(Class<?> type) {
+        boolean pooled = type.isAnnotationPresent(Pooled.class);
+        List<Listener> resolved = new ArrayList<>();
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> types = new ArrayDeque<>();
+        types.add(type);
+        while (!types.isEmpty()) {
+            Class<?> next = types.poll();
+            if (!visited.add(next)) {
+                continue;
+            }
+            Listener[] active = listeners.get(next);
+            if (active != null) {
+                for (Listener listener : active) {
+                    // listeners of a superclass cannot be rejected when
+                    // subscribed, they skip pooled events instead
+                    if (pooled && listener.getThreadMode() != ThreadMode.SAME) {
+                        Shoreline.error("Listener {} skips pooled event {}!",
+                                listener.getName(), type.getSimpleName());
+                        continue;
+                    }
+                    resolved.add(listener);
+                }
+            }
+            if (next.getSuperclass() != null) {
+                types.add(next.getSuperclass());
+            }
+            types.addAll(Arrays.asList(next.getInterfaces()));
+        }
+        if (resolved.isEmpty()) {
+            return EMPTY;
+        }
+        Listener[] merged = resolved.toArray(Listener[]::new);
+        // listeners of the most specific class come first when the
+        // priorities are equal
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * A listener invocation which is queued for the main thread.
+     *
+     * @param listener The listener
+     * @param event    The dispatched event
+     */
+    private record QueuedInvocation(Listener listener, Event event) {
+
+    }
+
+    /**
+     * The resolved listeners of a concrete event class. Filtered listeners
+     * are indexed by the filter type of the event so that each filter type
+     * only resolves its listeners once.
+     *
+     * @see FilterableEvent
+     */
+    private static class ListenerTable {
+        // All listeners of the event class, sorted by priority
+        private final Listener[] listeners;
+        // Listeners per filter type. Null if none of the listeners are
+        // filtered, in which case all listeners receive every event.
+        private final ClassValue<Listener[]> filterTable;
+
+        /**
+         * @param listeners The priority-sorted listeners
+         */
+        private ListenerTable(Listener[] listeners) {
+            this.listeners = listeners;
+            boolean filtered = false;
+            for (Listener listener : listeners) {
+                filtered |= listener.isFiltered();
+            }
+            filterTable = filtered ? new ClassValue<>() {
+                @Override
+                protected Listener[] computeValue(Class<?> type) {
+                    // listeners are already sorted by priority
+                    return Arrays.stream(listeners)
+                            .filter(l -> l.isAccepted(type))
+                            .toArray(Listener[]::new);
+                }
+            } : null;
+        }
+
+        /**
+         * @return All listeners of the event class
+         */
+        public Listener[] getListeners() {
+            return listeners;
+        }
+
+        /**
+         * @param filterType The event filter type
+         * @return The listeners which accept the filter type
+         */
+        public Listener[] getListeners(Class<?> filterType) {
+            return filterTable != null ? filterTable.get(filterType) : listeners;
+        }
     }
 }
@@ -31,4 +31,29 @@ public interface EventHandler {
      * @return <tt>true</tt> if {@link Event#isCanceled()}
      */
     boolean dispatch(Event event);
+
+    /**
+     * Returns <tt>true</tt> if any {@link Listener} would receive events of
+     * the param class. Used at hot call sites to skip constructing and
+     * dispatching events nobody listens to.
+     *
+     * @param eventClass The event class
+     * @return <tt>true</tt> if the event class has active listeners
+     */
+    boolean hasListeners(Class<? extends Event> eventClass);
+
+    /**
+     * Invokes the {@link net.shoreline.client.api.event.listener.ThreadMode#MAIN}
+     * listeners which were queued by dispatches from other threads. Must be
+     * called from the main thread.
+     */
+    void drainMainThread();
+
+    /**
+     * Returns the profiler which records listener and event invocation
+     * statistics when enabled.
+     *
+     * @return The event profiler
+     */
+    EventProfiler getProfiler();
 }
@@ -0,0 +1,137 @@
+package net.shoreline.client.api.event.handler;
+
+import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.listener.Listener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Optional instrumentation of the {@link EventBus}. Records the invocation
+ * count, cumulative time and max latency of every {@link Listener} and
+ * every dispatched event class. When profiling is disabled, the only cost
+ * for the EventBus is checking {@link #isEnabled()}.
+ *
+ * @author linus
+ * @see InvocationProfile
+ * @since 1.0
+ */
+public class EventProfiler {
+    // The duration of each sample of the sliding window
+    private static final long SAMPLE_INTERVAL = 1000L;
+    // The active listeners of the EventBus
+    private final Supplier<Collection<Listener>> listeners;
+    // Profiles of each dispatched event class
+    private final Map<Class<?>, InvocationProfile> eventProfiles = new ConcurrentHashMap<>();
+    //
+    private volatile boolean enabled;
+    private long lastSample;
+
+    /**
+     * @param listeners The active listeners
+     */
+    public EventProfiler(Supplier<Collection<Listener>> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Invokes the listener and records the invocation time.
+     *
+     * @param listener The listener
+     * @param event    The event
+     */
+    public void invoke(Listener listener, Event event) {
+        long start = System.nanoTime();
+        listener.invokeSubscriber(event);
+        listener.getProfile().record(System.nanoTime() - start);
+    }
+
+    /**
+     * @param eventClass The dispatched event class
+     * @param elapsed    The dispatch time in nanoseconds
+     */
+    public void recordDispatch(Class<?> eventClass, long elapsed) {
+        InvocationProfile profile = eventProfiles.get(eventClass);
+        if (profile == null) {
+            profile = eventProfiles.computeIfAbsent(eventClass, c -> new InvocationProfile());
+        }
+        profile.record(elapsed);
+    }
+
+    /**
+     * Samples the sliding window of all profiles if the sample interval
+     * has passed. Must be called from a single thread, i.e. the main thread.
+     */
+    public void update() {
+        long time = System.currentTimeMillis();
+        if (time - lastSample < SAMPLE_INTERVAL) {
+            return;
+        }
+        lastSample = time;
+        for (Listener listener : listeners.get()) {
+            listener.getProfile().sample();
+        }
+        for (InvocationProfile profile : eventProfiles.values()) {
+            profile.sample();
+        }
+    }
+
+    /**
+     * Returns the active listeners which used the most time in the sliding
+     * window, sorted by time.
+     *
+     * @param count The max number of listeners
+     * @return The hottest listeners
+     */
+    public List<Listener> getHottestListeners(int count) {
+        update();
+        return listeners.get().stream()
+                .filter(l -> l.getProfile().getWindowInvocations() > 0)
+                .sorted(Comparator.comparingLong((Listener l) ->
+                        l.getProfile().getWindowNanos()).reversed())
+                .limit(count)
+                .toList();
+    }
+
+    /**
+     * Returns the event classes which used the most time in the sliding
+     * window, sorted by time.
+     *
+     * @param count The max number of events
+     * @return The hottest event classes and their profiles
+     */
+    public List<Map.Entry<Class<?>, InvocationProfile>> getHottestEvents(int count) {
+        update();
+        return eventProfiles.entrySet().stream()
+                .filter(e -> e.getValue().getWindowInvocations() > 0)
+                .sorted(Comparator.comparingLong((Map.Entry<Class<?>, InvocationProfile> e) ->
+                        e.getValue().getWindowNanos()).reversed())
+                .limit(count)
+                .toList();
+    }
+
+    /**
+     * Resets the profiles of all listeners and event classes.
+     */
+    public void reset() {
+        for (Listener listener : listeners.get()) {
+            listener.getProfile().reset();
+        }
+        eventProfiles.clear();
+    }
+
+    /**
+     * @return <tt>true</tt> if the profiler is recording
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
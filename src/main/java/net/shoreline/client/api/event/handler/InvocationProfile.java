@@ -0,0 +1,113 @@
+package net.shoreline.client.api.event.handler;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation statistics of a {@link net.shoreline.client.api.event.listener.Listener}
+ * or an event class. The counters are striped (see {@link LongAdder}) so
+ * recording from the main, network and worker threads never contends on a
+ * single lock or cache line.
+ *
+ * <p>The windowed values are updated by {@link #sample()} and hold the
+ * invocations and time of the last {@link #WINDOW} samples.</p>
+ *
+ * @author linus
+ * @see EventProfiler
+ * @since 1.0
+ */
+public class InvocationProfile {
+    // The number of samples in the sliding window
+    public static final int WINDOW = 5;
+    //
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    // Sliding window, only accessed by the sampling thread
+    private final long[] windowInvocations = new long[WINDOW];
+    private final long[] windowNanos = new long[WINDOW];
+    private int windowIndex;
+    private long lastInvocations;
+    private long lastNanos;
+
+    /**
+     * @param elapsed The invocation time in nanoseconds
+     */
+    public void record(long elapsed) {
+        invocations.increment();
+        nanos.add(elapsed);
+        maxNanos.accumulate(elapsed);
+    }
+
+    /**
+     * Adds the counters since the last sample to the sliding window and
+     * evicts the oldest sample.
+     */
+    public void sample() {
+        long currInvocations = invocations.sum();
+        long currNanos = nanos.sum();
+        windowInvocations[windowIndex] = currInvocations - lastInvocations;
+        windowNanos[windowIndex] = currNanos - lastNanos;
+        windowIndex = (windowIndex + 1) % WINDOW;
+        lastInvocations = currInvocations;
+        lastNanos = currNanos;
+    }
+
+    /**
+     *
+     */
+    public void reset() {
+        invocations.reset();
+        nanos.reset();
+        maxNanos.reset();
+        for (int i = 0; i < WINDOW; i++) {
+            windowInvocations[i] = 0L;
+            windowNanos[i] = 0L;
+        }
+        lastInvocations = 0L;
+        lastNanos = 0L;
+    }
+
+    /**
+     * @return The total number of invocations
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * @return The total invocation time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * @return The maximum invocation time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return The number of invocations in the sliding window
+     */
+    public long getWindowInvocations() {
+        long sum = 0L;
+        for (long n : windowInvocations) {
+            sum += n;
+        }
+        return sum;
+    }
+
+    /**
+     * @return The invocation time in the sliding window in nanoseconds
+     */
+    public long getWindowNanos() {
+        long sum = 0L;
+        for (long n : windowNanos) {
+            sum += n;
+        }
+        return sum;
+    }
+}
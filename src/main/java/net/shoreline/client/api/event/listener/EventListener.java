@@ -24,4 +24,25 @@ public @interface EventListener {
      * @return Whether canceled events can be dispatched
      */
     boolean receiveCanceled() default true;
+
+    /**
+     * Returns the classes which the listener is filtered to. Only applies to
+     * events which implement {@link net.shoreline.client.api.event.FilterableEvent},
+     * for example a {@code PacketEvent} listener can be filtered to the
+     * packet classes it handles. The default (empty) receives all events.
+     *
+     * @return The filter classes of the listener
+     * @see net.shoreline.client.api.event.FilterableEvent#getFilterType()
+     */
+    Class<?>[] filter() default {};
+
+    /**
+     * Returns the thread which the listener is invoked on. Listeners which
+     * are not invoked on the dispatching thread cannot cancel the event
+     * since the dispatch has already returned.
+     *
+     * @return The thread mode of the listener
+     * @see ThreadMode
+     */
+    ThreadMode threadMode() default ThreadMode.SAME;
 }
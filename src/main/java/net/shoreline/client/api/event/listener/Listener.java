@@ -4,15 +4,17 @@ import net.shoreline.client.Shoreline;
 import net.shoreline.client.api.Invokable;
 import net.shoreline.client.api.event.Event;
 import net.shoreline.client.api.event.handler.EventHandler;
+import net.shoreline.client.api.event.handler.InvocationProfile;
 
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@link Event} Listener that creates an {@link Invokable} and runs
@@ -38,8 +40,9 @@ import java.util.Map;
  * @since 1.0
  */
 public class Listener implements Comparable<Listener> {
-    // subscriber invoker cache for each listener method
-    private static final Map<Method, Invokable<Object>> INVOKE_CACHE = new HashMap<>();
+    // Invoker factory cache for each listener method. The factories are not
+    // bound to a subscriber, so each Listener binds its own subscriber.
+    private static final Map<Method, MethodHandle> INVOKE_CACHE = new ConcurrentHashMap<>();
     // the MethodHandler lookup
     private static final Lookup LOOKUP = MethodHandles.lookup();
     // The EventListener method which contains the code to invoke when the
@@ -52,6 +55,16 @@ public class Listener implements Comparable<Listener> {
     private final boolean receiveCanceled;
     //
     private final int priority;
+    // The classes this listener is filtered to. Empty if the listener
+    // receives all events regardless of their filter type.
+    private final Class<?>[] filter;
+    // The thread which the listener is invoked on
+    private final ThreadMode threadMode;
+    // Cleared when the subscriber is unsubscribed, read by the threads which
+    // run queued invocations
+    private volatile boolean subscribed = true;
+    // Invocation statistics, only recorded while the profiler is enabled
+    private final InvocationProfile profile = new InvocationProfile();
     // The Listener invoker created by the LambdaMetaFactory which invokes the
     // code from the Listener method.
     private Invokable<Object> invoker;
@@ -61,37 +74,55 @@ public class Listener implements Comparable<Listener> {
      * @param subscriber
      * @param receiveCanceled
      * @param priority
+     * @param filter
+     * @param threadMode
      */
     @SuppressWarnings("unchecked")
     public Listener(Method method, Object subscriber,
-                    boolean receiveCanceled, int priority) {
+                    boolean receiveCanceled, int priority, Class<?>[] filter,
+                    ThreadMode threadMode) {
         this.method = method;
         this.subscriber = subscriber;
         this.receiveCanceled = receiveCanceled;
         this.priority = priority;
+        this.filter = filter;
+        this.threadMode = threadMode;
         // lambda at runtime to call the method
         try {
-            if (!INVOKE_CACHE.containsKey(method)) {
-                MethodType methodType = MethodType.methodType(Invokable.class);
-                CallSite callSite = LambdaMetafactory.metafactory(
-                        LOOKUP, "invoke",
-                        methodType.appendParameterTypes(subscriber.getClass()),
-                        MethodType.methodType(void.class, Object.class),
-                        LOOKUP.unreflect(method),
-                        MethodType.methodType(void.class,
-                                method.getParameterTypes()[0])
-                );
-                invoker = (Invokable<Object>) callSite.getTarget().invoke(subscriber);
-                INVOKE_CACHE.put(method, invoker);
-            } else {
-                invoker = INVOKE_CACHE.get(method);
-            }
+            MethodHandle factory = INVOKE_CACHE.computeIfAbsent(method,
+                    Listener::createInvokerFactory);
+            invoker = (Invokable<Object>) factory.invoke(subscriber);
         } catch (Throwable e) {
             Shoreline.error("Failed to build invoker for {}!", method.getName());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Creates the {@link Invokable} factory for the listener method. The
+     * factory takes the subscriber and returns an invoker bound to it. The
+     * receiver type is the declaring class of the method so that the
+     * factory can be shared by all subscribers (including subclasses).
+     *
+     * @param method The listener method
+     * @return The invoker factory
+     */
+    private static MethodHandle createInvokerFactory(Method method) {
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    LOOKUP, "invoke",
+                    MethodType.methodType(Invokable.class, method.getDeclaringClass()),
+                    MethodType.methodType(void.class, Object.class),
+                    LOOKUP.unreflect(method),
+                    MethodType.methodType(void.class,
+                            method.getParameterTypes()[0])
+            );
+            return callSite.getTarget();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * @param event
      * @throws NullPointerException
@@ -144,4 +175,73 @@ public class Listener implements Comparable<Listener> {
     public int getPriority() {
         return priority;
     }
+
+    /**
+     * @return The subscriber class and method name of the listener
+     */
+    public String getName() {
+        return String.format("%s#%s", subscriber.getClass().getSimpleName(),
+                method.getName());
+    }
+
+    /**
+     * @return
+     * @see net.shoreline.client.api.event.handler.EventProfiler
+     */
+    public InvocationProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return
+     */
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    /**
+     * @return <tt>false</tt> if the subscriber was unsubscribed, queued
+     * invocations of the listener must not run
+     */
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    /**
+     * @param subscribed
+     */
+    public void setSubscribed(boolean subscribed) {
+        this.subscribed = subscribed;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the listener only receives events of certain
+     * filter types.
+     *
+     * @return <tt>true</tt> if the listener declares filter classes
+     * @see EventListener#filter()
+     */
+    public boolean isFiltered() {
+        return filter.length > 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the listener receives events of the param
+     * filter type.
+     *
+     * @param filterType The event filter type
+     * @return <tt>true</tt> if the listener accepts the filter type
+     * @see net.shoreline.client.api.event.FilterableEvent#getFilterType()
+     */
+    public boolean isAccepted(Class<?> filterType) {
+        if (!isFiltered()) {
+            return true;
+        }
+        for (Class<?> type : filter) {
+            if (type.isAssignableFrom(filterType)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,25 @@
+package net.shoreline.client.api.event.listener;
+
+/**
+ * The thread which an {@link EventListener} is invoked on.
+ *
+ * @author linus
+ * @see EventListener#threadMode()
+ * @since 1.0
+ */
+public enum ThreadMode {
+    /**
+     * The listener is invoked on the thread which dispatched the event.
+     */
+    SAME,
+    /**
+     * The listener is invoked on the main (client) thread. Events dispatched
+     * from other threads are queued and invoked at the start of the next
+     * client tick.
+     */
+    MAIN,
+    /**
+     * The listener is invoked on a background worker thread.
+     */
+    ASYNC
+}
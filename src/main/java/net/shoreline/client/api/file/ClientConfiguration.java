@@ -5,6 +5,7 @@ import net.shoreline.client.api.macro.MacroFile;
 import net.shoreline.client.api.module.Module;
 import net.shoreline.client.api.module.file.ModuleConfigFile;
 import net.shoreline.client.api.module.file.ModuleFile;
+import net.shoreline.client.api.module.file.ModuleProfileFile;
 import net.shoreline.client.api.social.SocialFile;
 import net.shoreline.client.api.social.SocialRelation;
 import net.shoreline.client.api.waypoint.WaypointFile;
@@ -18,6 +19,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author linus
@@ -25,6 +31,8 @@ import java.util.Set;
  * @since 1.0
  */
 public class ClientConfiguration implements Globals {
+    // Max number of threads used to read and parse the files on load
+    private static final int LOAD_THREADS = 4;
     // Set of configuration files that must be saved and loaded. This can be
     // modified after init.
     private final Set<ConfigFile> files = new HashSet<>();
@@ -104,8 +112,38 @@ public class ClientConfiguration implements Globals {
      *
      */
     public void loadClient() {
+        preload();
+        // configs are applied on the calling thread since loading can
+        // dispatch config update events
         for (ConfigFile file : files) {
             file.load();
+            file.discardPreload();
+        }
+    }
+
+    /**
+     * Reads and parses all client files in parallel on a bounded pool
+     */
+    private void preload() {
+        int threads = Math.max(1, Math.min(LOAD_THREADS,
+                Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Shoreline-Config-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture.allOf(files.stream()
+                    .map(file -> CompletableFuture.runAsync(file::preload, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+        // files which were not preloaded are read by load()
+        catch (CompletionException e) {
+            Shoreline.error("Could not preload client files");
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
         }
     }
 
@@ -114,9 +152,69 @@ public class ClientConfiguration implements Globals {
         file.save();
     }
 
+    /**
+     * Loads the module configuration preset. Loads the packed profile if it
+     * is not older than the json config.
+     *
+     * @param configFile
+     */
     public void loadModuleConfiguration(String configFile) {
         ModuleConfigFile file = new ModuleConfigFile(clientDir.resolve("Configs"), configFile);
-        file.load();
+        ModuleProfileFile profile = new ModuleProfileFile(clientDir.resolve("Configs"), configFile);
+        if (profile.exists() && !isOlder(profile, file)) {
+            profile.load();
+        } else {
+            file.load();
+        }
+    }
+
+    /**
+     * Saves the module configuration preset in the packed profile format
+     *
+     * @param configFile
+     */
+    public void packModuleConfiguration(String configFile) {
+        ModuleProfileFile profile = new ModuleProfileFile(clientDir.resolve("Configs"), configFile);
+        profile.save();
+    }
+
+    /**
+     * Packs the json module configuration preset into a profile
+     *
+     * @param configFile
+     * @return <tt>true</tt> if the json config was imported
+     */
+    public boolean importModuleConfiguration(String configFile) {
+        ModuleConfigFile file = new ModuleConfigFile(clientDir.resolve("Configs"), configFile);
+        ModuleProfileFile profile = new ModuleProfileFile(clientDir.resolve("Configs"), configFile);
+        return profile.importJson(file);
+    }
+
+    /**
+     * Unpacks the module configuration profile into a json preset
+     *
+     * @param configFile
+     * @return <tt>true</tt> if the profile was exported
+     */
+    public boolean exportModuleConfiguration(String configFile) {
+        ModuleConfigFile file = new ModuleConfigFile(clientDir.resolve("Configs"), configFile);
+        ModuleProfileFile profile = new ModuleProfileFile(clientDir.resolve("Configs"), configFile);
+        return profile.exportJson(file);
+    }
+
+    /**
+     * @param file
+     * @param other
+     * @return <tt>true</tt> if the file was last modified before the other
+     * file
+     */
+    private boolean isOlder(ConfigFile file, ConfigFile other) {
+        try {
+            return Files.exists(other.getFilepath()) && Files.getLastModifiedTime(file.getFilepath())
+                    .compareTo(Files.getLastModifiedTime(other.getFilepath())) < 0;
+        } catch (IOException e) {
+            return false;
+        }
     }
 
     public Set<ConfigFile> getFiles() {
@@ -1,16 +1,15 @@
 package net.shoreline.client.api.file;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
 import net.shoreline.client.Shoreline;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-
-import static org.apache.logging.log4j.core.util.IOUtils.EOF;
+import java.nio.file.StandardCopyOption;
 
 /**
  * @author linus
@@ -26,11 +25,26 @@ public abstract class ConfigFile {
     // within the client directory.
     private final String fileName;
     private final Path filepath;
+    // Json of the file parsed ahead of load() by the parallel preload. Used
+    // by the first read of the file.
+    private volatile JsonElement preloaded;
+    // Json last read from or written to the file. Saves are skipped if the
+    // json has not changed.
+    private JsonElement savedJson;
 
     /**
      * @param path
      */
     public ConfigFile(Path dir, String path) {
+        this(dir, path, "json");
+    }
+
+    /**
+     * @param dir
+     * @param path
+     * @param extension The file extension
+     */
+    public ConfigFile(Path dir, String path, String extension) {
         // create directory
         if (!Files.exists(dir)) {
             try {
@@ -43,7 +57,7 @@ public abstract class ConfigFile {
             }
         }
         fileName = dir.getFileName().toString();
-        filepath = dir.resolve(toJsonPath(path));
+        filepath = dir.resolve(toFilePath(path, extension));
     }
 
     /**
@@ -52,14 +66,93 @@ public abstract class ConfigFile {
      * @throws IOException
      */
     protected String read(Path path) throws IOException {
-        StringBuilder content = new StringBuilder();
-        InputStream in = Files.newInputStream(path);
-        int b;
-        while ((b = in.read()) != EOF) {
-            content.append((char) b);
+        return Files.readString(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads and parses the json in the file at the path. Files are streamed
+     * into the parser without reading the whole file into a string.
+     *
+     * @param path
+     * @return The parsed json or <tt>null</tt> if the json is invalid
+     * @throws IOException
+     */
+    protected JsonElement readJson(Path path) throws IOException {
+        if (!path.equals(filepath)) {
+            return parseJson(path);
         }
-        in.close();
-        return content.toString();
+        JsonElement json = preloaded;
+        if (json != null) {
+            preloaded = null;
+        } else {
+            json = parseJson(path);
+        }
+        savedJson = json;
+        return json;
+    }
+
+    /**
+     * @param path
+     * @return The parsed json object or <tt>null</tt> if the file does not
+     * contain a json object
+     * @throws IOException
+     */
+    protected JsonObject readObject(Path path) throws IOException {
+        JsonElement json = readJson(path);
+        return json != null && json.isJsonObject() ? json.getAsJsonObject() : null;
+    }
+
+    /**
+     * @param path
+     * @return The parsed json array or <tt>null</tt> if the file does not
+     * contain a json array
+     * @throws IOException
+     */
+    protected JsonArray readArray(Path path) throws IOException {
+        JsonElement json = readJson(path);
+        return json != null && json.isJsonArray() ? json.getAsJsonArray() : null;
+    }
+
+    /**
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    private JsonElement parseJson(Path path) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            // leniency to allow for .cfg files
+            reader.setLenient(true);
+            return JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            Shoreline.error("Invalid json syntax in {}!", path.getFileName());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Parses the file ahead of {@link #load()}. Called in parallel for all
+     * client files, so this must not modify any client state.
+     */
+    void preload() {
+        preloaded = null;
+        try {
+            if (Files.exists(filepath)) {
+                preloaded = parseJson(filepath);
+            }
+        }
+        // error reading file, load() will try again
+        catch (IOException e) {
+            Shoreline.error("Could not preload {}!", filepath.getFileName());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Clears the preloaded json if it was not used by {@link #load()}
+     */
+    void discardPreload() {
+        preloaded = null;
     }
 
     /**
@@ -108,10 +201,45 @@ public abstract class ConfigFile {
      * @throws IOException
      */
     protected void write(Path path, String content) throws IOException {
-        OutputStream out = Files.newOutputStream(path);
-        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
-        out.write(bytes, 0, bytes.length);
-        out.close();
+        write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param path
+     * @param bytes
+     * @throws IOException
+     */
+    protected void write(Path path, byte[] bytes) throws IOException {
+        // write to a temp file and replace the file, so the file is never
+        // left partially written
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, bytes);
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the json to the file at the path. The write is skipped if the
+     * json is equal to the json last read from or written to the file.
+     *
+     * @param path
+     * @param json
+     * @throws IOException
+     */
+    protected void writeJson(Path path, JsonElement json) throws IOException {
+        if (!path.equals(filepath)) {
+            write(path, serialize(json));
+            return;
+        }
+        if (json.equals(savedJson) && Files.exists(path) && Files.size(path) > 0) {
+            return;
+        }
+        write(path, serialize(json));
+        savedJson = json;
     }
 
     public String getFileName() {
@@ -142,9 +270,10 @@ public abstract class ConfigFile {
 
     /**
      * @param fileName
+     * @param extension
      * @return
      */
-    private String toJsonPath(String fileName) {
-        return String.format("%s.json", fileName).toLowerCase();
+    private String toFilePath(String fileName, String extension) {
+        return String.format("%s.%s", fileName, extension).toLowerCase();
     }
 }
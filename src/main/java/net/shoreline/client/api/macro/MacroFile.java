@@ -33,7 +33,7 @@ public class MacroFile extends ConfigFile {
             for (Macro macro : Managers.MACRO.getMacros()) {
                 object.add(macro.toJson());
             }
-            write(filepath, serialize(object));
+            writeJson(filepath, object);
         }
         // error writing file
         catch (IOException e) {
@@ -48,9 +48,11 @@ public class MacroFile extends ConfigFile {
         try {
             Path filepath = getFilepath();
             if (Files.exists(filepath)) {
-                String content = read(filepath);
-                JsonArray object = parseArray(content);
-                for (JsonElement element : object.getAsJsonArray())
+                JsonArray object = readArray(filepath);
+                if (object == null) {
+                    return;
+                }
+                for (JsonElement element : object)
                 {
                     JsonObject jsonObject = element.getAsJsonObject();
                     if (jsonObject.has("id")) {
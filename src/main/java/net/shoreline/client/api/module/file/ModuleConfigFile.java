@@ -34,7 +34,7 @@ public class ModuleConfigFile extends ConfigFile {
                 array.add(module.toJson());
             }
             out.add("configs", array);
-            write(filepath, serialize(out));
+            writeJson(filepath, out);
         }
         // error writing file
         catch (IOException e) {
@@ -48,9 +48,8 @@ public class ModuleConfigFile extends ConfigFile {
         try {
             Path filepath = getFilepath();
             if (Files.exists(filepath)) {
-                String content = read(filepath);
-                JsonObject in = parseObject(content);
-                if (!in.has("configs")) {
+                JsonObject in = readObject(filepath);
+                if (in == null || !in.has("configs")) {
                     return;
                 }
                 JsonArray array = in.getAsJsonArray("configs");
@@ -39,7 +39,7 @@ public class ModuleFile extends ConfigFile {
                 Files.createFile(filepath);
             }
             JsonObject json = module.toJson();
-            write(filepath, serialize(json));
+            writeJson(filepath, json);
         }
         // error writing file
         catch (IOException e) {
@@ -56,8 +56,10 @@ public class ModuleFile extends ConfigFile {
         try {
             Path filepath = getFilepath();
             if (Files.exists(filepath)) {
-                String content = read(filepath);
-                module.fromJson(parseObject(content));
+                JsonObject json = readObject(filepath);
+                if (json != null) {
+                    module.fromJson(json);
+                }
             }
         }
         // error writing file
@@ -0,0 +1,167 @@
+package net.shoreline.client.api.module.file;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.file.ConfigFile;
+import net.shoreline.client.api.module.Module;
+import net.shoreline.client.init.Managers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Module configuration preset saved in the packed profile format. Loading
+ * a profile reads the file and decodes the module values without parsing
+ * any json text. Profiles can be exported to and imported from the json
+ * format of {@link ModuleConfigFile} for editing.
+ *
+ * @author linus
+ * @see ProfileCodec
+ * @see ModuleConfigFile
+ * @since 1.0
+ */
+public class ModuleProfileFile extends ConfigFile {
+
+    /**
+     * @param dir
+     * @param path
+     */
+    public ModuleProfileFile(Path dir, String path) {
+        super(dir, path, "profile");
+    }
+
+    /**
+     *
+     */
+    @Override
+    public void save() {
+        Map<String, JsonObject> modules = new LinkedHashMap<>();
+        for (Module module : Managers.MODULE.getModules()) {
+            modules.put(module.getId(), module.toJson());
+        }
+        try {
+            write(getFilepath(), ProfileCodec.encode(modules));
+        }
+        // error writing file
+        catch (IOException e) {
+            Shoreline.error("Could not save profile {}!", getFilepath().getFileName());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     *
+     */
+    @Override
+    public void load() {
+        try {
+            Map<String, JsonObject> modules = readProfile();
+            if (modules == null) {
+                return;
+            }
+            for (Map.Entry<String, JsonObject> entry : modules.entrySet()) {
+                Module module = Managers.MODULE.getModule(entry.getKey());
+                if (module != null) {
+                    module.fromJson(entry.getValue());
+                }
+            }
+        }
+        // error reading file
+        catch (IOException | JsonParseException e) {
+            Shoreline.error("Could not read profile {}!", getFilepath().getFileName());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Packs the module configs of the json config file into this profile
+     *
+     * @param file The json config file
+     * @return <tt>true</tt> if the json config was imported
+     */
+    public boolean importJson(ModuleConfigFile file) {
+        try {
+            if (!Files.exists(file.getFilepath())) {
+                return false;
+            }
+            JsonObject in = readObject(file.getFilepath());
+            if (in == null || !in.has("configs")) {
+                return false;
+            }
+            Map<String, JsonObject> modules = new LinkedHashMap<>();
+            for (JsonElement element : in.getAsJsonArray("configs")) {
+                if (element.isJsonObject() && element.getAsJsonObject().has("id")) {
+                    JsonObject object = element.getAsJsonObject();
+                    modules.put(object.get("id").getAsString(), object);
+                }
+            }
+            write(getFilepath(), ProfileCodec.encode(modules));
+            return true;
+        }
+        // error reading or writing file
+        catch (IOException | RuntimeException e) {
+            Shoreline.error("Could not import {}!", file.getFilepath().getFileName());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Unpacks this profile into the json config file
+     *
+     * @param file The json config file
+     * @return <tt>true</tt> if the profile was exported
+     */
+    public boolean exportJson(ModuleConfigFile file) {
+        try {
+            Map<String, JsonObject> modules = readProfile();
+            if (modules == null) {
+                return false;
+            }
+            final JsonObject out = new JsonObject();
+            final JsonArray array = new JsonArray();
+            for (JsonObject module : modules.values()) {
+                array.add(module);
+            }
+            out.add("configs", array);
+            write(file.getFilepath(), serialize(out));
+            return true;
+        }
+        // error reading or writing file
+        catch (IOException | JsonParseException e) {
+            Shoreline.error("Could not export profile {}!", getFilepath().getFileName());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * @return The module json by module id or <tt>null</tt> if the profile
+     * does not exist
+     * @throws IOException
+     * @throws JsonParseException if the profile is corrupted
+     */
+    private Map<String, JsonObject> readProfile() throws IOException {
+        Path filepath = getFilepath();
+        if (!Files.exists(filepath)) {
+            return null;
+        }
+        // profiles are small, a mapped buffer would keep the file open
+        // until it is collected and block replacing the file on windows
+        return ProfileCodec.decode(ByteBuffer.wrap(Files.readAllBytes(filepath)));
+    }
+
+    /**
+     * @return <tt>true</tt> if the profile exists
+     */
+    public boolean exists() {
+        return Files.exists(getFilepath());
+    }
+}
@@ -0,0 +1,385 @@
+package net.shoreline.client.api.module.file;
+
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes module json in the packed profile format. A profile starts with
+ * a header containing a shared string table and an index of module ids
+ * and offsets, followed by the encoded module json. Json values are
+ * stored as tagged values with varint lengths and string table indices,
+ * and decode back to the same json.
+ *
+ * <pre>
+ * int    magic
+ * byte   version
+ * varint string count, strings as (varint length, UTF-8 bytes)
+ * varint module count, modules as (varint id string, varint offset, varint length)
+ * bytes  module values, offsets are relative to the end of the header
+ * </pre>
+ *
+ * @author linus
+ * @see ModuleProfileFile
+ * @since 1.0
+ */
+final class ProfileCodec {
+    //
+    private static final int MAGIC = 0x53484c50; // SHLP
+    private static final byte VERSION = 1;
+    // Value tags
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte NUMBER = 6;
+    private static final byte STRING = 7;
+    private static final byte ARRAY = 8;
+    private static final byte OBJECT = 9;
+    // Max nesting of json values, deeper values are from a corrupted profile
+    private static final int MAX_DEPTH = 512;
+
+    private ProfileCodec() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param modules The module json by module id
+     * @return The encoded profile
+     */
+    public static byte[] encode(Map<String, JsonObject> modules) {
+        Object2IntOpenHashMap<String> strings = new Object2IntOpenHashMap<>();
+        strings.defaultReturnValue(-1);
+        List<String> table = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int[] ids = new int[modules.size()];
+        int[] offsets = new int[modules.size()];
+        int[] lengths = new int[modules.size()];
+        int i = 0;
+        for (Map.Entry<String, JsonObject> module : modules.entrySet()) {
+            ids[i] = intern(module.getKey(), strings, table);
+            offsets[i] = body.size();
+            writeValue(body, module.getValue(), strings, table);
+            lengths[i] = body.size() - offsets[i];
+            i++;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.size() + 1024);
+        writeInt(out, MAGIC);
+        out.write(VERSION);
+        writeVarInt(out, table.size());
+        for (String string : table) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        writeVarInt(out, ids.length);
+        for (int j = 0; j < ids.length; j++) {
+            writeVarInt(out, ids[j]);
+            writeVarInt(out, offsets[j]);
+            writeVarInt(out, lengths[j]);
+        }
+        body.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the module json of all modules in the profile. The buffer is
+     * read from its current position.
+     *
+     * @param buf The encoded profile
+     * @return The module json by module id in profile order
+     * @throws JsonParseException if the buffer is not a valid profile
+     */
+    public static Map<String, JsonObject> decode(ByteBuffer buf) {
+        try {
+            if (buf.getInt() != MAGIC) {
+                throw new JsonParseException("Not a packed profile");
+            }
+            byte version = buf.get();
+            if (version != VERSION) {
+                throw new JsonParseException("Unsupported profile version " + version);
+            }
+            // counts and lengths are checked before allocating, each string
+            // and value takes at least one byte
+            String[] table = new String[readLength(buf, 1)];
+            byte[] bytes = new byte[64];
+            for (int i = 0; i < table.length; i++) {
+                int len = readLength(buf, 1);
+                if (bytes.length < len) {
+                    bytes = new byte[len];
+                }
+                buf.get(bytes, 0, len);
+                table[i] = new String(bytes, 0, len, StandardCharsets.UTF_8);
+            }
+            int count = readLength(buf, 3);
+            String[] ids = new String[count];
+            int[] offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = table[readVarInt(buf)];
+                offsets[i] = readVarInt(buf);
+                // length is only needed to skip modules
+                readVarInt(buf);
+            }
+            int start = buf.position();
+            Map<String, JsonObject> modules = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                buf.position(start + offsets[i]);
+                JsonElement json = readValue(buf, table, 0);
+                if (json.isJsonObject()) {
+                    modules.put(ids[i], json.getAsJsonObject());
+                }
+            }
+            return modules;
+        }
+        // truncated or corrupted profile
+        catch (BufferUnderflowException | IndexOutOfBoundsException
+               | IllegalArgumentException e) {
+            throw new JsonParseException("Corrupted profile", e);
+        }
+    }
+
+    /**
+     * @param out
+     * @param json
+     * @param strings
+     * @param table
+     */
+    private static void writeValue(ByteArrayOutputStream out, JsonElement json,
+                                   Object2IntOpenHashMap<String> strings, List<String> table) {
+        if (json == null || json.isJsonNull()) {
+            out.write(NULL);
+        } else if (json.isJsonObject()) {
+            JsonObject object = json.getAsJsonObject();
+            out.write(OBJECT);
+            writeVarInt(out, object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeVarInt(out, intern(entry.getKey(), strings, table));
+                writeValue(out, entry.getValue(), strings, table);
+            }
+        } else if (json.isJsonArray()) {
+            JsonArray array = json.getAsJsonArray();
+            out.write(ARRAY);
+            writeVarInt(out, array.size());
+            for (JsonElement element : array) {
+                writeValue(out, element, strings, table);
+            }
+        } else {
+            JsonPrimitive primitive = json.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.write(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (primitive.isString()) {
+                out.write(STRING);
+                writeVarInt(out, intern(primitive.getAsString(), strings, table));
+            } else {
+                writeNumber(out, primitive.getAsNumber(), strings, table);
+            }
+        }
+    }
+
+    /**
+     * Writes the number with the tag that decodes to the same json number
+     *
+     * @param out
+     * @param number
+     * @param strings
+     * @param table
+     */
+    private static void writeNumber(ByteArrayOutputStream out, Number number,
+                                    Object2IntOpenHashMap<String> strings, List<String> table) {
+        if (number instanceof Integer || number instanceof Long
+                || number instanceof Short || number instanceof Byte) {
+            out.write(INT);
+            writeVarLong(out, number.longValue());
+        } else if (number instanceof Float f) {
+            out.write(FLOAT);
+            writeInt(out, Float.floatToRawIntBits(f));
+        } else if (number instanceof Double d) {
+            out.write(DOUBLE);
+            writeLong(out, Double.doubleToRawLongBits(d));
+        } else {
+            // numbers parsed from json files keep their exact text
+            String text = number.toString();
+            if (number instanceof LazilyParsedNumber && isInt(text)) {
+                out.write(INT);
+                writeVarLong(out, Integer.parseInt(text));
+            } else {
+                out.write(NUMBER);
+                writeVarInt(out, intern(text, strings, table));
+            }
+        }
+    }
+
+    /**
+     * @param buf
+     * @param table
+     * @param depth The nesting of the value
+     * @return
+     */
+    private static JsonElement readValue(ByteBuffer buf, String[] table, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new JsonParseException("Profile values nested too deep");
+        }
+        byte tag = buf.get();
+        switch (tag) {
+            case NULL -> {
+                return JsonNull.INSTANCE;
+            }
+            case FALSE -> {
+                return new JsonPrimitive(false);
+            }
+            case TRUE -> {
+                return new JsonPrimitive(true);
+            }
+            case INT -> {
+                long val = readVarLong(buf);
+                return (int) val == val ? new JsonPrimitive((int) val) : new JsonPrimitive(val);
+            }
+            case FLOAT -> {
+                return new JsonPrimitive(Float.intBitsToFloat(buf.getInt()));
+            }
+            case DOUBLE -> {
+                return new JsonPrimitive(Double.longBitsToDouble(buf.getLong()));
+            }
+            case NUMBER -> {
+                return new JsonPrimitive(new LazilyParsedNumber(table[readVarInt(buf)]));
+            }
+            case STRING -> {
+                return new JsonPrimitive(table[readVarInt(buf)]);
+            }
+            case ARRAY -> {
+                int size = readLength(buf, 1);
+                JsonArray array = new JsonArray(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(readValue(buf, table, depth + 1));
+                }
+                return array;
+            }
+            case OBJECT -> {
+                int size = readLength(buf, 2);
+                JsonObject object = new JsonObject();
+                for (int i = 0; i < size; i++) {
+                    String key = table[readVarInt(buf)];
+                    object.add(key, readValue(buf, table, depth + 1));
+                }
+                return object;
+            }
+            default -> throw new JsonParseException("Unknown value tag " + tag);
+        }
+    }
+
+    /**
+     * @param string
+     * @param strings
+     * @param table
+     * @return The index of the string in the string table
+     */
+    private static int intern(String string, Object2IntOpenHashMap<String> strings, List<String> table) {
+        int index = strings.getInt(string);
+        if (index == -1) {
+            index = table.size();
+            strings.put(string, index);
+            table.add(string);
+        }
+        return index;
+    }
+
+    /**
+     * @param text
+     * @return <tt>true</tt> if the text is the canonical form of an int
+     */
+    private static boolean isInt(String text) {
+        try {
+            return Integer.toString(Integer.parseInt(text)).equals(text);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int val) {
+        out.write(val >>> 24);
+        out.write(val >>> 16);
+        out.write(val >>> 8);
+        out.write(val);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long val) {
+        writeInt(out, (int) (val >>> 32));
+        writeInt(out, (int) val);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int val) {
+        while ((val & ~0x7f) != 0) {
+            out.write(val & 0x7f | 0x80);
+            val >>>= 7;
+        }
+        out.write(val);
+    }
+
+    /**
+     * Writes a zigzag encoded var long, so small negative values are short
+     *
+     * @param out
+     * @param val
+     */
+    private static void writeVarLong(ByteArrayOutputStream out, long val) {
+        long zigzag = val << 1 ^ val >> 63;
+        while ((zigzag & ~0x7fL) != 0) {
+            out.write((int) (zigzag & 0x7f | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    /**
+     * Reads a count or length which is checked against the rest of the
+     * buffer, so corrupted profiles never allocate negative or huge arrays
+     *
+     * @param buf
+     * @param minBytes The min encoded size of one element
+     * @return The count or length
+     * @throws JsonParseException if the rest of the buffer cannot hold the
+     *                            elements
+     */
+    private static int readLength(ByteBuffer buf, int minBytes) {
+        int len = readVarInt(buf);
+        if (len < 0 || len > buf.remaining() / minBytes) {
+            throw new JsonParseException("Invalid length " + len);
+        }
+        return len;
+    }
+
+    private static int readVarInt(ByteBuffer buf) {
+        int val = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.get();
+            val |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return val;
+            }
+        }
+        throw new JsonParseException("VarInt too big");
+    }
+
+    private static long readVarLong(ByteBuffer buf) {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buf.get();
+            zigzag |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return zigzag >>> 1 ^ -(zigzag & 1);
+            }
+        }
+        throw new JsonParseException("VarLong too big");
+    }
+}
@@ -0,0 +1,46 @@
+package net.shoreline.client.api.render;
+
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Vertex consumer provider which keeps a separate buffer for every render
+ * layer it is asked for. Switching between layers does not draw the
+ * previous layer, so all vertices are drawn by one {@link #draw()} with
+ * one draw call per layer. Layers are drawn in the order they were first
+ * used.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class BatchedVertexConsumerProvider implements VertexConsumerProvider {
+    // Buffers by layer, the immediate provider reads this map so buffers
+    // added for new layers are used by the provider
+    private final Map<RenderLayer, BufferBuilder> buffers = new LinkedHashMap<>();
+    private final VertexConsumerProvider.Immediate immediate =
+            VertexConsumerProvider.immediate(buffers, new BufferBuilder(256));
+
+    /**
+     * @param layer
+     * @return
+     */
+    @Override
+    public VertexConsumer getBuffer(RenderLayer layer) {
+        if (!buffers.containsKey(layer)) {
+            buffers.put(layer, new BufferBuilder(layer.getExpectedBufferSize()));
+        }
+        return immediate.getBuffer(layer);
+    }
+
+    /**
+     * Draws all buffered layers
+     */
+    public void draw() {
+        immediate.draw();
+    }
+}
@@ -1,8 +1,13 @@
 package net.shoreline.client.api.render;
 
 import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.VertexBuffer;
 import net.minecraft.client.render.*;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.ColorHelper;
+import net.minecraft.util.math.Vec3d;
 import org.joml.Matrix4f;
 import org.lwjgl.opengl.GL11;
 
@@ -101,4 +106,96 @@ public class RenderBuffers {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retained geometry which is only uploaded to the GPU when the shapes
+     * or the camera origin section change. Vertices are relative to the
+     * origin of the camera section, so positions stay small far from the
+     * world origin. Should only be used on the render thread.
+     */
+    public static class Retained {
+        private final RetainedGeometry geometry = new RetainedGeometry();
+        private final BufferBuilder buffer = new BufferBuilder(256);
+        private final Matrix4f modelView = new Matrix4f();
+        private VertexBuffer quads;
+        private VertexBuffer lines;
+        private long origin = Long.MAX_VALUE;
+
+        public RetainedGeometry getGeometry() {
+            return geometry;
+        }
+
+        /**
+         * Draws the geometry, uploads the geometry first if it changed
+         *
+         * @param matrices The matrices of the {@link net.shoreline.client.impl.event.render.RenderWorldEvent}
+         * @param width    The line width of the outlines
+         */
+        public void draw(MatrixStack matrices, float width) {
+            Vec3d camera = MinecraftClient.getInstance().getBlockEntityRenderDispatcher().camera.getPos();
+            long section = ChunkSectionPos.from(camera).asLong();
+            int originX = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(section));
+            int originY = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(section));
+            int originZ = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(section));
+            if (geometry.isDirty() || origin != section) {
+                origin = section;
+                geometry.build(originX, originY, originZ);
+                if (quads == null) {
+                    quads = new VertexBuffer(VertexBuffer.Usage.STATIC);
+                    lines = new VertexBuffer(VertexBuffer.Usage.STATIC);
+                }
+                upload(quads, VertexFormat.DrawMode.QUADS, geometry.getQuadVertices(), geometry.getQuadCount());
+                upload(lines, VertexFormat.DrawMode.DEBUG_LINES, geometry.getLineVertices(), geometry.getLineCount());
+            }
+            if (geometry.getQuadCount() == 0 && geometry.getLineCount() == 0) {
+                return;
+            }
+            // the matrices are translated by the camera position, replace the
+            // translation with the camera offset of the origin
+            modelView.set(RenderSystem.getModelViewMatrix())
+                    .mul(new Matrix4f(matrices.peek().getPositionMatrix()).setTranslation(0.0f, 0.0f, 0.0f))
+                    .translate((float) (originX - camera.x), (float) (originY - camera.y), (float) (originZ - camera.z));
+            if (geometry.getQuadCount() > 0) {
+                drawBuffer(quads);
+            }
+            if (geometry.getLineCount() > 0) {
+                RenderSystem.lineWidth(width);
+                drawBuffer(lines);
+            }
+        }
+
+        private void upload(VertexBuffer vertexBuffer, VertexFormat.DrawMode drawMode, int[] vertices, int count) {
+            if (count == 0) {
+                return;
+            }
+            buffer.begin(drawMode, VertexFormats.POSITION_COLOR);
+            for (int i = 0; i < count * RetainedGeometry.VERTEX_SIZE; i += RetainedGeometry.VERTEX_SIZE) {
+                buffer.vertex(Float.intBitsToFloat(vertices[i]), Float.intBitsToFloat(vertices[i + 1]),
+                        Float.intBitsToFloat(vertices[i + 2])).color(vertices[i + 3]).next();
+            }
+            vertexBuffer.bind();
+            vertexBuffer.upload(buffer.end());
+            VertexBuffer.unbind();
+        }
+
+        private void drawBuffer(VertexBuffer vertexBuffer) {
+            vertexBuffer.bind();
+            vertexBuffer.draw(modelView, RenderSystem.getProjectionMatrix(), GameRenderer.getPositionColorProgram());
+            VertexBuffer.unbind();
+        }
+
+        /**
+         * Clears the geometry and deletes the GPU buffers
+         */
+        public void close() {
+            geometry.clear();
+            origin = Long.MAX_VALUE;
+            if (quads != null) {
+                quads.close();
+                lines.close();
+                quads = null;
+                lines = null;
+            }
+        }
+    }
+}
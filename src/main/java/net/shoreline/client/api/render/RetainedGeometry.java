@@ -0,0 +1,271 @@
+package net.shoreline.client.api.render;
+
+import net.minecraft.util.math.Box;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CPU side geometry of a set of keyed shapes. Shapes are submitted by key
+ * and the packed vertices are only rebuilt by {@link #build(double, double, double)}
+ * after the shape set changed. Vertices are packed as
+ * <tt>[x, y, z, argb]</tt> ints, with the positions stored as float bits
+ * relative to the build origin, in the same order as
+ * {@link RenderManager#drawBox(net.minecraft.client.util.math.MatrixStack, Box, int)}
+ * and {@link RenderManager#drawBoundingBox(net.minecraft.client.util.math.MatrixStack, Box, int)}.
+ * Does not use GL, so it can be used without a GL context.
+ *
+ * @author linus
+ * @see RenderBuffers.Retained
+ * @since 1.0
+ */
+public class RetainedGeometry {
+    // Ints per packed vertex
+    public static final int VERTEX_SIZE = 4;
+    //
+    private final Map<Object, Shape> shapes = new LinkedHashMap<>();
+    // Packed vertices of the last build
+    private int[] quadVertices = new int[0];
+    private int[] lineVertices = new int[0];
+    private int quadCount;
+    private int lineCount;
+    // Submission generation, used to remove shapes which were not submitted
+    private int generation;
+    private boolean dirty;
+
+    /**
+     * Submits a box shape. The geometry only changes if the key is new or
+     * the box or colors of the key changed.
+     *
+     * @param key     The shape key
+     * @param box     The box in world coordinates
+     * @param fill    The fill color, not drawn if the alpha is <tt>0</tt>
+     * @param outline The outline color, not drawn if the alpha is <tt>0</tt>
+     */
+    public void putBox(Object key, Box box, int fill, int outline) {
+        Shape shape = shapes.get(key);
+        if (shape == null) {
+            shapes.put(key, new Shape(box, fill, outline, generation));
+            dirty = true;
+            return;
+        }
+        shape.generation = generation;
+        if (shape.fill != fill || shape.outline != outline || !shape.box.equals(box)) {
+            shape.box = box;
+            shape.fill = fill;
+            shape.outline = outline;
+            dirty = true;
+        }
+    }
+
+    /**
+     * @param key The shape key
+     */
+    public void remove(Object key) {
+        if (shapes.remove(key) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes the shapes which were not submitted since the last call, so
+     * modules can submit their current shapes every frame
+     */
+    public void removeUnused() {
+        Iterator<Shape> iterator = shapes.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().generation != generation) {
+                iterator.remove();
+                dirty = true;
+            }
+        }
+        generation++;
+    }
+
+    /**
+     *
+     */
+    public void clear() {
+        if (!shapes.isEmpty()) {
+            shapes.clear();
+            dirty = true;
+        }
+    }
+
+    /**
+     * Packs the vertices of all shapes relative to the origin
+     *
+     * @param originX
+     * @param originY
+     * @param originZ
+     */
+    public void build(double originX, double originY, double originZ) {
+        int quads = 0;
+        int lines = 0;
+        for (Shape shape : shapes.values()) {
+            if (shape.fill >>> 24 != 0) {
+                quads += 24;
+            }
+            if (shape.outline >>> 24 != 0) {
+                lines += 24;
+            }
+        }
+        quadVertices = ensureCapacity(quadVertices, quads * VERTEX_SIZE);
+        lineVertices = ensureCapacity(lineVertices, lines * VERTEX_SIZE);
+        quadCount = 0;
+        lineCount = 0;
+        for (Shape shape : shapes.values()) {
+            Box box = shape.box;
+            float x1 = (float) (box.minX - originX);
+            float y1 = (float) (box.minY - originY);
+            float z1 = (float) (box.minZ - originZ);
+            float x2 = (float) (box.maxX - originX);
+            float y2 = (float) (box.maxY - originY);
+            float z2 = (float) (box.maxZ - originZ);
+            if (shape.fill >>> 24 != 0) {
+                packBox(x1, y1, z1, x2, y2, z2, shape.fill);
+            }
+            if (shape.outline >>> 24 != 0) {
+                packBoundingBox(x1, y1, z1, x2, y2, z2, shape.outline);
+            }
+        }
+        dirty = false;
+    }
+
+    private void packBox(float x1, float y1, float z1, float x2, float y2, float z2, int color) {
+        quad(x1, y1, z1, color);
+        quad(x2, y1, z1, color);
+        quad(x2, y1, z2, color);
+        quad(x1, y1, z2, color);
+
+        quad(x1, y2, z1, color);
+        quad(x1, y2, z2, color);
+        quad(x2, y2, z2, color);
+        quad(x2, y2, z1, color);
+
+        quad(x1, y1, z1, color);
+        quad(x1, y2, z1, color);
+        quad(x2, y2, z1, color);
+        quad(x2, y1, z1, color);
+
+        quad(x2, y1, z1, color);
+        quad(x2, y2, z1, color);
+        quad(x2, y2, z2, color);
+        quad(x2, y1, z2, color);
+
+        quad(x1, y1, z2, color);
+        quad(x2, y1, z2, color);
+        quad(x2, y2, z2, color);
+        quad(x1, y2, z2, color);
+
+        quad(x1, y1, z1, color);
+        quad(x1, y1, z2, color);
+        quad(x1, y2, z2, color);
+        quad(x1, y2, z1, color);
+    }
+
+    private void packBoundingBox(float x1, float y1, float z1, float x2, float y2, float z2, int color) {
+        line(x1, y1, z1, color);
+        line(x2, y1, z1, color);
+        line(x2, y1, z1, color);
+        line(x2, y1, z2, color);
+        line(x2, y1, z2, color);
+        line(x1, y1, z2, color);
+        line(x1, y1, z2, color);
+        line(x1, y1, z1, color);
+
+        line(x1, y1, z1, color);
+        line(x1, y2, z1, color);
+        line(x2, y1, z1, color);
+        line(x2, y2, z1, color);
+        line(x2, y1, z2, color);
+        line(x2, y2, z2, color);
+        line(x1, y1, z2, color);
+        line(x1, y2, z2, color);
+
+        line(x1, y2, z1, color);
+        line(x2, y2, z1, color);
+        line(x2, y2, z1, color);
+        line(x2, y2, z2, color);
+        line(x2, y2, z2, color);
+        line(x1, y2, z2, color);
+        line(x1, y2, z2, color);
+        line(x1, y2, z1, color);
+    }
+
+    private void quad(float x, float y, float z, int color) {
+        pack(quadVertices, quadCount++ * VERTEX_SIZE, x, y, z, color);
+    }
+
+    private void line(float x, float y, float z, int color) {
+        pack(lineVertices, lineCount++ * VERTEX_SIZE, x, y, z, color);
+    }
+
+    private static void pack(int[] vertices, int i, float x, float y, float z, int color) {
+        vertices[i] = Float.floatToRawIntBits(x);
+        vertices[i + 1] = Float.floatToRawIntBits(y);
+        vertices[i + 2] = Float.floatToRawIntBits(z);
+        vertices[i + 3] = color;
+    }
+
+    private static int[] ensureCapacity(int[] vertices, int size) {
+        return vertices.length < size ? Arrays.copyOf(vertices, Math.max(size, vertices.length * 2)) : vertices;
+    }
+
+    /**
+     * @return <tt>true</tt> if the shapes changed since the last build
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * @return The packed quad vertices of the last build, only the first
+     * {@link #getQuadCount()} vertices are valid
+     */
+    public int[] getQuadVertices() {
+        return quadVertices;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * @return The packed line vertices of the last build, only the first
+     * {@link #getLineCount()} vertices are valid
+     */
+    public int[] getLineVertices() {
+        return lineVertices;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * A submitted shape
+     */
+    private static class Shape {
+        //
+        private Box box;
+        private int fill;
+        private int outline;
+        private int generation;
+
+        /**
+         * @param box
+         * @param fill
+         * @param outline
+         * @param generation
+         */
+        public Shape(Box box, int fill, int outline, int generation) {
+            this.box = box;
+            this.fill = fill;
+            this.outline = outline;
+            this.generation = generation;
+        }
+    }
+}
@@ -43,7 +43,7 @@ public class SocialFile extends ConfigFile {
             for (String socials : Managers.SOCIAL.getRelations(relation)) {
                 array.add(new JsonPrimitive(socials));
             }
-            write(filepath, serialize(array));
+            writeJson(filepath, array);
         }
         // error writing file
         catch (IOException e) {
@@ -61,8 +61,7 @@ public class SocialFile extends ConfigFile {
         try {
             Path filepath = getFilepath();
             if (Files.exists(filepath)) {
-                final String content = read(filepath);
-                JsonArray json = parseArray(content);
+                JsonArray json = readArray(filepath);
                 if (json == null) {
                     return;
                 }
@@ -50,7 +50,7 @@ public class WaypointFile extends ConfigFile {
                     array.add(obj);
                 }
             }
-            write(filepath, serialize(array));
+            writeJson(filepath, array);
         }
         // error writing file
         catch (IOException e) {
@@ -67,8 +67,7 @@ public class WaypointFile extends ConfigFile {
         try {
             Path filepath = getFilepath();
             if (Files.exists(filepath)) {
-                final String content = read(filepath);
-                JsonArray array = parseArray(content);
+                JsonArray array = readArray(filepath);
                 if (array == null) {
                     return;
                 }
@@ -22,7 +22,7 @@ public class ConfigCommand extends Command {
 
     @Override
     public void buildCommand(LiteralArgumentBuilder<CommandSource> builder) {
-        builder.then(argument("save/load", StringArgumentType.string()).suggests(suggest("save", "load"))
+        builder.then(argument("save/load", StringArgumentType.string()).suggests(suggest("save", "load", "pack", "import", "export"))
                 .then(argument("config_name", StringArgumentType.string()).executes(c -> {
                     String action = StringArgumentType.getString(c, "save/load");
                     String name = StringArgumentType.getString(c, "config_name");
@@ -32,6 +32,21 @@ public class ConfigCommand extends Command {
                     } else if (action.equalsIgnoreCase("load")) {
                         Shoreline.CONFIG.loadModuleConfiguration(name);
                         ChatUtil.clientSendMessage("Loaded config: §s" + name);
+                    } else if (action.equalsIgnoreCase("pack")) {
+                        Shoreline.CONFIG.packModuleConfiguration(name);
+                        ChatUtil.clientSendMessage("Saved packed config: §s" + name);
+                    } else if (action.equalsIgnoreCase("import")) {
+                        if (Shoreline.CONFIG.importModuleConfiguration(name)) {
+                            ChatUtil.clientSendMessage("Packed config: §s" + name);
+                        } else {
+                            ChatUtil.error("Could not import config: " + name);
+                        }
+                    } else if (action.equalsIgnoreCase("export")) {
+                        if (Shoreline.CONFIG.exportModuleConfiguration(name)) {
+                            ChatUtil.clientSendMessage("Exported config: §s" + name);
+                        } else {
+                            ChatUtil.error("Could not export config: " + name);
+                        }
                     }
                     return 1;
                 })).executes(c -> {
@@ -0,0 +1,74 @@
+package net.shoreline.client.impl.command;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.minecraft.command.CommandSource;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.command.Command;
+import net.shoreline.client.api.event.handler.EventProfiler;
+import net.shoreline.client.api.event.handler.InvocationProfile;
+import net.shoreline.client.api.event.listener.Listener;
+import net.shoreline.client.init.Managers;
+import net.shoreline.client.util.chat.ChatUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author linus
+ * @see EventProfiler
+ * @since 1.0
+ */
+public class ProfileCommand extends Command {
+    //
+    private static final int TOP_COUNT = 10;
+
+    /**
+     *
+     */
+    public ProfileCommand() {
+        super("Profile", "Profiles the event listeners", literal("profile"));
+    }
+
+    @Override
+    public void buildCommand(LiteralArgumentBuilder<CommandSource> builder) {
+        builder.then(literal("start").executes(c -> {
+            Shoreline.EVENT_HANDLER.getProfiler().setEnabled(true);
+            ChatUtil.clientSendMessage("Started profiling event listeners");
+            return 1;
+        })).then(literal("stop").executes(c -> {
+            Shoreline.EVENT_HANDLER.getProfiler().setEnabled(false);
+            ChatUtil.clientSendMessage("Stopped profiling event listeners");
+            return 1;
+        })).then(literal("reset").executes(c -> {
+            Shoreline.EVENT_HANDLER.getProfiler().reset();
+            ChatUtil.clientSendMessage("Reset the event listener profiles");
+            return 1;
+        })).executes(c -> {
+            EventProfiler profiler = Shoreline.EVENT_HANDLER.getProfiler();
+            if (!profiler.isEnabled()) {
+                ChatUtil.error("Profiler is not running! Use profile start");
+                return 1;
+            }
+            List<Listener> listeners = profiler.getHottestListeners(TOP_COUNT);
+            ChatUtil.clientSendMessage("Hottest listeners §7(last %ds)", InvocationProfile.WINDOW);
+            for (Listener listener : listeners) {
+                InvocationProfile profile = listener.getProfile();
+                ChatUtil.clientSendMessage("§7%s §f%.2fms §7(%d calls, max %.2fms)",
+                        listener.getName(), profile.getWindowNanos() / 1.0e6,
+                        profile.getWindowInvocations(), profile.getMaxNanos() / 1.0e6);
+            }
+            List<Map.Entry<Class<?>, InvocationProfile>> events = profiler.getHottestEvents(TOP_COUNT);
+            ChatUtil.clientSendMessage("Hottest events §7(last %ds)", InvocationProfile.WINDOW);
+            for (Map.Entry<Class<?>, InvocationProfile> entry : events) {
+                InvocationProfile profile = entry.getValue();
+                ChatUtil.clientSendMessage("§7%s §f%.2fms §7(%d calls, max %.2fms)",
+                        entry.getKey().getSimpleName(), profile.getWindowNanos() / 1.0e6,
+                        profile.getWindowInvocations(), profile.getMaxNanos() / 1.0e6);
+            }
+            ChatUtil.clientSendMessage("Packets §f%d sent §7(%d batched, %d flushes)",
+                    Managers.NETWORK.getSentPackets(), Managers.NETWORK.getBatchedPackets(),
+                    Managers.NETWORK.getFlushes());
+            return 1;
+        });
+    }
+}
@@ -2,12 +2,17 @@ package net.shoreline.client.impl.event.chunk.light;
 
 import net.shoreline.client.api.event.Cancelable;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.EventPool;
+import net.shoreline.client.api.event.Pooled;
 
 /**
  * @author linus
  * @since 1.0
  */
 @Cancelable
+@Pooled
 public class RenderSkylightEvent extends Event {
-
+    // Reusable instance for the lighting thread
+    public static final EventPool<RenderSkylightEvent> POOL =
+            new EventPool<>(RenderSkylightEvent::new);
 }
@@ -3,6 +3,8 @@ package net.shoreline.client.impl.event.gui.hud;
 import net.minecraft.client.gui.DrawContext;
 import net.shoreline.client.api.event.Cancelable;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.EventPool;
+import net.shoreline.client.api.event.Pooled;
 import net.shoreline.client.mixin.gui.hud.MixinInGameHud;
 
 /**
@@ -12,7 +14,7 @@ import net.shoreline.client.mixin.gui.hud.MixinInGameHud;
  */
 public class RenderOverlayEvent extends Event {
     //
-    private final DrawContext context;
+    private DrawContext context;
 
 
     /**
@@ -29,9 +31,20 @@ public class RenderOverlayEvent extends Event {
         return context;
     }
 
+    /**
+     * @param context
+     */
+    protected void setContext(DrawContext context) {
+        this.context = context;
+    }
+
+    @Pooled
     public static class Post extends RenderOverlayEvent {
+        // Reusable instance for the render thread
+        public static final EventPool<Post> POOL =
+                new EventPool<>(() -> new Post(null, 0.0f));
         //
-        private final float tickDelta;
+        private float tickDelta;
 
         /**
          * @param context
@@ -42,6 +55,16 @@ public class RenderOverlayEvent extends Event {
             this.tickDelta = tickDelta;
         }
 
+        /**
+         * @param context
+         * @param tickDelta
+         * @see EventPool
+         */
+        public void reset(DrawContext context, float tickDelta) {
+            setContext(context);
+            this.tickDelta = tickDelta;
+        }
+
         /**
          * @return
          */
@@ -4,13 +4,17 @@ import net.minecraft.network.listener.PacketListener;
 import net.minecraft.network.packet.Packet;
 import net.shoreline.client.api.event.Cancelable;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.FilterableEvent;
 import net.shoreline.client.init.Managers;
 
 /**
+ * Packet events can be filtered by packet class using
+ * {@link net.shoreline.client.api.event.listener.EventListener#filter()}.
+ *
  * @author linus
  * @since 1.0
  */
-public class PacketEvent extends Event {
+public class PacketEvent extends Event implements FilterableEvent {
     //
     private final Packet<?> packet;
 
@@ -28,6 +32,14 @@ public class PacketEvent extends Event {
         return packet;
     }
 
+    /**
+     * @return The packet class
+     */
+    @Override
+    public Class<?> getFilterType() {
+        return packet.getClass();
+    }
+
     /**
      *
      */
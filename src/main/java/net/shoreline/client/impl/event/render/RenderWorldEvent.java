@@ -2,15 +2,21 @@ package net.shoreline.client.impl.event.render;
 
 import net.minecraft.client.util.math.MatrixStack;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.EventPool;
+import net.shoreline.client.api.event.Pooled;
 
 /**
  * @author linus
  * @since 1.0
  */
+@Pooled
 public class RenderWorldEvent extends Event {
+    // Reusable instance for the render thread
+    public static final EventPool<RenderWorldEvent> POOL =
+            new EventPool<>(() -> new RenderWorldEvent(null, 0.0f));
     //
-    private final MatrixStack matrices;
-    private final float tickDelta;
+    private MatrixStack matrices;
+    private float tickDelta;
 
     /**
      * @param matrices
@@ -20,6 +26,16 @@ public class RenderWorldEvent extends Event {
         this.tickDelta = tickDelta;
     }
 
+    /**
+     * @param matrices
+     * @param tickDelta
+     * @see EventPool
+     */
+    public void reset(MatrixStack matrices, float tickDelta) {
+        this.matrices = matrices;
+        this.tickDelta = tickDelta;
+    }
+
     /**
      * @return
      */
@@ -34,14 +50,51 @@ public class RenderWorldEvent extends Event {
         return tickDelta;
     }
 
-    public static class Game extends RenderWorldEvent {
+    /**
+     * Dispatched from the game renderer. This is a separate render pass, so
+     * it does not extend {@link RenderWorldEvent} and is not received by
+     * {@link RenderWorldEvent} listeners.
+     */
+    @Pooled
+    public static class Game extends Event {
+        // Reusable instance for the render thread
+        public static final EventPool<Game> POOL =
+                new EventPool<>(() -> new Game(null, 0.0f));
+        //
+        private MatrixStack matrices;
+        private float tickDelta;
 
         /**
          * @param matrices
          * @param tickDelta
          */
         public Game(MatrixStack matrices, float tickDelta) {
-            super(matrices, tickDelta);
+            this.matrices = matrices;
+            this.tickDelta = tickDelta;
+        }
+
+        /**
+         * @param matrices
+         * @param tickDelta
+         * @see EventPool
+         */
+        public void reset(MatrixStack matrices, float tickDelta) {
+            this.matrices = matrices;
+            this.tickDelta = tickDelta;
+        }
+
+        /**
+         * @return
+         */
+        public MatrixStack getMatrices() {
+            return matrices;
+        }
+
+        /**
+         * @return
+         */
+        public float getTickDelta() {
+            return tickDelta;
         }
     }
 }
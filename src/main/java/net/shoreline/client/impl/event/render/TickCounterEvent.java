@@ -2,16 +2,29 @@ package net.shoreline.client.impl.event.render;
 
 import net.shoreline.client.api.event.Cancelable;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.EventPool;
+import net.shoreline.client.api.event.Pooled;
 
 /**
  * @author linus
  * @since 1.0
  */
 @Cancelable
+@Pooled
 public class TickCounterEvent extends Event {
+    // Reusable instance for the render thread
+    public static final EventPool<TickCounterEvent> POOL =
+            new EventPool<>(TickCounterEvent::new);
     //
     private float ticks;
 
+    /**
+     * @see EventPool
+     */
+    public void reset() {
+        ticks = 0.0f;
+    }
+
     /**
      * @return
      */
@@ -6,16 +6,22 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.shape.VoxelShape;
 import net.shoreline.client.api.event.Cancelable;
 import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.EventPool;
+import net.shoreline.client.api.event.Pooled;
 
 /**
  * @author linus
  * @since 1.0
  */
 @Cancelable
+@Pooled
 public class BlockCollisionEvent extends Event {
+    // Reusable instance for the client thread
+    public static final EventPool<BlockCollisionEvent> POOL =
+            new EventPool<>(() -> new BlockCollisionEvent(null, null, null));
     //
-    private final BlockPos pos;
-    private final BlockState state;
+    private BlockPos pos;
+    private BlockState state;
     //
     private VoxelShape voxelShape;
 
@@ -25,6 +31,18 @@ public class BlockCollisionEvent extends Event {
         this.voxelShape = voxelShape;
     }
 
+    /**
+     * @param voxelShape
+     * @param pos
+     * @param state
+     * @see EventPool
+     */
+    public void reset(VoxelShape voxelShape, BlockPos pos, BlockState state) {
+        this.pos = pos;
+        this.state = state;
+        this.voxelShape = voxelShape;
+    }
+
     public BlockPos getPos() {
         return pos;
     }
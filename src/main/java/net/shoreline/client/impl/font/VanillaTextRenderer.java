@@ -24,6 +24,19 @@ public class VanillaTextRenderer implements Globals {
         draw(matrices, text, x, y, color, false);
     }
 
+    /**
+     * Draws the text into the vertex consumers without drawing them, so
+     * many texts can be drawn with one flush
+     */
+    public void drawWithShadow(MatrixStack matrices, String text, float x, float y, int color,
+                               VertexConsumerProvider vertexConsumers) {
+        Matrix4f matrix = matrices.peek().getPositionMatrix();
+        draw(text, x + 1.0f, y + 1.0f, color, true, matrix, vertexConsumers,
+                TextRenderer.TextLayerType.NORMAL, 0, 0xF000F0);
+        draw(text, x, y, color, false, matrix, vertexConsumers,
+                TextRenderer.TextLayerType.NORMAL, 0, 0xF000F0);
+    }
+
     public void draw(MatrixStack matrices, String text, float x, float y, int color, boolean shadow) {
         this.draw(text, x, y, color, matrices.peek().getPositionMatrix(), shadow);
     }
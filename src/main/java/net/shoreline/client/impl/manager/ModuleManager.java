@@ -64,6 +64,7 @@ public class ModuleManager {
                 new ExtendedFireworkModule(),
                 new FakeLatencyModule(),
                 new FastProjectileModule(),
+                new NewChunksModule(),
                 new PacketCancelerModule(),
                 new PacketFlyModule(),
                 new PhaseModule(),
@@ -130,6 +131,7 @@ public class ModuleManager {
                 new NoRotateModule(),
                 new NoWeatherModule(),
                 new ParticlesModule(),
+                new SearchModule(),
                 new SkeletonModule(),
                 new SkyboxModule(),
                 new TooltipsModule(),
@@ -27,7 +27,7 @@ public final class GrimManager implements Globals
         Arrays.fill(transactions, -1);
     }
 
-    @EventListener
+    @EventListener(filter = CommonPingS2CPacket.class)
     public void onPacketInbound(final PacketEvent.Inbound event)
     {
         if (event.getPacket() instanceof CommonPingS2CPacket packet)
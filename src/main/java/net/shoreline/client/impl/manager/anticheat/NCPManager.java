@@ -35,7 +35,7 @@ public class NCPManager implements Timer, Globals {
         Shoreline.EVENT_HANDLER.subscribe(this);
     }
 
-    @EventListener
+    @EventListener(filter = PlayerPositionLookS2CPacket.class)
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.player != null && mc.world != null) {
             if (event.getPacket() instanceof PlayerPositionLookS2CPacket packet) {
@@ -53,6 +53,7 @@ public class CommandManager implements Globals {
                 new NbtCommand(),
                 new OpenFolderCommand(),
                 new PrefixCommand(),
+                new ProfileCommand(),
                 new ResetCommand(),
                 new SoundReloadCommand(),
                 new ToggleCommand(),
@@ -0,0 +1,127 @@
+package net.shoreline.client.impl.manager.combat;
+
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.packet.s2c.play.EntityEquipmentUpdateS2CPacket;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.impl.event.network.DisconnectEvent;
+import net.shoreline.client.impl.event.network.PacketEvent;
+import net.shoreline.client.impl.event.world.RemoveEntityEvent;
+import net.shoreline.client.util.Globals;
+import net.shoreline.client.util.world.EndCrystalUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the equipment derived explosion damage reductions of entities.
+ * A profile is only recalculated after an equipment update for the entity
+ * or when one of its equipped stacks is replaced. Safe to use from the
+ * parallel damage calculations.
+ *
+ * @author linus
+ * @since 1.0
+ * @see EndCrystalUtil
+ */
+public class ArmorProfileManager implements Globals {
+    //
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+    // Profiles by entity id
+    private final Map<Integer, ArmorProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     *
+     */
+    public ArmorProfileManager() {
+        Shoreline.EVENT_HANDLER.subscribe(this);
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener(filter = EntityEquipmentUpdateS2CPacket.class)
+    public void onPacketInbound(PacketEvent.Inbound event) {
+        if (event.getPacket() instanceof EntityEquipmentUpdateS2CPacket packet) {
+            profiles.remove(packet.getId());
+        }
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onRemoveEntity(RemoveEntityEvent event) {
+        profiles.remove(event.getEntity().getId());
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onDisconnect(DisconnectEvent event) {
+        profiles.clear();
+    }
+
+    /**
+     * @param entity
+     * @return The explosion damage reductions of the entity equipment
+     */
+    public ArmorProfile get(LivingEntity entity) {
+        ArmorProfile profile = profiles.get(entity.getId());
+        if (profile == null || !profile.isValid(entity)) {
+            profile = ArmorProfile.of(entity);
+            profiles.put(entity.getId(), profile);
+        }
+        return profile;
+    }
+
+    /**
+     * @param entity    The entity of the profile
+     * @param stacks    The equipped stacks the profile was calculated from
+     * @param armor
+     * @param toughness
+     * @param protection
+     */
+    public record ArmorProfile(LivingEntity entity, ItemStack[] stacks,
+                               float armor, float toughness, int protection) {
+        /**
+         * @param entity
+         * @return
+         */
+        private static ArmorProfile of(LivingEntity entity) {
+            ItemStack[] stacks = new ItemStack[SLOTS.length];
+            for (int i = 0; i < SLOTS.length; i++) {
+                stacks[i] = entity.getEquippedStack(SLOTS[i]);
+            }
+            float armor = (float) Math.floor(EndCrystalUtil.getAttributeValue(entity,
+                    EntityAttributes.GENERIC_ARMOR));
+            float toughness = (float) EndCrystalUtil.getAttributeValue(entity,
+                    EntityAttributes.GENERIC_ARMOR_TOUGHNESS);
+            DamageSource source = mc.world.getDamageSources().explosion(null);
+            int protection = EnchantmentHelper.getProtectionAmount(entity.getArmorItems(), source);
+            return new ArmorProfile(entity, stacks, armor, toughness, protection);
+        }
+
+        /**
+         * @param entity
+         * @return <tt>true</tt> if the entity still has the same equipped
+         * stacks
+         */
+        private boolean isValid(LivingEntity entity) {
+            if (this.entity != entity) {
+                return false;
+            }
+            for (int i = 0; i < SLOTS.length; i++) {
+                if (stacks[i] != entity.getEquippedStack(SLOTS[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
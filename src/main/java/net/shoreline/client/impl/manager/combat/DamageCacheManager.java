@@ -0,0 +1,282 @@
+package net.shoreline.client.impl.manager.combat;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.entity.Entity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ExplosionS2CPacket;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.event.EventStage;
+import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.impl.event.TickEvent;
+import net.shoreline.client.impl.event.network.DisconnectEvent;
+import net.shoreline.client.impl.event.network.PacketEvent;
+import net.shoreline.client.util.Globals;
+import net.shoreline.client.util.world.EndCrystalUtil;
+import net.shoreline.client.util.world.ExposureRaycaster;
+
+/**
+ * Tick scoped cache of explosion damages. Damages are keyed by the block
+ * position of the explosion and the entity id, and are only returned while
+ * the entity bounding box and armor are unchanged. Block updates near a
+ * cached explosion remove its damages when the update is applied to the
+ * world. Should only be used on the main thread.
+ *
+ * @author linus
+ * @since 1.0
+ * @see EndCrystalUtil#getDamageTo(Entity, Vec3d, boolean)
+ */
+public class DamageCacheManager implements Globals {
+    // Block updates within this distance of an explosion can change its
+    // damages. The explosion radius plus the size of the target box.
+    private static final double UPDATE_RANGE = 12.0 + 2.0;
+    // The number of sections around an update which can hold entries
+    // changed by the update
+    private static final int UPDATE_SECTIONS =
+            ChunkSectionPos.getSectionCoord(MathHelper.ceil(UPDATE_RANGE)) + 1;
+    //
+    private final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+    // Entry keys by the packed section of the explosion, so block updates
+    // only check the entries of nearby sections
+    private final Long2ObjectOpenHashMap<LongList> sections = new Long2ObjectOpenHashMap<>();
+    // Exposure raycaster shared by all damage calcs on the main thread. Its
+    // cached blocks are updated with the cache.
+    private final ExposureRaycaster raycaster = new ExposureRaycaster();
+    //
+    private long hits;
+    private long misses;
+
+    /**
+     *
+     */
+    public DamageCacheManager() {
+        Shoreline.EVENT_HANDLER.subscribe(this);
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onTick(TickEvent event) {
+        if (event.getStage() == EventStage.PRE) {
+            entries.clear();
+            sections.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onDisconnect(DisconnectEvent event) {
+        entries.clear();
+        sections.clear();
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener(filter = {BlockUpdateS2CPacket.class, ChunkDeltaUpdateS2CPacket.class,
+            ExplosionS2CPacket.class})
+    public void onPacketInbound(PacketEvent.Inbound event) {
+        LongList updates = new LongArrayList();
+        if (event.getPacket() instanceof BlockUpdateS2CPacket packet) {
+            updates.add(packet.getPos().asLong());
+        } else if (event.getPacket() instanceof ChunkDeltaUpdateS2CPacket packet) {
+            packet.visitUpdates((pos, state) -> updates.add(pos.asLong()));
+        } else if (event.getPacket() instanceof ExplosionS2CPacket packet) {
+            for (BlockPos pos : packet.getAffectedBlocks()) {
+                updates.add(pos.asLong());
+            }
+        }
+        // The packet is applied by a task which the network thread queues
+        // right after this one, so the damages are not recalculated from
+        // the old blocks in between
+        mc.execute(() -> processUpdates(updates));
+    }
+
+    /**
+     * Removes the damages and cached blocks which may have been changed by
+     * the block updates. Runs on the main thread.
+     *
+     * @param updates The packed block update positions
+     */
+    private void processUpdates(LongList updates) {
+        for (int i = 0; i < updates.size(); i++) {
+            long pos = updates.getLong(i);
+            int blockX = BlockPos.unpackLongX(pos);
+            int blockY = BlockPos.unpackLongY(pos);
+            int blockZ = BlockPos.unpackLongZ(pos);
+            raycaster.invalidate(blockX, blockY, blockZ);
+            if (entries.isEmpty()) {
+                continue;
+            }
+            double x = blockX + 0.5;
+            double y = blockY + 0.5;
+            double z = blockZ + 0.5;
+            int sectionX = ChunkSectionPos.getSectionCoord(blockX);
+            int sectionY = ChunkSectionPos.getSectionCoord(blockY);
+            int sectionZ = ChunkSectionPos.getSectionCoord(blockZ);
+            for (int dx = -UPDATE_SECTIONS; dx <= UPDATE_SECTIONS; dx++) {
+                for (int dy = -UPDATE_SECTIONS; dy <= UPDATE_SECTIONS; dy++) {
+                    for (int dz = -UPDATE_SECTIONS; dz <= UPDATE_SECTIONS; dz++) {
+                        LongList keys = sections.get(ChunkSectionPos.asLong(sectionX + dx,
+                                sectionY + dy, sectionZ + dz));
+                        if (keys != null) {
+                            removeEntries(keys, x, y, z);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param keys The entry keys of a section
+     * @param x
+     * @param y
+     * @param z
+     */
+    private void removeEntries(LongList keys, double x, double y, double z) {
+        LongIterator iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.nextLong();
+            Entry entry = entries.get(key);
+            // keys of removed entries are dropped here
+            if (entry == null) {
+                iterator.remove();
+            } else if (entry.squaredDistanceTo(x, y, z) <= UPDATE_RANGE * UPDATE_RANGE) {
+                entries.remove(key);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @param entity
+     * @param crystal
+     * @param ignoreTerrain
+     * @return The cached damage or {@link Double#NaN} if the damage is not
+     * cached
+     */
+    public double get(Entity entity, Vec3d crystal, boolean ignoreTerrain) {
+        Entry entry = entries.get(getKey(entity, crystal, ignoreTerrain));
+        if (entry != null && entry.matches(entity, crystal, ignoreTerrain)) {
+            hits++;
+            return entry.damage;
+        }
+        misses++;
+        return Double.NaN;
+    }
+
+    /**
+     * @param entity
+     * @param crystal
+     * @param ignoreTerrain
+     * @param damage
+     */
+    public void put(Entity entity, Vec3d crystal, boolean ignoreTerrain, double damage) {
+        long key = getKey(entity, crystal, ignoreTerrain);
+        long section = ChunkSectionPos.toLong(BlockPos.ofFloored(crystal));
+        Entry previous = entries.put(key, new Entry(entity.getId(), crystal.x, crystal.y,
+                crystal.z, ignoreTerrain, entity.getBoundingBox(), getArmorVersion(entity), damage));
+        // a colliding key may replace an entry of another section
+        if (previous == null || ChunkSectionPos.toLong(BlockPos.ofFloored(previous.x(),
+                previous.y(), previous.z())) != section) {
+            sections.computeIfAbsent(section, s -> new LongArrayList()).add(key);
+        }
+    }
+
+    /**
+     * @param entity
+     * @param crystal
+     * @param ignoreTerrain
+     * @return
+     */
+    private static long getKey(Entity entity, Vec3d crystal, boolean ignoreTerrain) {
+        long pos = BlockPos.asLong(MathHelper.floor(crystal.x),
+                MathHelper.floor(crystal.y), MathHelper.floor(crystal.z));
+        // collisions are checked by the entry
+        return (pos * 31L + entity.getId()) * 2L + (ignoreTerrain ? 1L : 0L);
+    }
+
+    /**
+     * @param entity
+     * @return A value which changes when the armor of the entity changes
+     */
+    private static int getArmorVersion(Entity entity) {
+        int version = 1;
+        for (ItemStack stack : entity.getArmorItems()) {
+            version = 31 * version + System.identityHashCode(stack);
+            version = 31 * version + stack.getDamage();
+        }
+        return version;
+    }
+
+    /**
+     * @return The exposure raycaster of the main thread
+     */
+    public ExposureRaycaster getRaycaster() {
+        return raycaster;
+    }
+
+    /**
+     * @return The cache hits since the start of the tick
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The cache misses since the start of the tick
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @param entityId
+     * @param x
+     * @param y
+     * @param z
+     * @param ignoreTerrain
+     * @param box
+     * @param armorVersion
+     * @param damage
+     */
+    private record Entry(int entityId, double x, double y, double z,
+                         boolean ignoreTerrain, Box box, int armorVersion,
+                         double damage) {
+        /**
+         * @param entity
+         * @param crystal
+         * @param ignoreTerrain
+         * @return <tt>true</tt> if the damage is still valid for the entity
+         * and explosion
+         */
+        public boolean matches(Entity entity, Vec3d crystal, boolean ignoreTerrain) {
+            return entityId == entity.getId() && x == crystal.x && y == crystal.y
+                    && z == crystal.z && this.ignoreTerrain == ignoreTerrain
+                    && box.equals(entity.getBoundingBox())
+                    && armorVersion == getArmorVersion(entity);
+        }
+
+        public double squaredDistanceTo(double x, double y, double z) {
+            double dx = this.x - x;
+            double dy = this.y - y;
+            double dz = this.z - z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
@@ -30,7 +30,7 @@ public class TotemManager implements Globals {
         Shoreline.EVENT_HANDLER.subscribe(this);
     }
 
-    @EventListener
+    @EventListener(filter = EntityStatusS2CPacket.class)
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.world != null) {
             if (event.getPacket() instanceof EntityStatusS2CPacket packet
@@ -1,38 +1,115 @@
 package net.shoreline.client.impl.manager.combat.hole;
 
-import io.netty.util.internal.ConcurrentSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.UnloadChunkS2CPacket;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
-import net.minecraft.util.math.Vec3i;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.shoreline.client.Shoreline;
 import net.shoreline.client.api.event.EventStage;
 import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.impl.event.TickEvent;
+import net.shoreline.client.impl.event.network.DisconnectEvent;
+import net.shoreline.client.impl.event.network.PacketEvent;
 import net.shoreline.client.init.Modules;
 import net.shoreline.client.util.Globals;
 import net.shoreline.client.util.world.BlastResistantBlocks;
 import net.shoreline.client.util.world.BlockUtil;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
+ * Incremental hole index. Each chunk section around the player is scanned
+ * once, after which only the positions within 2 blocks of a block update
+ * are checked again. When a chunk is loaded or unloaded, the border columns
+ * of its neighbours are checked again as well. The index is owned by a single worker thread which
+ * publishes an immutable snapshot of the holes after every update, so
+ * {@link #getHoles()} never blocks the render thread.
+ *
  * @author linus
  * @since 1.0
  */
 public class HoleManager implements Globals {
+    // The max distance of a block update which can change a hole
+    private static final int UPDATE_RADIUS = 2;
+    // The worker thread which owns the hole index
     private final ExecutorService executor = Executors.newFixedThreadPool(1);
-    private Future<Set<Hole>> result;
+    // Holes by packed origin position. Only accessed by the worker thread.
+    private final Long2ObjectOpenHashMap<Hole> holeIndex = new Long2ObjectOpenHashMap<>();
+    // The sections which have been scanned into the index. Only accessed by
+    // the worker thread.
+    private final LongSet indexedSections = new LongOpenHashSet();
+    // The latest published holes, replaced by the worker after each update
+    private volatile List<Hole> holes = Collections.emptyList();
+    // The sections which have been submitted for scanning. Only accessed by
+    // the main thread.
+    private final LongSet sections = new LongOpenHashSet();
+    // Block update positions received from the network thread. Guarded by
+    // itself.
+    private final LongList updates = new LongArrayList();
+    // Updates received during the last tick. These are checked one tick
+    // later so that the packets have been applied to the world.
+    private LongList pendingUpdates = new LongArrayList();
+    // Chunks which were loaded or unloaded since the last tick. The borders
+    // of their neighbours are checked again. Only accessed by the main
+    // thread.
+    private LongList borders = new LongArrayList();
     //
-    private Set<Hole> holes = new ConcurrentSet<>();
+    private ClientWorld world;
 
     public HoleManager() {
         Shoreline.EVENT_HANDLER.subscribe(this);
     }
 
+    /**
+     * @param event
+     */
+    @EventListener(filter = {BlockUpdateS2CPacket.class, ChunkDeltaUpdateS2CPacket.class,
+            ChunkDataS2CPacket.class, UnloadChunkS2CPacket.class})
+    public void onPacketInbound(PacketEvent.Inbound event) {
+        if (event.getPacket() instanceof BlockUpdateS2CPacket packet) {
+            synchronized (updates) {
+                updates.add(packet.getPos().asLong());
+            }
+        } else if (event.getPacket() instanceof ChunkDeltaUpdateS2CPacket packet) {
+            synchronized (updates) {
+                packet.visitUpdates((pos, state) -> updates.add(pos.asLong()));
+            }
+        } else if (event.getPacket() instanceof ChunkDataS2CPacket packet) {
+            // chunk was (re)loaded, rescan its sections
+            markChunk(packet.getChunkX(), packet.getChunkZ());
+        } else if (event.getPacket() instanceof UnloadChunkS2CPacket packet) {
+            markChunk(packet.pos().x, packet.pos().z);
+        }
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onDisconnect(DisconnectEvent event) {
+        world = null;
+        sections.clear();
+        synchronized (updates) {
+            updates.clear();
+        }
+        pendingUpdates = new LongArrayList();
+        borders = new LongArrayList();
+        executor.execute(this::clearIndex);
+    }
+
     /**
      * @param event
      */
@@ -41,25 +118,223 @@ public class HoleManager implements Globals {
         if (event.getStage() != EventStage.PRE) {
             return;
         }
-        HoleTask runnable = new HoleTask(getSphere(mc.player.getPos()));
-        result = executor.submit(runnable);
+        if (world != mc.world) {
+            world = mc.world;
+            sections.clear();
+            synchronized (updates) {
+                updates.clear();
+            }
+            pendingUpdates = new LongArrayList();
+            borders = new LongArrayList();
+            executor.execute(this::clearIndex);
+        }
+        if (world == null || mc.player == null) {
+            return;
+        }
+        int range = (int) Math.ceil(Math.max(5.0, Modules.HOLE_ESP.getRange()));
+        int minX = ChunkSectionPos.getSectionCoord(mc.player.getBlockX() - range);
+        int maxX = ChunkSectionPos.getSectionCoord(mc.player.getBlockX() + range);
+        int minY = Math.max(world.getBottomSectionCoord(),
+                ChunkSectionPos.getSectionCoord(mc.player.getBlockY() - range));
+        int maxY = Math.min(world.getTopSectionCoord() - 1,
+                ChunkSectionPos.getSectionCoord(mc.player.getBlockY() + range));
+        int minZ = ChunkSectionPos.getSectionCoord(mc.player.getBlockZ() - range);
+        int maxZ = ChunkSectionPos.getSectionCoord(mc.player.getBlockZ() + range);
+        // evict sections which are out of range
+        LongList evict = new LongArrayList();
+        LongIterator iterator = sections.iterator();
+        while (iterator.hasNext()) {
+            long section = iterator.nextLong();
+            int x = ChunkSectionPos.unpackX(section);
+            int y = ChunkSectionPos.unpackY(section);
+            int z = ChunkSectionPos.unpackZ(section);
+            if (x < minX - 1 || x > maxX + 1 || y < minY - 1 || y > maxY + 1
+                    || z < minZ - 1 || z > maxZ + 1) {
+                iterator.remove();
+                evict.add(section);
+            }
+        }
+        // scan new sections which are in range
+        LongList scan = new LongArrayList();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                if (!world.getChunkManager().isChunkLoaded(x, z)) {
+                    continue;
+                }
+                for (int y = minY; y <= maxY; y++) {
+                    long section = ChunkSectionPos.asLong(x, y, z);
+                    if (sections.add(section)) {
+                        scan.add(section);
+                    }
+                }
+            }
+        }
+        // check updates which were received last tick
+        LongList update = pendingUpdates;
+        pendingUpdates = new LongArrayList();
+        synchronized (updates) {
+            pendingUpdates.addAll(updates);
+            updates.clear();
+        }
+        // chunk packets were applied by the tasks which marked the chunks
+        LongList border = borders;
+        borders = new LongArrayList();
+        if (evict.isEmpty() && scan.isEmpty() && update.isEmpty() && border.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> updateIndex(evict, scan, update, border));
+    }
+
+    /**
+     * Marks the sections of a chunk as not scanned and the borders of its
+     * neighbours as changed. Called from the network thread, so the
+     * sections are removed on the next tick.
+     *
+     * @param chunkX
+     * @param chunkZ
+     */
+    private void markChunk(int chunkX, int chunkZ) {
+        mc.execute(() -> {
+            if (world == null) {
+                return;
+            }
+            // blocks of the chunk were read as air by the neighbours, or are
+            // now read as air
+            borders.add(ChunkPos.toLong(chunkX, chunkZ));
+            LongList evict = new LongArrayList();
+            for (int y = world.getBottomSectionCoord(); y < world.getTopSectionCoord(); y++) {
+                long section = ChunkSectionPos.asLong(chunkX, y, chunkZ);
+                if (sections.remove(section)) {
+                    evict.add(section);
+                }
+            }
+            if (!evict.isEmpty()) {
+                executor.execute(() -> updateIndex(evict, LongList.of(), LongList.of(), LongList.of()));
+            }
+        });
+    }
+
+    /**
+     * Updates the hole index and publishes the new holes. Runs on the
+     * worker thread.
+     *
+     * @param evict   The sections to remove from the index
+     * @param scan    The sections to add to the index
+     * @param updates The block update positions
+     * @param borders The packed chunks which were loaded or unloaded
+     */
+    private void updateIndex(LongList evict, LongList scan, LongList updates, LongList borders) {
+        if (mc.world == null) {
+            return;
+        }
+        LongSet evicted = new LongOpenHashSet(evict);
+        if (!evicted.isEmpty()) {
+            indexedSections.removeAll(evicted);
+            holeIndex.values().removeIf(h -> evicted.contains(ChunkSectionPos.toLong(h.getPos())));
+        }
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        for (int i = 0; i < scan.size(); i++) {
+            long section = scan.getLong(i);
+            indexedSections.add(section);
+            int startX = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(section));
+            int startY = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(section));
+            int startZ = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(section));
+            for (int x = startX; x < startX + 16; x++) {
+                for (int y = startY; y < startY + 16; y++) {
+                    for (int z = startZ; z < startZ + 16; z++) {
+                        // holes are always air (or void holes on the bottom layer)
+                        mutable.set(x, y, z);
+                        if (y != mc.world.getBottomY() && !mc.world.isAir(mutable)) {
+                            continue;
+                        }
+                        updateHole(mutable.toImmutable());
+                    }
+                }
+            }
+        }
+        // nearby updates share most of their origins, only check each once
+        LongSet checked = new LongOpenHashSet();
+        for (int i = 0; i < updates.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(updates.getLong(i));
+            for (int x = -UPDATE_RADIUS; x <= UPDATE_RADIUS; x++) {
+                for (int y = -UPDATE_RADIUS; y <= UPDATE_RADIUS; y++) {
+                    for (int z = -UPDATE_RADIUS; z <= UPDATE_RADIUS; z++) {
+                        BlockPos origin = pos.add(x, y, z);
+                        // only update positions in scanned sections
+                        if (indexedSections.contains(ChunkSectionPos.toLong(origin))
+                                && checked.add(origin.asLong())) {
+                            updateHole(origin);
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < borders.size(); i++) {
+            updateBorders(borders.getLong(i), checked, mutable);
+        }
+        holes = List.copyOf(holeIndex.values());
     }
 
-    public List<BlockPos> getSphere(Vec3d start) {
-        List<BlockPos> sphere = new ArrayList<>();
-        double rad = Math.ceil(Math.max(5.0, Modules.HOLE_ESP.getRange()));
-        for (double x = -rad; x <= rad; ++x) {
-            for (double y = -rad; y <= rad; ++y) {
-                for (double z = -rad; z <= rad; ++z) {
-                    Vec3i pos = new Vec3i((int) (start.getX() + x),
-                            (int) (start.getY() + y), (int) (start.getZ() + z));
-                    final BlockPos p = new BlockPos(pos);
-                    //
-                    sphere.add(p);
+    /**
+     * Checks the positions of the neighbouring chunks which are within
+     * {@link #UPDATE_RADIUS} of the chunk. Holes on these positions read
+     * blocks of the chunk, which were air while it was not loaded. Runs on
+     * the worker thread.
+     *
+     * @param chunk   The packed chunk which was loaded or unloaded
+     * @param checked The positions which were already checked
+     * @param mutable
+     */
+    private void updateBorders(long chunk, LongSet checked, BlockPos.Mutable mutable) {
+        int startX = ChunkSectionPos.getBlockCoord(ChunkPos.getPackedX(chunk));
+        int startZ = ChunkSectionPos.getBlockCoord(ChunkPos.getPackedZ(chunk));
+        for (int sectionY = mc.world.getBottomSectionCoord();
+             sectionY < mc.world.getTopSectionCoord(); sectionY++) {
+            int startY = ChunkSectionPos.getBlockCoord(sectionY);
+            for (int x = startX - UPDATE_RADIUS; x < startX + 16 + UPDATE_RADIUS; x++) {
+                for (int z = startZ - UPDATE_RADIUS; z < startZ + 16 + UPDATE_RADIUS; z++) {
+                    // the chunk itself is scanned or evicted
+                    if (x >= startX && x < startX + 16 && z >= startZ && z < startZ + 16) {
+                        continue;
+                    }
+                    if (!indexedSections.contains(ChunkSectionPos.asLong(
+                            ChunkSectionPos.getSectionCoord(x), sectionY,
+                            ChunkSectionPos.getSectionCoord(z)))) {
+                        continue;
+                    }
+                    for (int y = startY; y < startY + 16; y++) {
+                        mutable.set(x, y, z);
+                        if (y != mc.world.getBottomY() && !mc.world.isAir(mutable)) {
+                            continue;
+                        }
+                        if (checked.add(mutable.asLong())) {
+                            updateHole(mutable.toImmutable());
+                        }
+                    }
                 }
             }
         }
-        return sphere;
+    }
+
+    /**
+     * @param pos
+     */
+    private void updateHole(BlockPos pos) {
+        Hole hole = checkHole(pos);
+        if (hole != null) {
+            holeIndex.put(pos.asLong(), hole);
+        } else {
+            holeIndex.remove(pos.asLong());
+        }
+    }
+
+    /**
+     *
+     */
+    private void clearIndex() {
+        holeIndex.clear();
+        indexedSections.clear();
+        holes = Collections.emptyList();
     }
 
     /**
@@ -201,36 +476,13 @@ public class HoleManager implements Globals {
     }
 
     /**
-     * @return
+     * Returns the latest snapshot of the hole index. This never blocks, the
+     * returned list is immutable and is replaced by the worker thread when
+     * the index changes.
+     *
+     * @return The holes around the player
      */
-    public Set<Hole> getHoles() {
-        if (result != null) {
-            try {
-                holes = result.get();
-            } catch (ExecutionException | InterruptedException e) {
-
-            }
-        }
+    public List<Hole> getHoles() {
         return holes;
     }
-
-    public class HoleTask implements Callable<Set<Hole>> {
-        private final List<BlockPos> blocks;
-
-        public HoleTask(List<BlockPos> blocks) {
-            this.blocks = blocks;
-        }
-
-        @Override
-        public Set<Hole> call() throws Exception {
-            Set<Hole> holes1 = new HashSet<>();
-            for (BlockPos blockPos : blocks) {
-                Hole hole = checkHole(blockPos);
-                if (hole != null) {
-                    holes1.add(hole);
-                }
-            }
-            return holes1;
-        }
-    }
 }
@@ -4,22 +4,35 @@ import net.minecraft.client.network.*;
 import net.minecraft.network.listener.ServerPlayPacketListener;
 import net.minecraft.network.packet.Packet;
 import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.event.EventStage;
 import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.impl.event.TickEvent;
 import net.shoreline.client.impl.event.network.DisconnectEvent;
 import net.shoreline.client.impl.imixin.IClientPlayNetworkHandler;
+import net.shoreline.client.init.Modules;
+import net.shoreline.client.mixin.accessor.AccessorClientConnection;
 import net.shoreline.client.mixin.accessor.AccessorClientWorld;
 import net.shoreline.client.util.Globals;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author linus
  * @since 1.0
  */
 public class NetworkManager implements Globals {
-    //
-    private static final Set<Packet<?>> PACKET_CACHE = new HashSet<>();
+    // Packets sent by the client. Bounded so long sessions do not keep
+    // every sent packet alive.
+    private static final PacketRegistry PACKET_CACHE = new PacketRegistry(4096, 10000L);
+    // Packets sent on the main thread during a tick are written without
+    // flushing and flushed together at the end of the tick
+    private boolean batching;
+    private boolean pendingFlush;
+    // Batching metrics, packets are sent from the main thread and the
+    // network threads
+    private final LongAdder sentPackets = new LongAdder();
+    private final LongAdder batchedPackets = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
     //
     private ServerAddress address;
     private ServerInfo info;
@@ -37,6 +50,21 @@ public class NetworkManager implements Globals {
     @EventListener
     public void onDisconnect(DisconnectEvent event) {
         PACKET_CACHE.clear();
+        batching = false;
+        pendingFlush = false;
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onTick(TickEvent event) {
+        if (event.getStage() == EventStage.PRE) {
+            batching = Modules.SERVER.isPacketBatching();
+        } else {
+            flush();
+            batching = false;
+        }
     }
 
     /**
@@ -45,6 +73,13 @@ public class NetworkManager implements Globals {
     public void sendPacket(final Packet<?> p) {
         if (mc.getNetworkHandler() != null) {
             PACKET_CACHE.add(p);
+            sentPackets.increment();
+            if (isBatching()) {
+                mc.getNetworkHandler().getConnection().send(p, null, false);
+                batchedPackets.increment();
+                pendingFlush = true;
+                return;
+            }
             mc.getNetworkHandler().sendPacket(p);
         }
     }
@@ -52,10 +87,59 @@ public class NetworkManager implements Globals {
     public void sendQuietPacket(final Packet<?> p) {
         if (mc.getNetworkHandler() != null) {
             PACKET_CACHE.add(p);
+            sentPackets.increment();
+            if (isBatching()) {
+                ((AccessorClientConnection) mc.getNetworkHandler().getConnection()).hookSendInternal(p, null, false);
+                batchedPackets.increment();
+                pendingFlush = true;
+                return;
+            }
             ((IClientPlayNetworkHandler) mc.getNetworkHandler()).sendQuietPacket(p);
         }
     }
 
+    /**
+     * Flushes the packets written since the last flush. Packets keep the
+     * order they were sent in.
+     */
+    public void flush() {
+        if (pendingFlush && mc.getNetworkHandler() != null) {
+            mc.getNetworkHandler().getConnection().flush();
+            flushes.increment();
+        }
+        pendingFlush = false;
+    }
+
+    /**
+     * @return <tt>true</tt> if packets sent now are flushed at the end of
+     * the tick
+     */
+    private boolean isBatching() {
+        return batching && mc.isOnThread();
+    }
+
+    /**
+     * @return The number of packets sent by the client
+     */
+    public long getSentPackets() {
+        return sentPackets.sum();
+    }
+
+    /**
+     * @return The number of sent packets which were written without
+     * flushing
+     */
+    public long getBatchedPackets() {
+        return batchedPackets.sum();
+    }
+
+    /**
+     * @return The number of channel flushes of the batched packets
+     */
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
     /**
      * @param p
      */
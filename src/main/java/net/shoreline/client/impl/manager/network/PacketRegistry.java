@@ -0,0 +1,117 @@
+package net.shoreline.client.impl.manager.network;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.network.packet.Packet;
+
+/**
+ * Bounded registry of sent packet instances. Packets are compared by
+ * identity and kept in a ring buffer, so the registry holds at most
+ * <tt>capacity</tt> packets and drops packets older than the max age.
+ * Adding and checking packets are both O(1). Packets are added on the
+ * sending threads and checked on the network thread, so the ring state is
+ * only accessed while holding the registry lock.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class PacketRegistry {
+    //
+    private final int capacity;
+    private final long maxAge;
+    // Guards the ring buffer, the index and the ring counters
+    private final Object lock = new Object();
+    // Ring buffer of packets in the order they were added
+    private final Packet<?>[] packets;
+    private final long[] times;
+    private int head;
+    private int size;
+    // Number of times each packet instance is in the ring buffer
+    private final Reference2IntOpenHashMap<Packet<?>> index;
+
+    /**
+     * @param capacity The max number of packets
+     * @param maxAge   The max time in ms a packet is kept
+     */
+    public PacketRegistry(int capacity, long maxAge) {
+        this.capacity = capacity;
+        this.maxAge = maxAge;
+        packets = new Packet<?>[capacity];
+        times = new long[capacity];
+        index = new Reference2IntOpenHashMap<>(capacity);
+    }
+
+    /**
+     * @param packet
+     */
+    public void add(Packet<?> packet) {
+        long time = System.currentTimeMillis();
+        synchronized (lock) {
+            evictExpired(time);
+            if (size == capacity) {
+                evictOldest();
+            }
+            int tail = (head + size) % capacity;
+            packets[tail] = packet;
+            times[tail] = time;
+            size++;
+            index.addTo(packet, 1);
+        }
+    }
+
+    /**
+     * @param packet
+     * @return <tt>true</tt> if the packet instance was added and has not
+     * been evicted
+     */
+    public boolean contains(Packet<?> packet) {
+        long time = System.currentTimeMillis();
+        synchronized (lock) {
+            evictExpired(time);
+            return index.containsKey(packet);
+        }
+    }
+
+    /**
+     *
+     */
+    public void clear() {
+        synchronized (lock) {
+            while (size > 0) {
+                evictOldest();
+            }
+        }
+    }
+
+    /**
+     * @return The number of packets in the registry
+     */
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    /**
+     * Must hold the lock
+     *
+     * @param time
+     */
+    private void evictExpired(long time) {
+        while (size > 0 && time - times[head] > maxAge) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Must hold the lock
+     */
+    private void evictOldest() {
+        Packet<?> packet = packets[head];
+        packets[head] = null;
+        head = (head + 1) % capacity;
+        size--;
+        if (index.addTo(packet, -1) <= 1) {
+            index.removeInt(packet);
+        }
+    }
+}
@@ -38,14 +38,14 @@ public class InventoryManager implements Globals {
         Shoreline.EVENT_HANDLER.subscribe(this);
     }
 
-    @EventListener
+    @EventListener(filter = UpdateSelectedSlotC2SPacket.class)
     public void onPacketOutBound(final PacketEvent.Outbound event) {
         if (event.getPacket() instanceof UpdateSelectedSlotC2SPacket packet) {
             slot = packet.getSelectedSlot();
         }
     }
 
-    @EventListener
+    @EventListener(filter = UpdateSelectedSlotS2CPacket.class)
     public void onPacketInbound(final PacketEvent.Inbound event) {
         if (event.getPacket() instanceof UpdateSelectedSlotS2CPacket packet) {
             slot = packet.getSlot();
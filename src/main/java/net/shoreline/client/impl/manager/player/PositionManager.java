@@ -121,7 +121,7 @@ public class PositionManager implements Globals {
     /**
      * @param event
      */
-    @EventListener
+    @EventListener(filter = {PlayerMoveC2SPacket.class, ClientCommandC2SPacket.class})
     public void onPacketOutbound(PacketEvent.Outbound event) {
         if (mc.player != null && mc.world != null) {
             if (event.getPacket() instanceof PlayerMoveC2SPacket packet) {
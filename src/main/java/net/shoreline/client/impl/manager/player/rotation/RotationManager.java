@@ -47,7 +47,7 @@ public class RotationManager implements Globals {
         Shoreline.EVENT_HANDLER.subscribe(this);
     }
 
-    @EventListener
+    @EventListener(filter = PlayerMoveC2SPacket.class)
     public void onPacketOutbound(PacketEvent.Outbound event) {
         if (mc.player == null || mc.world == null) {
             return;
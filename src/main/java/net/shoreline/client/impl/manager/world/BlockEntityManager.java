@@ -0,0 +1,248 @@
+package net.shoreline.client.impl.manager.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.UnloadChunkS2CPacket;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.chunk.WorldChunk;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.event.EventStage;
+import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.impl.event.TickEvent;
+import net.shoreline.client.impl.event.network.DisconnectEvent;
+import net.shoreline.client.impl.event.network.PacketEvent;
+import net.shoreline.client.util.Globals;
+import net.shoreline.client.util.world.BlockUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Incremental index of the block entities in the loaded chunks, grouped by
+ * type and chunk. A chunk is only indexed again after a chunk data, block
+ * update or block entity update packet for the chunk, so queries never
+ * scan the world. Should only be used on the main thread.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class BlockEntityManager implements Globals {
+    // Block entities by type and packed chunk position
+    private final Map<BlockEntityType<?>, Long2ObjectMap<List<IndexedBlockEntity>>> index =
+            new Reference2ObjectOpenHashMap<>();
+    // Read only views of the index returned by queries
+    private final Map<BlockEntityType<?>, Long2ObjectMap<List<IndexedBlockEntity>>> views =
+            new Reference2ObjectOpenHashMap<>();
+    // Types in each indexed chunk, used to remove the chunk from the index
+    private final Long2ObjectOpenHashMap<Set<BlockEntityType<?>>> chunkTypes =
+            new Long2ObjectOpenHashMap<>();
+    // Chunks changed by packets received from the network thread. Unloaded
+    // chunks are indexed as empty.
+    private final Queue<Long> updates = new ConcurrentLinkedQueue<>();
+    // Chunks changed during the last tick. These are indexed one tick later
+    // so that the packets have been applied to the world.
+    private final LongSet pendingUpdates = new LongOpenHashSet();
+    //
+    private ClientWorld world;
+    private int size;
+
+    /**
+     *
+     */
+    public BlockEntityManager() {
+        Shoreline.EVENT_HANDLER.subscribe(this);
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener(filter = {ChunkDataS2CPacket.class, UnloadChunkS2CPacket.class,
+            BlockUpdateS2CPacket.class, ChunkDeltaUpdateS2CPacket.class,
+            BlockEntityUpdateS2CPacket.class})
+    public void onPacketInbound(PacketEvent.Inbound event) {
+        if (event.getPacket() instanceof ChunkDataS2CPacket packet) {
+            updates.add(ChunkPos.toLong(packet.getChunkX(), packet.getChunkZ()));
+        } else if (event.getPacket() instanceof UnloadChunkS2CPacket packet) {
+            updates.add(packet.pos().toLong());
+        } else if (event.getPacket() instanceof BlockUpdateS2CPacket packet) {
+            updates.add(toChunkLong(packet.getPos()));
+        } else if (event.getPacket() instanceof ChunkDeltaUpdateS2CPacket packet) {
+            // duplicates are merged on the next tick
+            packet.visitUpdates((pos, state) -> updates.add(toChunkLong(pos)));
+        } else if (event.getPacket() instanceof BlockEntityUpdateS2CPacket packet) {
+            updates.add(toChunkLong(packet.getPos()));
+        }
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onDisconnect(DisconnectEvent event) {
+        world = null;
+        clearIndex();
+        updates.clear();
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onTick(TickEvent event) {
+        if (event.getStage() != EventStage.PRE) {
+            return;
+        }
+        if (world != mc.world) {
+            world = mc.world;
+            clearIndex();
+            // chunks may have been loaded before the world was seen
+            if (world != null && mc.player != null) {
+                for (WorldChunk chunk : BlockUtil.loadedChunks()) {
+                    indexChunk(chunk.getPos().toLong());
+                }
+            }
+        }
+        if (world == null) {
+            return;
+        }
+        LongIterator iterator = pendingUpdates.iterator();
+        while (iterator.hasNext()) {
+            indexChunk(iterator.nextLong());
+        }
+        pendingUpdates.clear();
+        Long chunk;
+        while ((chunk = updates.poll()) != null) {
+            pendingUpdates.add(chunk.longValue());
+        }
+    }
+
+    /**
+     * Replaces the indexed block entities of the chunk with the current
+     * block entities of the chunk
+     *
+     * @param chunkPos
+     */
+    private void indexChunk(long chunkPos) {
+        removeChunk(chunkPos);
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkPos),
+                ChunkPos.getPackedZ(chunkPos));
+        if (chunk == null || chunk.getBlockEntities().isEmpty()) {
+            return;
+        }
+        Set<BlockEntityType<?>> types = null;
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity.isRemoved()) {
+                continue;
+            }
+            BlockEntityType<?> type = blockEntity.getType();
+            List<IndexedBlockEntity> entities = index.computeIfAbsent(type, t -> {
+                Long2ObjectMap<List<IndexedBlockEntity>> chunks = new Long2ObjectOpenHashMap<>();
+                views.put(t, Long2ObjectMaps.unmodifiable(chunks));
+                return chunks;
+            }).computeIfAbsent(chunkPos, p -> new ArrayList<>());
+            entities.add(new IndexedBlockEntity(blockEntity, getBox(blockEntity)));
+            if (types == null) {
+                types = new ReferenceOpenHashSet<>();
+                chunkTypes.put(chunkPos, types);
+            }
+            types.add(type);
+            size++;
+        }
+    }
+
+    /**
+     * @param chunkPos
+     */
+    private void removeChunk(long chunkPos) {
+        Set<BlockEntityType<?>> types = chunkTypes.remove(chunkPos);
+        if (types == null) {
+            return;
+        }
+        for (BlockEntityType<?> type : types) {
+            List<IndexedBlockEntity> entities = index.get(type).remove(chunkPos);
+            if (entities != null) {
+                size -= entities.size();
+            }
+        }
+    }
+
+    /**
+     *
+     */
+    private void clearIndex() {
+        index.values().forEach(Map::clear);
+        chunkTypes.clear();
+        pendingUpdates.clear();
+        size = 0;
+    }
+
+    /**
+     * @param blockEntity
+     * @return The outline box of the block entity block
+     */
+    private Box getBox(BlockEntity blockEntity) {
+        BlockPos pos = blockEntity.getPos();
+        VoxelShape shape = blockEntity.getCachedState().getOutlineShape(world, pos);
+        if (shape.isEmpty()) {
+            return new Box(pos);
+        }
+        return shape.getBoundingBox().offset(pos);
+    }
+
+    /**
+     * @param pos
+     * @return
+     */
+    private static long toChunkLong(BlockPos pos) {
+        return ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getZ()));
+    }
+
+    /**
+     * Returns the indexed block entities of the type by packed chunk
+     * position. The returned map is a read only view of the index.
+     *
+     * @param type
+     * @return
+     */
+    public Long2ObjectMap<List<IndexedBlockEntity>> getBlockEntities(BlockEntityType<?> type) {
+        Long2ObjectMap<List<IndexedBlockEntity>> view = views.get(type);
+        return view != null ? view : Long2ObjectMaps.emptyMap();
+    }
+
+    /**
+     * @return The number of indexed block entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param blockEntity
+     * @param box         The outline box of the block when it was indexed
+     */
+    public record IndexedBlockEntity(BlockEntity blockEntity, Box box) {
+
+    }
+}
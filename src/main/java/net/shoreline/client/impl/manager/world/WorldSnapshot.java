@@ -0,0 +1,256 @@
+package net.shoreline.client.impl.manager.world;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.decoration.EndCrystalEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the entities in a {@link ClientWorld}. The entity
+ * positions are captured with the snapshot and indexed in a uniform grid
+ * so that spatial queries only visit the cells which overlap the query.
+ * Query results are always returned in the world iteration order.
+ *
+ * <p>The snapshot holds references to the live entities, only the indexed
+ * positions are frozen. Callers which need exact positions should check
+ * the entity again after the query.</p>
+ *
+ * @author linus
+ * @since 1.0
+ * @see WorldSnapshotManager
+ */
+public class WorldSnapshot {
+    //
+    public static final WorldSnapshot EMPTY = new WorldSnapshot(null, new ArrayList<>());
+    // The grid cell size is 1 << CELL_SHIFT blocks
+    private static final int CELL_SHIFT = 4;
+    //
+    private final ClientWorld world;
+    // Entities in world order and their positions at capture
+    private final Entity[] entities;
+    private final double[] x, y, z;
+    // Entity indices by packed grid cell, each cell is in ascending order
+    private final Long2ObjectOpenHashMap<int[]> cells = new Long2ObjectOpenHashMap<>();
+    //
+    private final List<Entity> entityList;
+    private final List<PlayerEntity> players;
+    private final List<EndCrystalEntity> crystals;
+
+    /**
+     * @param world
+     * @param entities
+     */
+    private WorldSnapshot(ClientWorld world, List<Entity> entities) {
+        this.world = world;
+        this.entities = entities.toArray(new Entity[0]);
+        int size = this.entities.length;
+        x = new double[size];
+        y = new double[size];
+        z = new double[size];
+        List<PlayerEntity> players = new ArrayList<>();
+        List<EndCrystalEntity> crystals = new ArrayList<>();
+        Long2ObjectOpenHashMap<IntArrayList> grid = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Entity entity = this.entities[i];
+            x[i] = entity.getX();
+            y[i] = entity.getY();
+            z[i] = entity.getZ();
+            grid.computeIfAbsent(getCell(x[i], y[i], z[i]), c -> new IntArrayList()).add(i);
+            if (entity instanceof PlayerEntity player) {
+                players.add(player);
+            } else if (entity instanceof EndCrystalEntity crystal) {
+                crystals.add(crystal);
+            }
+        }
+        for (Long2ObjectMap.Entry<IntArrayList> entry : grid.long2ObjectEntrySet()) {
+            cells.put(entry.getLongKey(), entry.getValue().toIntArray());
+        }
+        entityList = Collections.unmodifiableList(entities);
+        this.players = Collections.unmodifiableList(players);
+        this.crystals = Collections.unmodifiableList(crystals);
+    }
+
+    /**
+     * Captures the entities of a world
+     *
+     * @param world
+     * @return The snapshot of the world entities
+     */
+    public static WorldSnapshot capture(ClientWorld world) {
+        List<Entity> entities = new ArrayList<>();
+        for (Entity entity : world.getEntities()) {
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return new WorldSnapshot(world, entities);
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     */
+    private static long getCell(double x, double y, double z) {
+        return BlockPos.asLong(MathHelper.floor(x) >> CELL_SHIFT,
+                MathHelper.floor(y) >> CELL_SHIFT, MathHelper.floor(z) >> CELL_SHIFT);
+    }
+
+    /**
+     * Returns the entities of a type whose positions are inside a box
+     *
+     * @param type
+     * @param box
+     * @param <T>
+     * @return
+     */
+    public <T extends Entity> List<T> getEntities(Class<T> type, Box box) {
+        IntArrayList indices = query(type, box.minX, box.minY, box.minZ,
+                box.maxX, box.maxY, box.maxZ, -1.0, 0.0, 0.0, 0.0);
+        return toList(type, indices);
+    }
+
+    /**
+     * Returns the entities of a type whose positions are within a range
+     * of a position
+     *
+     * @param type
+     * @param pos
+     * @param range
+     * @param <T>
+     * @return
+     */
+    public <T extends Entity> List<T> getEntitiesInRange(Class<T> type, Vec3d pos, double range) {
+        IntArrayList indices = query(type, pos.x - range, pos.y - range, pos.z - range,
+                pos.x + range, pos.y + range, pos.z + range, range * range, pos.x, pos.y, pos.z);
+        return toList(type, indices);
+    }
+
+    /**
+     * @param type
+     * @param minX
+     * @param minY
+     * @param minZ
+     * @param maxX
+     * @param maxY
+     * @param maxZ
+     * @param rangeSq The max squared distance to the center, or a negative
+     *                value to only check the box
+     * @param cx
+     * @param cy
+     * @param cz
+     * @return The sorted indices of the matching entities
+     */
+    private IntArrayList query(Class<?> type, double minX, double minY, double minZ,
+                               double maxX, double maxY, double maxZ,
+                               double rangeSq, double cx, double cy, double cz) {
+        IntArrayList indices = new IntArrayList();
+        int cellMinX = MathHelper.floor(minX) >> CELL_SHIFT;
+        int cellMinY = MathHelper.floor(minY) >> CELL_SHIFT;
+        int cellMinZ = MathHelper.floor(minZ) >> CELL_SHIFT;
+        int cellMaxX = MathHelper.floor(maxX) >> CELL_SHIFT;
+        int cellMaxY = MathHelper.floor(maxY) >> CELL_SHIFT;
+        int cellMaxZ = MathHelper.floor(maxZ) >> CELL_SHIFT;
+        long volume = (long) (cellMaxX - cellMinX + 1) * (cellMaxY - cellMinY + 1)
+                * (cellMaxZ - cellMinZ + 1);
+        // large queries are faster as a linear scan
+        if (volume >= cells.size()) {
+            for (int i = 0; i < entities.length; i++) {
+                if (test(i, type, minX, minY, minZ, maxX, maxY, maxZ, rangeSq, cx, cy, cz)) {
+                    indices.add(i);
+                }
+            }
+            return indices;
+        }
+        for (int i = cellMinX; i <= cellMaxX; i++) {
+            for (int j = cellMinY; j <= cellMaxY; j++) {
+                for (int k = cellMinZ; k <= cellMaxZ; k++) {
+                    int[] cell = cells.get(BlockPos.asLong(i, j, k));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int index : cell) {
+                        if (test(index, type, minX, minY, minZ, maxX, maxY, maxZ, rangeSq, cx, cy, cz)) {
+                            indices.add(index);
+                        }
+                    }
+                }
+            }
+        }
+        // keep results in world order regardless of the visited cells
+        IntArrays.quickSort(indices.elements(), 0, indices.size());
+        return indices;
+    }
+
+    private boolean test(int i, Class<?> type, double minX, double minY, double minZ,
+                         double maxX, double maxY, double maxZ,
+                         double rangeSq, double cx, double cy, double cz) {
+        if (x[i] < minX || x[i] > maxX || y[i] < minY || y[i] > maxY
+                || z[i] < minZ || z[i] > maxZ || !type.isInstance(entities[i])) {
+            return false;
+        }
+        if (rangeSq < 0.0) {
+            return true;
+        }
+        double dx = x[i] - cx;
+        double dy = y[i] - cy;
+        double dz = z[i] - cz;
+        return dx * dx + dy * dy + dz * dz <= rangeSq;
+    }
+
+    /**
+     * @param type
+     * @param indices
+     * @param <T>
+     * @return
+     */
+    private <T extends Entity> List<T> toList(Class<T> type, IntArrayList indices) {
+        List<T> result = new ArrayList<>(indices.size());
+        for (int i = 0; i < indices.size(); i++) {
+            result.add(type.cast(entities[indices.getInt(i)]));
+        }
+        return result;
+    }
+
+    /**
+     * @param world
+     * @return <tt>true</tt> if this snapshot was captured from the world
+     */
+    public boolean isOf(ClientWorld world) {
+        return this.world == world;
+    }
+
+    /**
+     * @return All entities in world order
+     */
+    public List<Entity> getEntities() {
+        return entityList;
+    }
+
+    /**
+     * @return
+     */
+    public List<PlayerEntity> getPlayers() {
+        return players;
+    }
+
+    /**
+     * @return
+     */
+    public List<EndCrystalEntity> getCrystals() {
+        return crystals;
+    }
+}
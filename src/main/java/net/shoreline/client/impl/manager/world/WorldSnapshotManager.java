@@ -0,0 +1,63 @@
+package net.shoreline.client.impl.manager.world;
+
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.event.EventStage;
+import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.impl.event.TickEvent;
+import net.shoreline.client.impl.event.network.DisconnectEvent;
+import net.shoreline.client.util.Globals;
+
+/**
+ * Captures a {@link WorldSnapshot} of the world entities at most once per
+ * tick, so modules share a single entity scan instead of each walking
+ * the world entities on their own. Should only be used on the main thread,
+ * the returned snapshots are immutable and can be passed to other threads.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class WorldSnapshotManager implements Globals {
+    // The snapshot for the current tick, captured on first use
+    private WorldSnapshot snapshot;
+
+    /**
+     *
+     */
+    public WorldSnapshotManager() {
+        Shoreline.EVENT_HANDLER.subscribe(this);
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onTick(TickEvent event) {
+        if (event.getStage() == EventStage.PRE) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onDisconnect(DisconnectEvent event) {
+        snapshot = null;
+    }
+
+    /**
+     * Returns the entity snapshot of the current tick. The snapshot is
+     * captured the first time this is called in a tick.
+     *
+     * @return The entity snapshot of the current tick
+     */
+    public WorldSnapshot getSnapshot() {
+        if (mc.world == null) {
+            return WorldSnapshot.EMPTY;
+        }
+        if (snapshot == null || !snapshot.isOf(mc.world)) {
+            snapshot = WorldSnapshot.capture(mc.world);
+        }
+        return snapshot;
+    }
+}
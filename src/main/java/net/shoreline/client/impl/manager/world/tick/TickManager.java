@@ -38,7 +38,7 @@ public class TickManager implements Globals {
      * @param event
      * @see WorldTimeUpdateS2CPacket
      */
-    @EventListener
+    @EventListener(filter = WorldTimeUpdateS2CPacket.class)
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.player == null || mc.world == null) {
             return;
@@ -39,6 +39,13 @@ public class ColorsModule extends ConcurrentModule {
         return new Color(config.getRed(), config.getGreen(), config.getBlue(), alpha);
     }
 
+    /**
+     * @return The packed ARGB client color
+     */
+    public int getRgbPacked() {
+        return ((ColorConfig) colorConfig).getRgbPacked();
+    }
+
     public Integer getRGB() {
         return getColor().getRGB();
     }
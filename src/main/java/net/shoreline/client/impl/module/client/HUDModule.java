@@ -14,12 +14,16 @@ import net.minecraft.text.Text;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 import net.shoreline.client.BuildConfig;
+import net.shoreline.client.Shoreline;
 import net.shoreline.client.ShorelineMod;
 import net.shoreline.client.api.config.Config;
 import net.shoreline.client.api.config.setting.BooleanConfig;
 import net.shoreline.client.api.config.setting.EnumConfig;
 import net.shoreline.client.api.config.setting.NumberConfig;
+import net.shoreline.client.api.event.handler.EventProfiler;
+import net.shoreline.client.api.event.handler.InvocationProfile;
 import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.api.event.listener.Listener;
 import net.shoreline.client.api.module.Module;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
@@ -64,6 +68,8 @@ public class HUDModule extends ToggleModule {
     Config<Boolean> fpsConfig = new BooleanConfig("FPS", "Displays game FPS", true);
     Config<Boolean> arraylistConfig = new BooleanConfig("Arraylist", "Displays a list of all active modules", true);
     Config<Ordering> orderingConfig = new EnumConfig<>("Ordering", "The ordering of the arraylist", Ordering.LENGTH, Ordering.values(), () -> arraylistConfig.getValue());
+    Config<Boolean> profilerConfig = new BooleanConfig("Profiler", "Displays the hottest event listeners while the profiler is running", false);
+    Config<Integer> profilerCountConfig = new NumberConfig<>("Profiler-Count", "The number of listeners to display", 1, 5, 20, () -> profilerConfig.getValue());
     Config<Rendering> renderingConfig = new EnumConfig<>("Rendering", "The rendering mode of the HUD", Rendering.UP, Rendering.values());
     // Rainbow settings
     Config<RainbowMode> rainbowModeConfig = new EnumConfig<>("Rainbow", "The rendering mode for rainbow", RainbowMode.OFF, RainbowMode.values());
@@ -130,7 +136,18 @@ public class HUDModule extends ToggleModule {
                 RenderManager.renderText(event.getContext(), String.format("%s %s (%s%s)",
                         ShorelineMod.MOD_NAME, ShorelineMod.MOD_VER,
                         ShorelineMod.MOD_BUILD_NUMBER, !BuildConfig.HASH.equals("null") ? "-" + BuildConfig.HASH : ""), 2.0f, topLeft, getHudColor(rainbowOffset));
-                // topLeft += 9.0f;
+                topLeft += 9.0f;
+            }
+            EventProfiler profiler = Shoreline.EVENT_HANDLER.getProfiler();
+            if (profilerConfig.getValue() && profiler.isEnabled()) {
+                for (Listener listener : profiler.getHottestListeners(profilerCountConfig.getValue())) {
+                    InvocationProfile profile = listener.getProfile();
+                    RenderManager.renderText(event.getContext(), String.format("%s §f%.2fms §7[§f%.2fms§7]",
+                            listener.getName(), profile.getWindowNanos() / 1.0e6 / InvocationProfile.WINDOW,
+                            profile.getMaxNanos() / 1.0e6), 2.0f, topLeft, getHudColor(rainbowOffset));
+                    topLeft += 9.0f;
+                    rainbowOffset++;
+                }
             }
             if (arraylistConfig.getValue()) {
                 List<Module> modules = Managers.MODULE.getModules();
@@ -19,6 +19,7 @@ public final class ServerModule extends ConcurrentModule
 {
     Config<Boolean> packetKickConfig = new BooleanConfig("NoPacketKick", "If to prevent thrown exceptions from kicking you", true);
     Config<Boolean> demoConfig = new BooleanConfig("NoDemo", "If to prevent servers from forcing you to a demo screen", true);
+    Config<Boolean> packetBatchingConfig = new BooleanConfig("PacketBatching", "Flushes client packets once per tick instead of once per packet", false);
 
     public ServerModule()
     {
@@ -42,4 +43,9 @@ public final class ServerModule extends ConcurrentModule
     {
         return packetKickConfig.getValue();
     }
+
+    public boolean isPacketBatching()
+    {
+        return packetBatchingConfig.getValue();
+    }
 }
@@ -225,7 +225,7 @@ public class AuraModule extends RotationModule {
         }
     }
 
-    @EventListener
+    @EventListener(filter = UpdateSelectedSlotC2SPacket.class)
     public void onPacketOutbound(PacketEvent.Outbound event) {
         if (mc.player == null) {
             return;
@@ -389,8 +389,10 @@ public class AuraModule extends RotationModule {
     private Entity getAttackTarget(Vec3d pos) {
         double min = Double.MAX_VALUE;
         Entity attackTarget = null;
-        for (Entity entity : mc.world.getEntities()) {
-            if (entity == null || entity == mc.player
+        // snapshot positions are from capture, the exact range is checked below
+        for (Entity entity : Managers.WORLD.getSnapshot().getEntitiesInRange(Entity.class,
+                pos, searchRangeConfig.getValue() + 4.0)) {
+            if (entity == mc.player
                     || !entity.isAlive() || !isEnemy(entity)
                     || entity.getDisplayName() != null && Managers.SOCIAL.isFriend(entity.getDisplayName())
                     || entity instanceof EndCrystalEntity
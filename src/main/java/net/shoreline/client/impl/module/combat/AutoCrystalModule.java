@@ -27,6 +27,7 @@ import net.shoreline.client.api.config.setting.BooleanConfig;
 import net.shoreline.client.api.config.setting.EnumConfig;
 import net.shoreline.client.api.config.setting.NumberConfig;
 import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.api.event.listener.ThreadMode;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.RotationModule;
 import net.shoreline.client.api.render.RenderManager;
@@ -36,6 +37,7 @@ import net.shoreline.client.impl.event.network.PacketEvent;
 import net.shoreline.client.impl.event.network.PlayerTickEvent;
 import net.shoreline.client.impl.event.render.RenderWorldEvent;
 import net.shoreline.client.impl.event.world.AddEntityEvent;
+import net.shoreline.client.impl.manager.world.WorldSnapshot;
 import net.shoreline.client.init.Managers;
 import net.shoreline.client.init.Modules;
 import net.shoreline.client.util.EvictingQueue;
@@ -44,10 +46,14 @@ import net.shoreline.client.util.math.timer.Timer;
 import net.shoreline.client.util.player.RotationUtil;
 import net.shoreline.client.util.world.EndCrystalUtil;
 import net.shoreline.client.util.world.EntityUtil;
+import net.shoreline.client.util.world.ExposureRaycaster;
+import net.shoreline.client.util.world.PlaceCrystalScorer;
+import net.shoreline.client.util.world.PlaceCrystalSearch;
 
 import java.text.DecimalFormat;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Shoreline
@@ -107,6 +113,7 @@ public class AutoCrystalModule extends RotationModule {
     Config<Float> placeSpeedConfig = new NumberConfig<>("PlaceSpeed", "Speed to place crystals", 0.1f, 18.0f, 20.0f, () -> placeConfig.getValue());
     Config<Float> placeRangeConfig = new NumberConfig<>("PlaceRange", "Range to place crystals", 0.1f, 4.0f, 5.0f, () -> placeConfig.getValue());
     Config<Float> strictPlaceRangeConfig = new NumberConfig<>("StrictPlaceRange", "NCP range to place crystals", 0.1f, 4.0f, 5.0f, () -> placeConfig.getValue());
+    Config<Boolean> parallelConfig = new BooleanConfig("Parallel", "Calculates crystal placements on multiple threads", false, () -> placeConfig.getValue());
     Config<Float> placeWallRangeConfig = new NumberConfig<>("PlaceWallRange", "Range to place crystals through walls", 0.1f, 4.0f, 5.0f, () -> placeConfig.getValue());
     Config<Boolean> placeRangeEyeConfig = new BooleanConfig("PlaceRangeEye", "Calculates place ranges starting from the eye position of the player", false, () -> placeConfig.getValue());
     Config<Boolean> placeRangeCenterConfig = new BooleanConfig("PlaceRangeCenter", "Calculates place ranges to the center of the block", true, () -> placeConfig.getValue());
@@ -132,6 +139,8 @@ public class AutoCrystalModule extends RotationModule {
     Config<Boolean> renderConfig = new BooleanConfig("Render", "Renders the current placement", true);
     Config<Boolean> damageNametagConfig = new BooleanConfig("Render-Damage", "Renders the current expected damage of a place/attack", false, () -> renderConfig.getValue());
     Config<Boolean> breakDebugConfig = new BooleanConfig("Break-Debug", "Debugs break ms in data", false);
+    Config<Boolean> pruneDebugConfig = new BooleanConfig("Prune-Debug", "Debugs evaluated/pruned crystal candidates in data", false);
+    Config<Boolean> cacheDebugConfig = new BooleanConfig("Cache-Debug", "Debugs damage cache hits/misses in data", false);
     //
     Config<Boolean> disableDeathConfig = new BooleanConfig("DisableOnDeath", "Disables during disconnect/death", false);
     //
@@ -155,12 +164,14 @@ public class AutoCrystalModule extends RotationModule {
     //
     private final ArrayDeque<Long> attackLatency = new EvictingQueue<>(20);
     private final List<BlockPos> manualCrystals = new ArrayList<>();
-    private final Map<Integer, Long> attackPackets =
-            Collections.synchronizedMap(new ConcurrentHashMap<>());
-    private final Map<BlockPos, Long> placePackets =
-            Collections.synchronizedMap(new ConcurrentHashMap<>());
+    private final Map<Integer, Long> attackPackets = new ConcurrentHashMap<>();
+    private final Map<BlockPos, Long> placePackets = new ConcurrentHashMap<>();
     //
     private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private ForkJoinPool placePool;
+    // Candidates scored and skipped by their damage bound in the last tick
+    private final AtomicInteger evaluatedCount = new AtomicInteger();
+    private final AtomicInteger prunedCount = new AtomicInteger();
 
     /**
      *
@@ -175,11 +186,21 @@ public class AutoCrystalModule extends RotationModule {
         if (breakDebugConfig.getValue()) {
             return String.format("%dms", getBreakMs());
         }
+        if (pruneDebugConfig.getValue()) {
+            return String.format("%d/%d", evaluatedCount.get(), prunedCount.get());
+        }
+        if (cacheDebugConfig.getValue()) {
+            return String.format("%d/%d", Managers.DAMAGE.getHits(), Managers.DAMAGE.getMisses());
+        }
         return "ARRAYLIST_INFO";
     }
 
     @Override
     public void onDisable() {
+        if (placePool != null) {
+            placePool.shutdown();
+            placePool = null;
+        }
         renderPos = null;
         attackCrystal = null;
         placeCrystal = null;
@@ -204,11 +225,13 @@ public class AutoCrystalModule extends RotationModule {
                 || mc.options.attackKey.isPressed()) {
             autoSwapTimer.reset();
         }
-        ArrayList<Entity> entities = Lists.newArrayList(mc.world.getEntities());
+        evaluatedCount.set(0);
+        prunedCount.set(0);
+        WorldSnapshot snapshot = Managers.WORLD.getSnapshot();
         List<BlockPos> blocks = getSphere(mc.player.getPos());
-        attackCrystal = calculateAttackCrystal(entities);
+        attackCrystal = calculateAttackCrystal(snapshot);
         if (placeConfig.getValue()) {
-            placeCrystal = calculatePlaceCrystal(blocks, entities);
+            placeCrystal = calculatePlaceCrystal(blocks, snapshot);
         }
         float breakDelay = 1000.0f - breakSpeedConfig.getValue() * 50.0f;
         if (breakDelayConfig.getValue()) {
@@ -304,18 +327,19 @@ public class AutoCrystalModule extends RotationModule {
         }
     }
 
-    @EventListener
+    @EventListener(filter = PlaySoundS2CPacket.class, threadMode = ThreadMode.MAIN)
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.player == null || mc.world == null) {
             return;
         }
         if (event.getPacket() instanceof PlaySoundS2CPacket packet && packet.getCategory() == SoundCategory.BLOCKS
                 && packet.getSound().value() == SoundEvents.ENTITY_GENERIC_EXPLODE) {
-            for (Entity entity : Lists.newArrayList(mc.world.getEntities())) {
-                if (entity instanceof EndCrystalEntity && entity.squaredDistanceTo(packet.getX(), packet.getY(), packet.getZ()) < 144.0) {
-                    mc.executeSync(() -> {
-                        mc.world.removeEntity(entity.getId(), Entity.RemovalReason.KILLED);
-                    });
+            // crystals may have spawned since the tick snapshot, query the world
+            Box explosion = new Box(packet.getX() - 12.0, packet.getY() - 12.0, packet.getZ() - 12.0,
+                    packet.getX() + 12.0, packet.getY() + 12.0, packet.getZ() + 12.0);
+            for (EndCrystalEntity entity : mc.world.getEntitiesByClass(EndCrystalEntity.class, explosion, e -> true)) {
+                if (entity.squaredDistanceTo(packet.getX(), packet.getY(), packet.getZ()) < 144.0) {
+                    mc.world.removeEntity(entity.getId(), Entity.RemovalReason.KILLED);
                 }
             }
         }
@@ -348,20 +372,11 @@ public class AutoCrystalModule extends RotationModule {
             if (playerDamageCheck(selfDamage)) {
                 return;
             }
-            for (Entity entity : mc.world.getEntities()) {
-                if (entity == null || !entity.isAlive() || entity == mc.player
-                        || !isValidTarget(entity)
-                        || entity.getDisplayName() != null && Managers.SOCIAL.isFriend(entity.getDisplayName())) {
-                    continue;
-                }
+            for (Entity entity : getTargets(Managers.WORLD.getSnapshot())) {
                 double crystalDist = crystalPos.squaredDistanceTo(entity.getPos());
                 if (crystalDist > 144.0f) {
                     continue;
                 }
-                double dist = mc.player.squaredDistanceTo(entity);
-                if (dist > targetRangeConfig.getValue() * targetRangeConfig.getValue()) {
-                    continue;
-                }
                 double damage = EndCrystalUtil.getDamageTo(entity,
                         crystalPos, blockDestructionConfig.getValue());
                 // TODO: Test this
@@ -380,7 +395,7 @@ public class AutoCrystalModule extends RotationModule {
         }
     }
 
-    @EventListener
+    @EventListener(filter = {UpdateSelectedSlotC2SPacket.class, PlayerInteractBlockC2SPacket.class, PlayerActionC2SPacket.class})
     public void onPacketOutbound(PacketEvent.Outbound event) {
         if (mc.player == null) {
             return;
@@ -579,51 +594,103 @@ public class AutoCrystalModule extends RotationModule {
         return Direction.UP;
     }
 
-    private DamageData<EndCrystalEntity> calculateAttackCrystal(List<Entity> entities) {
-        if (entities.isEmpty()) {
+    /**
+     * Returns the valid targets in target range, in world order
+     *
+     * @param snapshot
+     * @return
+     */
+    private List<Entity> getTargets(WorldSnapshot snapshot) {
+        List<Entity> targets = new ArrayList<>();
+        double range = ((NumberConfig<?>) targetRangeConfig).getDouble();
+        // snapshot positions are from capture, the exact range is checked below
+        for (Entity entity : snapshot.getEntitiesInRange(Entity.class, mc.player.getPos(), range + 4.0)) {
+            if (!entity.isAlive() || entity == mc.player || !isValidTarget(entity)
+                    || entity.getDisplayName() != null && Managers.SOCIAL.isFriend(entity.getDisplayName())) {
+                continue;
+            }
+            if (mc.player.squaredDistanceTo(entity) > range * range) {
+                continue;
+            }
+            targets.add(entity);
+        }
+        return targets;
+    }
+
+    private DamageData<EndCrystalEntity> calculateAttackCrystal(WorldSnapshot snapshot) {
+        List<Entity> targets = getTargets(snapshot);
+        if (targets.isEmpty()) {
             return null;
         }
-        DamageData<EndCrystalEntity> data = null;
-        for (Entity crystal : entities) {
-            if (!(crystal instanceof EndCrystalEntity crystal1) || !crystal.isAlive()) {
+        List<EndCrystalEntity> crystals = new ArrayList<>();
+        for (EndCrystalEntity crystal : snapshot.getCrystals()) {
+            if (!crystal.isAlive()) {
                 continue;
             }
             Long time = attackPackets.get(crystal.getId());
             boolean attacked = time != null && time < getBreakMs();
-            if ((crystal.age < ticksExistedConfig.getValue() || attacked) && inhibitConfig.getValue()) {
+            if ((crystal.age < ((NumberConfig<?>) ticksExistedConfig).getInt() || attacked) && inhibitConfig.getValue()) {
                 continue;
             }
-            if (attackRangeCheck(crystal1)) {
+            if (attackRangeCheck(crystal)) {
                 continue;
             }
+            crystals.add(crystal);
+        }
+        int size = crystals.size();
+        int count = targets.size();
+        // bound every pair assuming full exposure, then visit the crystals
+        // with the highest bounds first
+        double[] pairBounds = new double[size * count];
+        double[] bounds = new double[size];
+        for (int i = 0; i < size; i++) {
+            EndCrystalEntity crystal = crystals.get(i);
+            bounds[i] = -1.0;
+            for (int j = 0; j < count; j++) {
+                Entity entity = targets.get(j);
+                double bound = -1.0;
+                if (crystal.squaredDistanceTo(entity) <= 144.0f) {
+                    bound = EndCrystalUtil.getDamageBound(entity, crystal.getPos());
+                }
+                pairBounds[i * count + j] = bound;
+                bounds[i] = Math.max(bounds[i], bound);
+            }
+        }
+        int[] order = PlaceCrystalScorer.getBoundOrder(bounds);
+        double minBound = getMinDamageBound();
+        DamageData<EndCrystalEntity> data = null;
+        long dataKey = Long.MAX_VALUE;
+        for (int n = 0; n < size; n++) {
+            int i = order[n];
+            // the crystals are sorted by bound, none of the rest can win
+            if (bounds[i] < minBound || !isBetterDamage(bounds[i], (long) i * count, data, dataKey)) {
+                prunedCount.addAndGet(size - n);
+                break;
+            }
+            evaluatedCount.incrementAndGet();
+            EndCrystalEntity crystal = crystals.get(i);
             double selfDamage = EndCrystalUtil.getDamageTo(mc.player,
                     crystal.getPos(), blockDestructionConfig.getValue());
             boolean unsafeToPlayer = playerDamageCheck(selfDamage);
             if (unsafeToPlayer && !safetyOverride.getValue()) {
                 continue;
             }
-            for (Entity entity : entities) {
-                if (entity == null || !entity.isAlive() || entity == mc.player
-                        || !isValidTarget(entity)
-                        || entity.getDisplayName() != null && Managers.SOCIAL.isFriend(entity.getDisplayName())) {
-                    continue;
-                }
-                double crystalDist = crystal.squaredDistanceTo(entity);
-                if (crystalDist > 144.0f) {
-                    continue;
-                }
-                double dist = mc.player.squaredDistanceTo(entity);
-                if (dist > targetRangeConfig.getValue() * targetRangeConfig.getValue()) {
+            for (int j = 0; j < count; j++) {
+                long key = (long) i * count + j;
+                double bound = pairBounds[(int) key];
+                if (bound < minBound || !isBetterDamage(bound, key, data, dataKey)) {
                     continue;
                 }
+                Entity entity = targets.get(j);
                 double damage = EndCrystalUtil.getDamageTo(entity,
                         crystal.getPos(), blockDestructionConfig.getValue());
                 if (checkOverrideSafety(unsafeToPlayer, damage, entity)) {
                     continue;
                 }
-                if (data == null || damage > data.getDamage()) {
-                    data = new DamageData<>(crystal1, entity,
-                            damage, selfDamage, crystal1.getBlockPos().down());
+                if (isBetterDamage(damage, key, data, dataKey)) {
+                    data = new DamageData<>(crystal, entity,
+                            damage, selfDamage, crystal.getBlockPos().down());
+                    dataKey = key;
                 }
             }
         }
@@ -633,6 +700,32 @@ public class AutoCrystalModule extends RotationModule {
         return data;
     }
 
+    /**
+     * Candidates which cannot deal this much damage are never returned,
+     * even for lethal targets.
+     *
+     * @return The min damage of a returned candidate
+     * @see #targetDamageCheck(DamageData)
+     */
+    private double getMinDamageBound() {
+        return Math.min(((NumberConfig<?>) minDamageConfig).getFloat(), 2.0f);
+    }
+
+    /**
+     * Returns <tt>true</tt> if a damage beats the best damage. Candidates
+     * are compared in the order of the serial search, higher damage wins
+     * and equal damages go to the candidate which comes first.
+     *
+     * @param damage
+     * @param key     The position of the candidate in the serial search
+     * @param data    The best damage
+     * @param dataKey The position of the best damage in the serial search
+     * @return <tt>true</tt> if the damage beats the best damage
+     */
+    private boolean isBetterDamage(double damage, long key, DamageData<?> data, long dataKey) {
+        return data == null || damage > data.getDamage() || damage == data.getDamage() && key < dataKey;
+    }
+
     private boolean attackRangeCheck(EndCrystalEntity entity) {
         return attackRangeCheck(entity.getPos());
     }
@@ -644,65 +737,113 @@ public class AutoCrystalModule extends RotationModule {
     private boolean attackRangeCheck(Vec3d entityPos) {
         Vec3d playerPos = mc.player.getEyePos();
         double dist = playerPos.squaredDistanceTo(entityPos);
-        if (dist > breakRangeConfig.getValue() * breakRangeConfig.getValue()) {
+        if (dist > ((NumberConfig<?>) breakRangeConfig).getValueSq()) {
             return true;
         }
         double yOff = Math.abs(entityPos.getY() - mc.player.getY());
-        if (yOff > maxYOffsetConfig.getValue()) {
+        if (yOff > ((NumberConfig<?>) maxYOffsetConfig).getFloat()) {
             return true;
         }
         BlockHitResult result = mc.world.raycast(new RaycastContext(
                 playerPos, entityPos, RaycastContext.ShapeType.COLLIDER,
                 RaycastContext.FluidHandling.NONE, mc.player));
         return result.getType() != HitResult.Type.MISS
-                && dist > breakWallRangeConfig.getValue() * breakWallRangeConfig.getValue();
+                && dist > ((NumberConfig<?>) breakWallRangeConfig).getValueSq();
     }
 
-    private DamageData<BlockPos> calculatePlaceCrystal(List<BlockPos> placeBlocks, List<Entity> entities) {
-        if (placeBlocks.isEmpty() || entities.isEmpty()) {
+    private DamageData<BlockPos> calculatePlaceCrystal(List<BlockPos> placeBlocks, WorldSnapshot snapshot) {
+        List<Entity> targets = getTargets(snapshot);
+        if (placeBlocks.isEmpty() || targets.isEmpty()) {
             return null;
         }
-        DamageData<BlockPos> data = null;
+        // range and placement checks read the world, always check on the
+        // main thread before scoring
+        List<BlockPos> candidates = new ArrayList<>();
         for (BlockPos pos : placeBlocks) {
             if (!canUseCrystalOnBlock(pos) || placeRangeCheck(pos)) {
                 continue;
             }
-            double selfDamage = EndCrystalUtil.getDamageTo(mc.player,
-                    crystalDamageVec(pos), blockDestructionConfig.getValue());
-            boolean unsafeToPlayer = playerDamageCheck(selfDamage);
-            if (unsafeToPlayer && !safetyOverride.getValue()) {
-                continue;
-            }
-            for (Entity entity : entities) {
-                if (entity == null || !entity.isAlive() || entity == mc.player
-                        || !isValidTarget(entity)
-                        || entity.getDisplayName() != null && Managers.SOCIAL.isFriend(entity.getDisplayName())) {
-                    continue;
-                }
-                double blockDist = pos.getSquaredDistance(entity.getPos());
-                if (blockDist > 144.0f) {
-                    continue;
-                }
-                double dist = mc.player.squaredDistanceTo(entity);
-                if (dist > targetRangeConfig.getValue() * targetRangeConfig.getValue()) {
-                    continue;
-                }
-                double damage = EndCrystalUtil.getDamageTo(entity,
-                        crystalDamageVec(pos), blockDestructionConfig.getValue());
-                if (checkOverrideSafety(unsafeToPlayer, damage, entity)) {
-                    continue;
-                }
-                if (data == null || damage > data.getDamage()) {
-                    data = new DamageData<>(pos, entity, damage, selfDamage);
-                }
-            }
+            candidates.add(pos);
         }
-        if (data == null || targetDamageCheck(data)) {
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        // the scorer only reads values captured here, so the parallel
+        // search does not read live entities
+        List<PlaceCrystalScorer.Target> snapshots = new ArrayList<>();
+        for (Entity entity : targets) {
+            snapshots.add(PlaceCrystalScorer.Target.of(entity));
+        }
+        PlaceCrystalScorer.Target self = PlaceCrystalScorer.Target.of(mc.player);
+        PlaceCrystalScorer.Settings settings = getPlaceSettings();
+        PlaceCrystalScorer scorer;
+        PlaceCrystalScorer.Placement placement;
+        if (parallelConfig.getValue()) {
+            ExposureRaycaster raycaster = ExposureRaycaster.freeze(mc.world,
+                    getRaycastRegion(candidates, targets));
+            scorer = new PlaceCrystalScorer(candidates, snapshots, self, settings, raycaster, null);
+            placement = getPlacePool().invoke(new PlaceCrystalSearch<>(scorer, 0, candidates.size()));
+        } else {
+            scorer = new PlaceCrystalScorer(candidates, snapshots, self, settings,
+                    Managers.DAMAGE.getRaycaster(), Managers.DAMAGE);
+            placement = scorer.score(0, candidates.size());
+        }
+        evaluatedCount.addAndGet(scorer.getEvaluated());
+        prunedCount.addAndGet(scorer.getPruned());
+        if (placement == null) {
+            return null;
+        }
+        DamageData<BlockPos> data = new DamageData<>(candidates.get(placement.candidate()),
+                targets.get(placement.target()), placement.damage(), placement.selfDamage());
+        if (targetDamageCheck(data)) {
             return null;
         }
         return data;
     }
 
+    /**
+     * Captures the place settings on the main thread
+     *
+     * @return
+     */
+    private PlaceCrystalScorer.Settings getPlaceSettings() {
+        return new PlaceCrystalScorer.Settings(blockDestructionConfig.getValue(),
+                getMinDamageBound(), safetyConfig.getValue(),
+                ((NumberConfig<?>) maxLocalDamageConfig).getFloat(), safetyOverride.getValue(),
+                mc.player.isCreative(),
+                mc.world.getDamageSources().explosion(null).isScaledWithDifficulty(),
+                mc.world.getDifficulty());
+    }
+
+    /**
+     * @param candidates
+     * @param targets
+     * @return The region which contains every exposure ray between the
+     * candidates and the targets or the player
+     */
+    private Box getRaycastRegion(List<BlockPos> candidates, List<Entity> targets) {
+        Box region = mc.player.getBoundingBox();
+        for (BlockPos pos : candidates) {
+            Vec3d damageVec = crystalDamageVec(pos);
+            region = region.union(new Box(damageVec, damageVec));
+        }
+        for (Entity entity : targets) {
+            region = region.union(entity.getBoundingBox());
+        }
+        return region;
+    }
+
+    /**
+     * @return The pool for parallel place calculations, sized to the
+     * spare cores
+     */
+    private ForkJoinPool getPlacePool() {
+        if (placePool == null) {
+            placePool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 2));
+        }
+        return placePool;
+    }
+
     /**
      * @param pos
      * @return
@@ -711,7 +852,7 @@ public class AutoCrystalModule extends RotationModule {
         Vec3d player = placeRangeEyeConfig.getValue() ? mc.player.getEyePos() : mc.player.getPos();
         double dist = placeRangeCenterConfig.getValue() ?
                 player.squaredDistanceTo(pos.toCenterPos()) : pos.getSquaredDistance(player.x, player.y, player.z);
-        if (dist > placeRangeConfig.getValue() * placeRangeConfig.getValue()) {
+        if (dist > ((NumberConfig<?>) placeRangeConfig).getValueSq()) {
             return true;
         }
         Vec3d raytrace = Vec3d.of(pos).add(0.0, raytraceConfig.getValue() ? 2.700000047683716 : 1.0, 0.0);
@@ -719,10 +860,10 @@ public class AutoCrystalModule extends RotationModule {
                 mc.player.getEyePos(), raytrace,
                 RaycastContext.ShapeType.COLLIDER,
                 RaycastContext.FluidHandling.NONE, mc.player));
-        float maxDist = breakRangeConfig.getValue() * breakRangeConfig.getValue();
+        double maxDist = ((NumberConfig<?>) breakRangeConfig).getValueSq();
         if (result != null && result.getType() == HitResult.Type.BLOCK && result.getBlockPos() != pos) {
-            maxDist = breakWallRangeConfig.getValue() * breakWallRangeConfig.getValue();
-            if (dist > placeWallRangeConfig.getValue() * placeWallRangeConfig.getValue()) {
+            maxDist = ((NumberConfig<?>) breakWallRangeConfig).getValueSq();
+            if (dist > ((NumberConfig<?>) placeWallRangeConfig).getValueSq()) {
                 return true;
             }
         }
@@ -734,7 +875,7 @@ public class AutoCrystalModule extends RotationModule {
     }
 
     private boolean targetDamageCheck(DamageData<?> crystal) {
-        double minDmg = minDamageConfig.getValue();
+        double minDmg = ((NumberConfig<?>) minDamageConfig).getFloat();
         if (crystal.getAttackTarget() instanceof LivingEntity entity && isCrystalLethalTo(crystal, entity)) {
             minDmg = 2.0f;
         }
@@ -747,7 +888,7 @@ public class AutoCrystalModule extends RotationModule {
             if (safetyConfig.getValue() && playerDamage >= health + 0.5f) {
                 return true;
             }
-            return playerDamage > maxLocalDamageConfig.getValue();
+            return playerDamage > ((NumberConfig<?>) maxLocalDamageConfig).getFloat();
         }
         return false;
     }
@@ -777,7 +918,7 @@ public class AutoCrystalModule extends RotationModule {
             return lastAttackTimer.passed(500);
         }
         float health = entity.getHealth() + entity.getAbsorptionAmount();
-        if (crystal.getDamage() * (1.0f + lethalMultiplier.getValue()) >= health + 0.5f) {
+        if (crystal.getDamage() * (1.0f + ((NumberConfig<?>) lethalMultiplier).getFloat()) >= health + 0.5f) {
             return true;
         }
         if (armorBreakerConfig.getValue()) {
@@ -785,7 +926,7 @@ public class AutoCrystalModule extends RotationModule {
                 int n = armorStack.getDamage();
                 int n1 = armorStack.getMaxDamage();
                 float durability = ((n1 - n) / (float) n1) * 100.0f;
-                if (durability < armorScaleConfig.getValue()) {
+                if (durability < ((NumberConfig<?>) armorScaleConfig).getFloat()) {
                     return true;
                 }
             }
@@ -874,7 +1015,7 @@ public class AutoCrystalModule extends RotationModule {
                 entities.remove(entity);
             } else if (entity instanceof EndCrystalEntity entity1
                     // && !intersectingCrystalCheck(entity1) // TODO: More advanced check for intersecting crystals
-                    && entity1.getBoundingBox().intersects(box) || attackPackets.containsKey(entity.getId()) && entity.age < ticksExistedConfig.getValue()) {
+                    && entity1.getBoundingBox().intersects(box) || attackPackets.containsKey(entity.getId()) && entity.age < ((NumberConfig<?>) ticksExistedConfig).getInt()) {
                 entities.remove(entity);
             }
         }
@@ -1026,31 +1167,32 @@ public class AutoCrystalModule extends RotationModule {
     }
 
     private class AttackCrystalTask implements Callable<DamageData<EndCrystalEntity>> {
-        private final List<Entity> threadSafeEntities;
+        private final WorldSnapshot snapshot;
 
-        public AttackCrystalTask(List<Entity> threadSafeEntities) {
-            this.threadSafeEntities = threadSafeEntities;
+        public AttackCrystalTask(WorldSnapshot snapshot) {
+            this.snapshot = snapshot;
         }
 
         @Override
         public DamageData<EndCrystalEntity> call() throws Exception {
-            return calculateAttackCrystal(threadSafeEntities);
+            return calculateAttackCrystal(snapshot);
         }
     }
 
     private class PlaceCrystalTask implements Callable<DamageData<BlockPos>> {
         private final List<BlockPos> threadSafeBlocks;
-        private final List<Entity> threadSafeEntities;
+        private final WorldSnapshot snapshot;
 
         public PlaceCrystalTask(List<BlockPos> threadSafeBlocks,
-                                List<Entity> threadSafeEntities) {
+                                WorldSnapshot snapshot) {
             this.threadSafeBlocks = threadSafeBlocks;
-            this.threadSafeEntities = threadSafeEntities;
+            this.snapshot = snapshot;
         }
 
         @Override
         public DamageData<BlockPos> call() throws Exception {
-            return calculatePlaceCrystal(threadSafeBlocks, threadSafeEntities);
+            return calculatePlaceCrystal(threadSafeBlocks, snapshot);
         }
     }
+
 }
\ No newline at end of file
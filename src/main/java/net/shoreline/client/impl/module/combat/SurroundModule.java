@@ -254,7 +254,7 @@ public class SurroundModule extends ObsidianPlacerModule {
         }
     }
 
-    @EventListener
+    @EventListener(filter = {BlockUpdateS2CPacket.class, PlaySoundS2CPacket.class})
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.player == null) {
             return;
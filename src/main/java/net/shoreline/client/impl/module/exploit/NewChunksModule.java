@@ -1,13 +1,96 @@
 package net.shoreline.client.impl.module.exploit;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.GameJoinS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerRespawnS2CPacket;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.config.Config;
+import net.shoreline.client.api.config.setting.BooleanConfig;
+import net.shoreline.client.api.config.setting.ColorConfig;
+import net.shoreline.client.api.config.setting.NumberConfig;
+import net.shoreline.client.api.event.EventStage;
+import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
+import net.shoreline.client.api.render.RenderManager;
+import net.shoreline.client.impl.event.TickEvent;
+import net.shoreline.client.impl.event.network.PacketEvent;
+import net.shoreline.client.impl.event.render.RenderWorldEvent;
+import net.shoreline.client.util.world.ChunkRegionStore;
+
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
 
 /**
+ * Classifies loaded chunks as new or old. A chunk which is sent with
+ * flowing fluids has been loaded before and is old, a chunk which receives
+ * flowing fluid updates without being old was generated when it was sent
+ * and is new. Chunks are classified on a worker thread and stored per
+ * server and dimension in a {@link ChunkRegionStore}, so classifications
+ * survive restarts. Rendering only uses the cached overlays of the regions
+ * in range.
+ *
  * @author linus
- * @since 1.o
+ * @since 1.0
  */
 public class NewChunksModule extends ToggleModule {
+    //
+    Config<Integer> rangeConfig = new NumberConfig<>("Range", "The chunk radius to render classified chunks", 1, 16, 64);
+    Config<Integer> heightConfig = new NumberConfig<>("Height", "The y level of the chunk overlay", -64, 0, 320);
+    Config<Color> newColorConfig = new ColorConfig("NewColor", "The render color for new chunks", new Color(200, 60, 60));
+    Config<Boolean> oldConfig = new BooleanConfig("Old", "Renders old chunks", false);
+    Config<Color> oldColorConfig = new ColorConfig("OldColor", "The render color for old chunks", new Color(60, 200, 60), false, () -> oldConfig.getValue());
+    // Sections with a flowing fluid in their palette
+    private static final Predicate<BlockState> FLOWING = state -> isFlowing(state.getFluidState());
+    // The worker thread which owns the store
+    private final ExecutorService executor = Executors.newFixedThreadPool(1);
+    // The classification store of the current world. Only accessed by the
+    // worker thread.
+    private ChunkRegionStore store;
+    // Overlays of the regions in range by packed region position, published
+    // by the worker thread
+    private final Map<Long, RegionOverlay> overlays = new ConcurrentHashMap<>();
+    // Chunk loads and flowing fluid updates received from the network
+    // thread, in the order of the packets. Chunks are classified from the
+    // packet data, the world chunk may already contain later fluid updates.
+    // Only holds the updates of the latest world, the queue is cleared by
+    // the join and respawn packets.
+    private final Queue<ChunkUpdate> updates = new ConcurrentLinkedQueue<>();
+    // The regions in range which have an overlay or are being loaded
+    private final LongSet regions = new LongOpenHashSet();
+    //
+    private ClientWorld world;
 
     /**
      *
@@ -16,4 +99,338 @@ public class NewChunksModule extends ToggleModule {
         super("NewChunks", "Highlights chunks that have been recently generated",
                 ModuleCategory.EXPLOITS);
     }
+
+    @Override
+    public void onEnable() {
+        world = null;
+    }
+
+    @Override
+    public void onDisable() {
+        world = null;
+        updates.clear();
+        openStore(null);
+    }
+
+    @EventListener(filter = {ChunkDataS2CPacket.class, BlockUpdateS2CPacket.class,
+            ChunkDeltaUpdateS2CPacket.class, GameJoinS2CPacket.class,
+            PlayerRespawnS2CPacket.class})
+    public void onPacketInbound(PacketEvent.Inbound event) {
+        if (event.getPacket() instanceof GameJoinS2CPacket
+                || event.getPacket() instanceof PlayerRespawnS2CPacket) {
+            // the chunks of the next world are sent right after this packet
+            // and may be applied with it before the tick sees the new world,
+            // so the queue is cleared here instead of when the store opens
+            updates.clear();
+        } else if (event.getPacket() instanceof ChunkDataS2CPacket packet) {
+            // the buffer wraps the section bytes of the packet and is only
+            // read by the worker thread
+            updates.add(new ChunkUpdate(ChunkPos.toLong(packet.getChunkX(), packet.getChunkZ()),
+                    packet.getChunkData().getSectionsDataBuf()));
+        } else if (event.getPacket() instanceof BlockUpdateS2CPacket packet) {
+            if (isFlowing(packet.getState().getFluidState())) {
+                updates.add(new ChunkUpdate(toChunkLong(packet.getPos()), null));
+            }
+        } else if (event.getPacket() instanceof ChunkDeltaUpdateS2CPacket packet) {
+            packet.visitUpdates((pos, state) -> {
+                if (isFlowing(state.getFluidState())) {
+                    updates.add(new ChunkUpdate(toChunkLong(pos), null));
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onTick(TickEvent event) {
+        if (event.getStage() != EventStage.PRE) {
+            return;
+        }
+        if (world != mc.world) {
+            world = mc.world;
+            openStore(world != null ? getStoreDirectory() : null);
+        }
+        if (world == null || mc.player == null) {
+            return;
+        }
+        List<ChunkUpdate> received = new ArrayList<>();
+        ChunkUpdate update;
+        while ((update = updates.poll()) != null) {
+            received.add(update);
+        }
+        // load the overlays of regions which entered the range
+        LongList load = new LongArrayList();
+        LongSet inRange = getRegionsInRange();
+        LongIterator iterator = inRange.iterator();
+        while (iterator.hasNext()) {
+            long region = iterator.nextLong();
+            if (regions.add(region)) {
+                load.add(region);
+            }
+        }
+        regions.retainAll(inRange);
+        overlays.keySet().removeIf(region -> !regions.contains(region));
+        if (received.isEmpty() && load.isEmpty()) {
+            return;
+        }
+        Registry<Biome> biomes = world.getRegistryManager().get(RegistryKeys.BIOME);
+        int sections = world.countVerticalSections();
+        executor.execute(() -> classifyChunks(received, biomes, sections, load));
+    }
+
+    @EventListener
+    public void onRenderWorld(RenderWorldEvent event) {
+        if (overlays.isEmpty() || mc.player == null) {
+            return;
+        }
+        int height = heightConfig.getValue();
+        ChunkPos center = mc.player.getChunkPos();
+        int range = rangeConfig.getValue();
+        for (RegionOverlay overlay : overlays.values()) {
+            if (!RenderManager.isFrustumVisible(overlay.getBox(height))) {
+                continue;
+            }
+            renderChunks(event.getMatrices(), overlay.getNewBoxes(height), overlay.newChunks,
+                    overlay.region, center, range, ((ColorConfig) newColorConfig).getRgb(80));
+            if (oldConfig.getValue()) {
+                renderChunks(event.getMatrices(), overlay.getOldBoxes(height), overlay.oldChunks,
+                        overlay.region, center, range, ((ColorConfig) oldColorConfig).getRgb(80));
+            }
+        }
+    }
+
+    /**
+     * @param matrices
+     * @param boxes
+     * @param chunks
+     * @param region
+     * @param center
+     * @param range
+     * @param color
+     */
+    private void renderChunks(MatrixStack matrices, Box[] boxes, int[] chunks, long region,
+                              ChunkPos center, int range, int color) {
+        for (int i = 0; i < chunks.length; i++) {
+            if (Math.abs(ChunkRegionStore.toChunkX(region, chunks[i]) - center.x) > range
+                    || Math.abs(ChunkRegionStore.toChunkZ(region, chunks[i]) - center.z) > range
+                    || !RenderManager.isFrustumVisible(boxes[i])) {
+                continue;
+            }
+            RenderManager.renderBox(matrices, boxes[i], color);
+        }
+    }
+
+    /**
+     * Classifies the chunks in the order of the packets and publishes the
+     * overlays of the changed and loaded regions. Runs on the worker thread.
+     *
+     * @param received The chunk loads and flowing fluid updates
+     * @param biomes   The biome registry of the world, used to read the
+     *                 chunk sections
+     * @param sections The number of sections of a chunk in the world
+     * @param load     The regions which entered the range
+     */
+    private void classifyChunks(List<ChunkUpdate> received, Registry<Biome> biomes,
+                                int sections, LongList load) {
+        if (store == null) {
+            return;
+        }
+        LongSet changed = new LongOpenHashSet(load);
+        for (ChunkUpdate update : received) {
+            int x = ChunkPos.getPackedX(update.pos());
+            int z = ChunkPos.getPackedZ(update.pos());
+            // chunks without flowing fluids are not classified when loaded
+            boolean classified;
+            if (update.sections() == null) {
+                classified = store.classify(x, z, true);
+            } else {
+                classified = hasFlowing(update.sections(), biomes, sections)
+                        && store.classify(x, z, false);
+            }
+            if (classified) {
+                changed.add(ChunkRegionStore.toRegion(x, z));
+            }
+        }
+        LongIterator iterator = changed.iterator();
+        while (iterator.hasNext()) {
+            long region = iterator.nextLong();
+            // regions out of range are only stored
+            if (load.contains(region) || overlays.containsKey(region)) {
+                overlays.put(region, new RegionOverlay(region,
+                        store.getChunks(region, ChunkRegionStore.NEW),
+                        store.getChunks(region, ChunkRegionStore.OLD)));
+            }
+        }
+    }
+
+    /**
+     * Closes the current store and opens the store in the directory on the
+     * worker thread. Queued updates are classified into the new store.
+     *
+     * @param dir The store directory or <tt>null</tt> to only close the store
+     */
+    private void openStore(Path dir) {
+        regions.clear();
+        executor.execute(() -> {
+            if (store != null) {
+                store.close();
+            }
+            store = dir != null ? new ChunkRegionStore(dir) : null;
+            overlays.clear();
+        });
+    }
+
+    /**
+     * @return The store directory of the current server and dimension
+     */
+    private Path getStoreDirectory() {
+        String server;
+        ServerInfo info = mc.getCurrentServerEntry();
+        if (mc.isInSingleplayer() && mc.getServer() != null) {
+            server = "singleplayer_" + mc.getServer().getSaveProperties().getLevelName();
+        } else {
+            server = info != null ? info.address : "unknown";
+        }
+        String dimension = world.getRegistryKey().getValue().toString();
+        return Shoreline.CONFIG.getClientDirectory().resolve("NewChunks")
+                .resolve(toFileName(server)).resolve(toFileName(dimension));
+    }
+
+    /**
+     * @return The packed positions of the regions in the render range
+     */
+    private LongSet getRegionsInRange() {
+        ChunkPos center = mc.player.getChunkPos();
+        int range = rangeConfig.getValue();
+        long min = ChunkRegionStore.toRegion(center.x - range, center.z - range);
+        long max = ChunkRegionStore.toRegion(center.x + range, center.z + range);
+        LongSet inRange = new LongOpenHashSet();
+        for (int x = ChunkPos.getPackedX(min); x <= ChunkPos.getPackedX(max); x++) {
+            for (int z = ChunkPos.getPackedZ(min); z <= ChunkPos.getPackedZ(max); z++) {
+                inRange.add(ChunkPos.toLong(x, z));
+            }
+        }
+        return inRange;
+    }
+
+    /**
+     * @param buf      The section data of a chunk packet
+     * @param biomes
+     * @param sections
+     * @return <tt>true</tt> if the chunk was sent with a flowing fluid
+     */
+    private boolean hasFlowing(PacketByteBuf buf, Registry<Biome> biomes, int sections) {
+        try {
+            for (int i = 0; i < sections; i++) {
+                ChunkSection section = new ChunkSection(biomes);
+                section.readDataPacket(buf);
+                if (section.isEmpty() || !section.hasAny(FLOWING)) {
+                    continue;
+                }
+                // the palette may contain states which are no longer used
+                PalettedContainer<BlockState> container = section.getBlockStateContainer();
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            if (FLOWING.test(container.get(x, y, z))) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // malformed packet, the client does not load the chunk either
+        }
+        return false;
+    }
+
+    private static boolean isFlowing(FluidState state) {
+        return !state.isEmpty() && !state.isStill();
+    }
+
+    private static long toChunkLong(BlockPos pos) {
+        return ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getZ()));
+    }
+
+    private static String toFileName(String name) {
+        return name.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    /**
+     * @param pos      The packed chunk position
+     * @param sections The section data of a chunk load or <tt>null</tt> for
+     *                 a flowing fluid update
+     */
+    private record ChunkUpdate(long pos, PacketByteBuf sections) {
+
+    }
+
+    /**
+     * The classified chunks of a region. The render boxes are cached by the
+     * render thread and only rebuilt when the overlay height changes.
+     */
+    private static class RegionOverlay {
+        //
+        private final long region;
+        private final int[] newChunks;
+        private final int[] oldChunks;
+        // Render thread cache
+        private Box box;
+        private Box[] newBoxes;
+        private Box[] oldBoxes;
+        private int height;
+
+        /**
+         * @param region
+         * @param newChunks
+         * @param oldChunks
+         */
+        public RegionOverlay(long region, int[] newChunks, int[] oldChunks) {
+            this.region = region;
+            this.newChunks = newChunks;
+            this.oldChunks = oldChunks;
+        }
+
+        /**
+         * @param height
+         * @return The box of the region
+         */
+        public Box getBox(int height) {
+            update(height);
+            return box;
+        }
+
+        public Box[] getNewBoxes(int height) {
+            update(height);
+            return newBoxes;
+        }
+
+        public Box[] getOldBoxes(int height) {
+            update(height);
+            return oldBoxes;
+        }
+
+        private void update(int height) {
+            if (box != null && this.height == height) {
+                return;
+            }
+            this.height = height;
+            int x = ChunkRegionStore.toChunkX(region, 0) << 4;
+            int z = ChunkRegionStore.toChunkZ(region, 0) << 4;
+            box = new Box(x, height, z, x + 512, height, z + 512);
+            newBoxes = toBoxes(newChunks, height);
+            oldBoxes = toBoxes(oldChunks, height);
+        }
+
+        private Box[] toBoxes(int[] chunks, int height) {
+            Box[] boxes = new Box[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                int x = ChunkRegionStore.toChunkX(region, chunks[i]) << 4;
+                int z = ChunkRegionStore.toChunkZ(region, chunks[i]) << 4;
+                boxes[i] = new Box(x, height, z, x + 16, height, z + 16);
+            }
+            return boxes;
+        }
+    }
 }
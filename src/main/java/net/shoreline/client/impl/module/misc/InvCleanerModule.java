@@ -95,7 +95,7 @@ public class InvCleanerModule extends ToggleModule {
                     itemArray.add(item.getTranslationKey());
                 }
                 json.add("items", itemArray);
-                write(filepath, serialize(json));
+                writeJson(filepath, json);
             }
             // error writing file
             catch (IOException e) {
@@ -109,8 +109,7 @@ public class InvCleanerModule extends ToggleModule {
             try {
                 Path filepath = getFilepath();
                 if (Files.exists(filepath)) {
-                    String content = read(filepath);
-                    JsonObject object = parseObject(content);
+                    JsonObject object = readObject(filepath);
                     if (object != null && object.has("items")) {
                         JsonArray jsonArray = object.getAsJsonArray("items");
                         for (JsonElement element : jsonArray) {
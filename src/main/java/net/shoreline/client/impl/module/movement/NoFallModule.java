@@ -56,7 +56,7 @@ public class NoFallModule extends ToggleModule {
         }
     }
 
-    @EventListener
+    @EventListener(filter = PlayerMoveC2SPacket.class)
     public void onPacketOutbound(PacketEvent.Outbound event) {
         if (mc.player == null || !checkFalling()) {
             return;
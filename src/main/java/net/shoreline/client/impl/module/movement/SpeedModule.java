@@ -456,7 +456,7 @@ public class SpeedModule extends ToggleModule {
                 (float) (forward * speed * Math.cos(Math.toRadians(mc.player.getYaw())) - strafe * speed * -Math.sin(Math.toRadians(mc.player.getYaw()))));
     }
 
-    @EventListener
+    @EventListener(filter = {ExplosionS2CPacket.class, EntityVelocityUpdateS2CPacket.class, PlayerPositionLookS2CPacket.class})
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.player == null || mc.world == null) {
             return;
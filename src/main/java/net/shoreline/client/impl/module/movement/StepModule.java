@@ -105,7 +105,7 @@ public class StepModule extends ToggleModule {
         }
     }
 
-    @EventListener
+    @EventListener(filter = PlayerPositionLookS2CPacket.class)
     public void onPacketInbound(PacketEvent event) {
         if (event.getPacket() instanceof PlayerPositionLookS2CPacket) {
             disable();
@@ -75,7 +75,7 @@ public class VelocityModule extends ToggleModule {
         cancelVelocity = false;
     }
 
-    @EventListener
+    @EventListener(filter = {EntityVelocityUpdateS2CPacket.class, ExplosionS2CPacket.class, EntityStatusS2CPacket.class})
     public void onPacketInbound(PacketEvent.Inbound event) {
         if (mc.player == null || mc.world == null) {
             return;
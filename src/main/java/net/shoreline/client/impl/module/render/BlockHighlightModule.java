@@ -16,7 +16,8 @@ import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
 import net.shoreline.client.api.render.BoxRender;
-import net.shoreline.client.api.render.RenderManager;
+import net.shoreline.client.api.render.RenderBuffers;
+import net.shoreline.client.api.render.RetainedGeometry;
 import net.shoreline.client.impl.event.render.RenderBlockOutlineEvent;
 import net.shoreline.client.impl.event.render.RenderWorldEvent;
 import net.shoreline.client.init.Managers;
@@ -32,12 +33,19 @@ public class BlockHighlightModule extends ToggleModule {
 
     Config<BoxRender> boxModeConfig = new EnumConfig<>("BoxMode", "Box rendering mode", BoxRender.OUTLINE, BoxRender.values());
     Config<Boolean> entitiesConfig = new BooleanConfig("Debug-Entities", "Highlights entity bounding boxes for debug purposes", false);
+    // Target box, only uploaded when the target changes
+    private final RenderBuffers.Retained target = new RenderBuffers.Retained();
     private double distance;
 
     public BlockHighlightModule() {
         super("BlockHighlight", "Highlights the block the player is facing", ModuleCategory.RENDER);
     }
 
+    @Override
+    public void onDisable() {
+        target.close();
+    }
+
     @Override
     public String getModuleData() {
         DecimalFormat decimal = new DecimalFormat("0.0");
@@ -62,28 +70,25 @@ public class BlockHighlightModule extends ToggleModule {
                 BlockPos hpos = ((BlockHitResult) result).getBlockPos();
                 BlockState state = mc.world.getBlockState(hpos);
                 VoxelShape outlineShape = state.getOutlineShape(mc.world, hpos);
-                if (outlineShape.isEmpty()) {
-                    return;
+                if (!outlineShape.isEmpty()) {
+                    Box render1 = outlineShape.getBoundingBox();
+                    render = new Box(hpos.getX() + render1.minX, hpos.getY() + render1.minY,
+                            hpos.getZ() + render1.minZ, hpos.getX() + render1.maxX,
+                            hpos.getY() + render1.maxY, hpos.getZ() + render1.maxZ);
+                    distance = pos.distanceTo(hpos.toCenterPos());
                 }
-                Box render1 = outlineShape.getBoundingBox();
-                render = new Box(hpos.getX() + render1.minX, hpos.getY() + render1.minY,
-                        hpos.getZ() + render1.minZ, hpos.getX() + render1.maxX,
-                        hpos.getY() + render1.maxY, hpos.getZ() + render1.maxZ);
-                distance = pos.distanceTo(hpos.toCenterPos());
             }
         }
+        RetainedGeometry geometry = target.getGeometry();
         if (render != null) {
             switch (boxModeConfig.getValue()) {
-                case FILL -> {
-                    RenderManager.renderBox(event.getMatrices(), render,
-                            Modules.COLORS.getRGB(60));
-                    RenderManager.renderBoundingBox(event.getMatrices(),
-                            render, 2.5f, Modules.COLORS.getRGB(145));
-                }
-                case OUTLINE -> RenderManager.renderBoundingBox(event.getMatrices(),
-                        render, 2.5f, Modules.COLORS.getRGB(145));
+                case FILL -> geometry.putBox(this, render, Modules.COLORS.getRGB(60),
+                        Modules.COLORS.getRGB(145));
+                case OUTLINE -> geometry.putBox(this, render, 0, Modules.COLORS.getRGB(145));
             }
         }
+        geometry.removeUnused();
+        target.draw(event.getMatrices(), 2.5f);
     }
 
     @EventListener
@@ -13,7 +13,8 @@ import net.shoreline.client.api.config.setting.NumberConfig;
 import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
-import net.shoreline.client.api.render.RenderManager;
+import net.shoreline.client.api.render.RenderBuffers;
+import net.shoreline.client.api.render.RetainedGeometry;
 import net.shoreline.client.impl.event.render.RenderWorldEvent;
 import net.shoreline.client.init.Modules;
 import net.shoreline.client.mixin.accessor.AccessorWorldRenderer;
@@ -27,12 +28,19 @@ import java.awt.*;
 public class BreakHighlightModule extends ToggleModule {
 
     Config<Float> rangeConfig = new NumberConfig<>("Range", "The range to render breaking blocks", 5.0f, 20.0f, 50.0f);
+    // Breaking boxes, only uploaded when the breaking progress changes
+    private final RenderBuffers.Retained breaking = new RenderBuffers.Retained();
 
     public BreakHighlightModule() {
         super("BreakHighlight", "Highlights blocks that are being broken",
                 ModuleCategory.RENDER);
     }
 
+    @Override
+    public void onDisable() {
+        breaking.close();
+    }
+
     @EventListener
     public void onRenderWorld(RenderWorldEvent event) {
         if (mc.player == null || mc.world == null) {
@@ -40,6 +48,7 @@ public class BreakHighlightModule extends ToggleModule {
         }
         Int2ObjectMap<BlockBreakingInfo> blockBreakProgressions =
                 ((AccessorWorldRenderer) mc.worldRenderer).getBlockBreakingProgressions();
+        RetainedGeometry geometry = breaking.getGeometry();
         for (Int2ObjectMap.Entry<BlockBreakingInfo> info :
                 Int2ObjectMaps.fastIterable(blockBreakProgressions)) {
             BlockPos pos = info.getValue().getPos();
@@ -62,10 +71,11 @@ public class BreakHighlightModule extends ToggleModule {
             double sizeX = damage * ((bb.maxX - x) / 9.0);
             double sizeY = damage * ((bb.maxY - y) / 9.0);
             double sizeZ = damage * ((bb.maxZ - z) / 9.0);
-            RenderManager.renderBox(event.getMatrices(), new Box(x - sizeX,
-                            y - sizeY, z - sizeZ, x + sizeX, y + sizeY, z + sizeZ), Modules.COLORS.getRGB(60));
-            RenderManager.renderBoundingBox(event.getMatrices(), new Box(x - sizeX,
-                            y - sizeY, z - sizeZ, x + sizeX, y + sizeY, z + sizeZ), 1.5f, Modules.COLORS.getRGB(125));
+            geometry.putBox(info.getIntKey(), new Box(x - sizeX, y - sizeY, z - sizeZ,
+                            x + sizeX, y + sizeY, z + sizeZ), Modules.COLORS.getRGB(60),
+                    Modules.COLORS.getRGB(125));
         }
+        geometry.removeUnused();
+        breaking.draw(event.getMatrices(), 1.5f);
     }
 }
@@ -1,10 +1,14 @@
 package net.shoreline.client.impl.module.render;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import net.minecraft.block.entity.*;
+import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.ItemEntity;
 import net.minecraft.entity.decoration.EndCrystalEntity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
 import net.shoreline.client.api.config.Config;
 import net.shoreline.client.api.config.setting.BooleanConfig;
 import net.shoreline.client.api.config.setting.ColorConfig;
@@ -13,11 +17,16 @@ import net.shoreline.client.api.config.setting.NumberConfig;
 import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
+import net.shoreline.client.api.render.RenderManager;
 import net.shoreline.client.impl.event.EntityOutlineEvent;
 import net.shoreline.client.impl.event.entity.decoration.TeamColorEvent;
+import net.shoreline.client.impl.event.render.RenderWorldEvent;
+import net.shoreline.client.impl.manager.world.BlockEntityManager.IndexedBlockEntity;
+import net.shoreline.client.init.Managers;
 import net.shoreline.client.util.world.EntityUtil;
 
 import java.awt.*;
+import java.util.List;
 
 /**
  * @author linus
@@ -69,6 +78,63 @@ public class ESPModule extends ToggleModule {
         }
     }
 
+    @EventListener
+    public void onRenderWorld(RenderWorldEvent event) {
+        if (mc.player == null) {
+            return;
+        }
+        float width = ((NumberConfig<?>) widthConfig).getFloat();
+        if (chestsConfig.getValue()) {
+            renderStorage(event.getMatrices(), BlockEntityType.CHEST, chestsColorConfig, width);
+            renderStorage(event.getMatrices(), BlockEntityType.TRAPPED_CHEST, chestsColorConfig, width);
+        }
+        if (echestsConfig.getValue()) {
+            renderStorage(event.getMatrices(), BlockEntityType.ENDER_CHEST, echestsColorConfig, width);
+        }
+        if (shulkersConfig.getValue()) {
+            renderStorage(event.getMatrices(), BlockEntityType.SHULKER_BOX, shulkersColorConfig, width);
+        }
+        if (hoppersConfig.getValue()) {
+            renderStorage(event.getMatrices(), BlockEntityType.HOPPER, hoppersColorConfig, width);
+        }
+        if (furnacesConfig.getValue()) {
+            renderStorage(event.getMatrices(), BlockEntityType.FURNACE, furnacesColorConfig, width);
+        }
+    }
+
+    /**
+     * Renders the indexed block entities of the type. Chunks outside the
+     * view frustum are skipped without checking their block entities.
+     *
+     * @param matrices
+     * @param type
+     * @param colorConfig
+     * @param width
+     */
+    private void renderStorage(MatrixStack matrices, BlockEntityType<?> type,
+                               Config<Color> colorConfig, float width) {
+        Long2ObjectMap<List<IndexedBlockEntity>> chunks = Managers.BLOCK_ENTITY.getBlockEntities(type);
+        if (chunks.isEmpty()) {
+            return;
+        }
+        ColorConfig color = (ColorConfig) colorConfig;
+        int fill = color.getRgb(60);
+        int outline = color.getRgb(145);
+        int bottomY = mc.world.getBottomY();
+        int topY = mc.world.getTopY();
+        for (Long2ObjectMap.Entry<List<IndexedBlockEntity>> chunk : chunks.long2ObjectEntrySet()) {
+            int x = ChunkPos.getPackedX(chunk.getLongKey()) << 4;
+            int z = ChunkPos.getPackedZ(chunk.getLongKey()) << 4;
+            if (!RenderManager.isFrustumVisible(new Box(x, bottomY, z, x + 16, topY, z + 16))) {
+                continue;
+            }
+            for (IndexedBlockEntity blockEntity : chunk.getValue()) {
+                RenderManager.renderBox(matrices, blockEntity.box(), fill);
+                RenderManager.renderBoundingBox(matrices, blockEntity.box(), width, outline);
+            }
+        }
+    }
+
     public Color getStorageESPColor(BlockEntity tileEntity) {
         if (tileEntity instanceof ChestBlockEntity) {
             return chestsColorConfig.getValue();
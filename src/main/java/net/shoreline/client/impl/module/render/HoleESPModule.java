@@ -9,7 +9,9 @@ import net.shoreline.client.api.config.setting.NumberConfig;
 import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
+import net.shoreline.client.api.render.RenderBuffers;
 import net.shoreline.client.api.render.RenderManager;
+import net.shoreline.client.api.render.RetainedGeometry;
 import net.shoreline.client.impl.event.render.RenderWorldEvent;
 import net.shoreline.client.impl.manager.combat.hole.Hole;
 import net.shoreline.client.impl.manager.combat.hole.HoleType;
@@ -35,16 +37,32 @@ public class HoleESPModule extends ToggleModule {
     Config<Color> mixedConfig = new ColorConfig("Obsidian-BedrockColor", "The color for rendering mixed holes", new Color(255, 255, 0, 100), () -> obsidianBedrockConfig.getValue());
     Config<Color> bedrockConfig = new ColorConfig("BedrockColor", "The color for rendering bedrock holes", new Color(0, 255, 0, 100));
     Config<Color> voidColorConfig = new ColorConfig("VoidColor", "The color for rendering bedrock holes", new Color(255, 0, 0, 160), () -> voidConfig.getValue());
+    // Hole boxes, only uploaded when the holes or colors change. Faded
+    // holes change color with every player movement, so they are drawn with
+    // the immediate buffers instead.
+    private final RenderBuffers.Retained holes = new RenderBuffers.Retained();
 
     public HoleESPModule() {
         super("HoleESP", "Displays nearby blast resistant holes", ModuleCategory.RENDER);
     }
 
+    @Override
+    public void onDisable() {
+        holes.close();
+    }
+
     @EventListener
     public void onRenderWorld(RenderWorldEvent event) {
         if (mc.player == null) {
             return;
         }
+        double rangeSq = ((NumberConfig<?>) rangeConfig).getValueSq();
+        float height = ((NumberConfig<?>) heightConfig).getFloat();
+        boolean fade = fadeConfig.getValue();
+        if (fade) {
+            holes.close();
+        }
+        RetainedGeometry geometry = holes.getGeometry();
         for (Hole hole : Managers.HOLE.getHoles()) {
             if ((hole.isDoubleX() || hole.isDoubleZ()) && !doubleConfig.getValue()
                     || hole.isQuad() && !quadConfig.getValue()
@@ -54,7 +72,7 @@ public class HoleESPModule extends ToggleModule {
                 continue;
             }
             double dist = hole.squaredDistanceTo(mc.player);
-            if (dist > ((NumberConfig) rangeConfig).getValueSq()) {
+            if (dist > rangeSq) {
                 continue;
             }
             double x = hole.getX();
@@ -65,30 +83,37 @@ public class HoleESPModule extends ToggleModule {
                 render = new Box(x, y, z, x + 1.0, y + 1.0, z + 1.0);
             } else if (hole.isDoubleX()) {
                 render = new Box(x, y, z, x + 2.0,
-                        y + heightConfig.getValue(), z + 1.0);
+                        y + height, z + 1.0);
             } else if (hole.isDoubleZ()) {
                 render = new Box(x, y, z, x + 1.0,
-                        y + heightConfig.getValue(), z + 2.0);
+                        y + height, z + 2.0);
             } else if (hole.isQuad()) {
                 render = new Box(x, y, z, x + 2.0,
-                        y + heightConfig.getValue(), z + 2.0);
+                        y + height, z + 2.0);
             } else if (hole.isStandard()) {
                 render = new Box(x, y, z, x + 1.0,
-                        y + heightConfig.getValue(), z + 1.0);
+                        y + height, z + 1.0);
             }
             if (render == null) {
-                return;
+                continue;
             }
-            double alpha = 1.0;
-            if (fadeConfig.getValue()) {
-                double fadeRange = rangeConfig.getValue() - 1.0;
+            if (fade) {
+                double fadeRange = ((NumberConfig<?>) rangeConfig).getDouble() - 1.0;
                 double fadeRangeSq = fadeRange * fadeRange;
-                alpha = (fadeRangeSq + 9.0 - mc.player.squaredDistanceTo(hole.getX(),
+                double alpha = (fadeRangeSq + 9.0 - mc.player.squaredDistanceTo(hole.getX(),
                         hole.getY(), hole.getZ())) / fadeRangeSq;
                 alpha = MathHelper.clamp(alpha, 0.0, 1.0);
+                RenderManager.renderBox(event.getMatrices(), render, getHoleColor(hole.getSafety(), alpha));
+                RenderManager.renderBoundingBox(event.getMatrices(), render, 1.5f,
+                        getHoleColor(hole.getSafety(), (int) (alpha * 145.0f)));
+                continue;
             }
-            RenderManager.renderBox(event.getMatrices(), render, getHoleColor(hole.getSafety(), alpha));
-            RenderManager.renderBoundingBox(event.getMatrices(), render, 1.5f, getHoleColor(hole.getSafety(), (int) (alpha * 145.0f)));
+            geometry.putBox(hole.getPos(), render, getHoleColor(hole.getSafety(), 1.0),
+                    getHoleColor(hole.getSafety(), 145));
+        }
+        if (!fade) {
+            geometry.removeUnused();
+            holes.draw(event.getMatrices(), 1.5f);
         }
     }
 
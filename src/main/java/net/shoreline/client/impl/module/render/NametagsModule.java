@@ -1,6 +1,8 @@
 package net.shoreline.client.impl.module.render;
 
 import com.mojang.blaze3d.systems.RenderSystem;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.client.network.PlayerListEntry;
 import net.minecraft.client.render.*;
 import net.minecraft.client.render.model.BakedModel;
@@ -9,25 +11,27 @@ import net.minecraft.client.util.ModelIdentifier;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.EnchantmentHelper;
-import net.minecraft.entity.Entity;
+import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.EnchantedGoldenAppleItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.util.Colors;
 import net.minecraft.util.Formatting;
-import net.minecraft.util.math.RotationAxis;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.shoreline.client.api.config.Config;
 import net.shoreline.client.api.config.setting.BooleanConfig;
 import net.shoreline.client.api.config.setting.NumberConfig;
+import net.shoreline.client.api.event.EventStage;
 import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
+import net.shoreline.client.api.render.BatchedVertexConsumerProvider;
 import net.shoreline.client.api.render.Interpolation;
 import net.shoreline.client.api.render.RenderLayersClient;
 import net.shoreline.client.api.render.RenderManager;
+import net.shoreline.client.impl.event.config.ConfigUpdateEvent;
 import net.shoreline.client.impl.event.render.RenderWorldEvent;
 import net.shoreline.client.impl.event.render.entity.RenderLabelEvent;
 import net.shoreline.client.init.Fonts;
@@ -36,18 +40,22 @@ import net.shoreline.client.mixin.accessor.AccessorItemRenderer;
 import net.shoreline.client.util.render.ColorUtil;
 import net.shoreline.client.util.world.FakePlayerEntity;
 import org.joml.Matrix4f;
+import org.joml.Quaternionf;
 import org.lwjgl.opengl.GL11;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author linus
  * @since 1.0
  */
 public class NametagsModule extends ToggleModule {
+    //
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+    private static final Matrix4f ITEM_FLIP = new Matrix4f().scaling(1.0f, -1.0f, 0.0f);
     Config<Boolean> armorConfig = new BooleanConfig("Armor", "Displays the player's armor", true);
     Config<Boolean> enchantmentsConfig = new BooleanConfig("Enchantments", "Displays a list of the item's enchantments", true);
     Config<Boolean> durabilityConfig = new BooleanConfig("Durability", "Displays item durability", true);
@@ -61,50 +69,76 @@ public class NametagsModule extends ToggleModule {
     Config<Boolean> invisiblesConfig = new BooleanConfig("Invisibles", "Renders nametags on invisible players", true);
     Config<Boolean> borderedConfig = new BooleanConfig("TextBorder", "Renders a border behind the nametag", true);
 
+    // Nametag layouts by entity id
+    private final Int2ObjectMap<NametagLayout> layouts = new Int2ObjectOpenHashMap<>();
+    // Nametags rendered this frame
+    private final List<NametagLayout> visible = new ArrayList<>();
+    // Batched background, item and text vertices of a nametag
+    private final BatchedVertexConsumerProvider backgroundConsumers = new BatchedVertexConsumerProvider();
+    private final BatchedVertexConsumerProvider itemConsumers = new BatchedVertexConsumerProvider();
+    private final BatchedVertexConsumerProvider textConsumers = new BatchedVertexConsumerProvider();
+    private final Quaternionf rotation = new Quaternionf();
+    private long frame;
+
     public NametagsModule() {
         super("Nametags", "Renders info on player nametags", ModuleCategory.RENDER);
     }
 
     @EventListener
     public void onRenderWorld(RenderWorldEvent event) {
+        visible.clear();
         if (mc.gameRenderer == null || mc.getCameraEntity() == null) {
             return;
         }
-
+        frame++;
         Vec3d interpolate = Interpolation.getRenderPosition(mc.getCameraEntity(), mc.getTickDelta());
         Camera camera = mc.gameRenderer.getCamera();
         Vec3d pos = camera.getPos();
 
-        for (Entity entity : mc.world.getEntities()) {
-            if (entity instanceof PlayerEntity player) {
-                if (!player.isAlive() || player == mc.player || !invisiblesConfig.getValue() && player.isInvisible()) {
-                    continue;
-                }
-                String info = getNametagInfo(player);
-                Vec3d pinterpolate = Interpolation.getRenderPosition(player, mc.getTickDelta());
-                double rx = player.getX() - pinterpolate.getX();
-                double ry = player.getY() - pinterpolate.getY();
-                double rz = player.getZ() - pinterpolate.getZ();
-                int width = RenderManager.textWidth(info);
-                float hwidth = width / 2.0f;
-                double dx = (pos.getX() - interpolate.getX()) - rx;
-                double dy = (pos.getY() - interpolate.getY()) - ry;
-                double dz = (pos.getZ() - interpolate.getZ()) - rz;
-                double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
-                if (dist > 4096.0) {
-                    continue;
-                }
-                float scaling = 0.0018f + scalingConfig.getValue() * (float) dist;
-                if (dist <= 8.0) {
-                    scaling = 0.0245f;
-                }
-                renderInfo(info, hwidth, player, rx, ry, rz, camera, scaling);
+        for (PlayerEntity player : Managers.WORLD.getSnapshot().getPlayers()) {
+            if (!player.isAlive() || player == mc.player || !invisiblesConfig.getValue() && player.isInvisible()) {
+                continue;
+            }
+            Vec3d pinterpolate = Interpolation.getRenderPosition(player, mc.getTickDelta());
+            double rx = player.getX() - pinterpolate.getX();
+            double ry = player.getY() - pinterpolate.getY();
+            double rz = player.getZ() - pinterpolate.getZ();
+            double dx = (pos.getX() - interpolate.getX()) - rx;
+            double dy = (pos.getY() - interpolate.getY()) - ry;
+            double dz = (pos.getZ() - interpolate.getZ()) - rz;
+            double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (dist > 4096.0) {
+                continue;
             }
+            float scaling = 0.0018f + ((NumberConfig<?>) scalingConfig).getFloat() * (float) dist;
+            if (dist <= 8.0) {
+                scaling = 0.0245f;
+            }
+            NametagLayout layout = getLayout(player);
+            layout.frame = frame;
+            layout.color = getNametagColor(player);
+            layout.dist = dist;
+            setTransform(layout.matrices, player, rx, ry, rz, camera, scaling);
+            visible.add(layout);
+        }
+        // nametags are drawn without depth, so nearer nametags must be
+        // drawn over farther nametags
+        visible.sort((l1, l2) -> Double.compare(l2.dist, l1.dist));
+        // players which are no longer rendered
+        layouts.values().removeIf(layout -> layout.frame != frame);
+        if (!visible.isEmpty()) {
+            RenderManager.post(this::renderNametags);
         }
-
         RenderSystem.enableBlend();
     }
 
+    @EventListener
+    public void onConfigUpdate(ConfigUpdateEvent event) {
+        if (event.getStage() == EventStage.POST && event.getConfig().getContainer() == this) {
+            layouts.clear();
+        }
+    }
+
     @EventListener
     public void onRenderLabel(RenderLabelEvent event) {
         if (event.getEntity() instanceof PlayerEntity && event.getEntity() != mc.player) {
@@ -112,98 +146,89 @@ public class NametagsModule extends ToggleModule {
         }
     }
 
-    private void renderInfo(String info, float width, PlayerEntity entity,
-                            double x, double y, double z, Camera camera, float scaling) {
+    private void setTransform(MatrixStack matrices, PlayerEntity entity, double x, double y, double z,
+                              Camera camera, float scaling) {
         final Vec3d pos = camera.getPos();
-        MatrixStack matrices = new MatrixStack();
-        matrices.multiply(RotationAxis.POSITIVE_X.rotationDegrees(camera.getPitch()));
-        matrices.multiply(RotationAxis.POSITIVE_Y.rotationDegrees(camera.getYaw() + 180.0f));
+        float pitch = (float) Math.toRadians(camera.getPitch());
+        float yaw = (float) Math.toRadians(camera.getYaw());
+        matrices.loadIdentity();
+        matrices.multiply(rotation.rotationX(pitch));
+        matrices.multiply(rotation.rotationY(yaw + (float) Math.PI));
         matrices.translate(x - pos.getX(),
                 y + (double) entity.getHeight() + (entity.isSneaking() ? 0.4f : 0.43f) - pos.getY(),
                 z - pos.getZ());
-        matrices.multiply(RotationAxis.POSITIVE_Y.rotationDegrees(-camera.getYaw()));
-        matrices.multiply(RotationAxis.POSITIVE_X.rotationDegrees(camera.getPitch()));
+        matrices.multiply(rotation.rotationY(-yaw));
+        matrices.multiply(rotation.rotationX(pitch));
         matrices.scale(-scaling, -scaling, -1.0f);
-        if (borderedConfig.getValue()) {
-            RenderManager.rect(matrices, -width - 1.0f, -1.0f, width * 2.0f + 2.0f,
-                    mc.textRenderer.fontHeight + 1.0f, 0.0, 0x55000400);
-        }
-        int color = getNametagColor(entity);
-        RenderManager.post(() -> {
-            RenderSystem.enableBlend();
-            RenderSystem.defaultBlendFunc();
-            GL11.glDepthFunc(GL11.GL_ALWAYS);
-
-            Fonts.VANILLA.drawWithShadow(matrices, info, -width, 0.0f, color);
-            if (armorConfig.getValue()) {
-                renderItems(matrices, entity);
-            }
-
-            GL11.glDepthFunc(GL11.GL_LEQUAL);
-            RenderSystem.disableBlend();
-        });
     }
 
-    private void renderItems(MatrixStack matrixStack, PlayerEntity player) {
-        List<ItemStack> displayItems = new CopyOnWriteArrayList<>();
-        if (!player.getOffHandStack().isEmpty()) {
-            displayItems.add(player.getOffHandStack());
-        }
-        player.getInventory().armor.forEach(armorStack ->
-        {
-            if (!armorStack.isEmpty()) {
-                displayItems.add(armorStack);
+    /**
+     * Draws the visible nametags from far to near, with one flush of the
+     * background, items and text of each nametag
+     */
+    private void renderNametags() {
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        GL11.glDepthFunc(GL11.GL_ALWAYS);
+        DiffuseLighting.disableGuiDepthLighting();
+        for (NametagLayout layout : visible) {
+            if (borderedConfig.getValue()) {
+                rect(layout.matrices, -layout.width - 1.0f, -1.0f, layout.width * 2.0f + 2.0f,
+                        mc.textRenderer.fontHeight + 1.0f, 0x55000400, backgroundConsumers,
+                        RenderLayer.getGuiOverlay());
             }
-        });
-        if (!player.getMainHandStack().isEmpty()) {
-            displayItems.add(player.getMainHandStack());
-        }
-        Collections.reverse(displayItems);
-        float n10 = 0;
-        int n11 = 0;
-        for (ItemStack stack : displayItems) {
-            n10 -= 8;
-            if (stack.getEnchantments().size() > n11) {
-                n11 = stack.getEnchantments().size();
+            Fonts.VANILLA.drawWithShadow(layout.matrices, layout.info, -layout.width, 0.0f,
+                    layout.color, textConsumers);
+            if (layout.items != null) {
+                renderItems(layout);
             }
+            backgroundConsumers.draw();
+            itemConsumers.draw();
+            // text and item bars are drawn over the items
+            textConsumers.draw();
         }
-        float m2 = enchantOffset(n11);
-        for (ItemStack stack : displayItems) {
-            // mc.getBufferBuilders().getEntityVertexConsumers().draw();
+        DiffuseLighting.enableGuiDepthLighting();
+        GL11.glDepthFunc(GL11.GL_LEQUAL);
+        RenderSystem.disableBlend();
+    }
+
+    private void renderItems(NametagLayout layout) {
+        MatrixStack matrixStack = layout.matrices;
+        float n10 = layout.itemsX;
+        float m2 = layout.itemsY;
+        for (int i = 0; i < layout.items.length; i++) {
+            ItemStack stack = layout.items[i];
             matrixStack.push();
             matrixStack.translate(n10, m2, 0.0f);
             matrixStack.translate(8.0f, 8.0f, 0.0f);
             matrixStack.scale(16.0f, 16.0f, 0.0f);
-            matrixStack.multiplyPositionMatrix(new Matrix4f().scaling(1.0f, -1.0f, 0.0f));
-            DiffuseLighting.disableGuiDepthLighting();
+            matrixStack.multiplyPositionMatrix(ITEM_FLIP);
             renderItem(stack, ModelTransformationMode.GUI, 0xff0000, OverlayTexture.DEFAULT_UV,
-                    matrixStack, mc.getBufferBuilders().getEntityVertexConsumers(), mc.world, 0);
-            mc.getBufferBuilders().getEntityVertexConsumers().draw();
-            DiffuseLighting.enableGuiDepthLighting();
+                    matrixStack, itemConsumers, mc.world, 0);
             matrixStack.pop();
-            renderItemOverlay(matrixStack, stack, (int) n10, (int) m2);
-            // int n4 = (n11 > 4) ? ((n11 - 4) * 8 / 2) : 0;
-            // mc.getItemRenderer().renderInGui(matrixStack, mc.textRenderer, stack, n10, m2);
+            renderItemOverlay(matrixStack, layout, i, (int) n10, (int) m2);
+            matrixStack.push();
             matrixStack.scale(0.5f, 0.5f, 0.5f);
-            if (durabilityConfig.getValue()) {
-                renderDurability(matrixStack, stack, n10 + 2.0f, m2 - 4.5f);
+            if (layout.durabilities[i] != null) {
+                Fonts.VANILLA.drawWithShadow(matrixStack, layout.durabilities[i], (n10 + 2.0f) * 2,
+                        (m2 - 4.5f) * 2, layout.durabilityColors[i], textConsumers);
             }
-            if (enchantmentsConfig.getValue()) {
-                renderEnchants(matrixStack, stack, n10 + 2.0f, m2);
+            float n2 = 0;
+            for (String enchant : layout.enchants[i]) {
+                Fonts.VANILLA.drawWithShadow(matrixStack, enchant, (n10 + 2.0f) * 2, (m2 + n2) * 2,
+                        layout.enchantColors[i], textConsumers);
+                n2 += 4.5f;
             }
-            matrixStack.scale(2.0f, 2.0f, 2.0f);
+            matrixStack.pop();
             n10 += 16;
         }
-        //
-        ItemStack heldItem = player.getMainHandStack();
-        if (heldItem.isEmpty()) {
-            return;
-        }
-        matrixStack.scale(0.5f, 0.5f, 0.5f);
-        if (itemNameConfig.getValue()) {
-            renderItemName(matrixStack, heldItem, 0, durabilityConfig.getValue() ? m2 - 9.0f : m2 - 4.5f);
+        if (layout.itemName != null) {
+            matrixStack.push();
+            matrixStack.scale(0.5f, 0.5f, 0.5f);
+            Fonts.VANILLA.drawWithShadow(matrixStack, layout.itemName, layout.itemNameX * 2,
+                    layout.itemNameY * 2, -1, textConsumers);
+            matrixStack.pop();
         }
-        matrixStack.scale(2.0f, 2.0f, 2.0f);
     }
 
     private void renderItem(ItemStack stack, ModelTransformationMode renderMode, int light, int overlay, MatrixStack matrices,
@@ -239,47 +264,46 @@ public class NametagsModule extends ToggleModule {
         return vertexConsumers.getBuffer(layer);
     }
 
-    private void renderItemOverlay(MatrixStack matrixStack, ItemStack stack, int x, int y) {
-        matrixStack.push();
-        if (stack.getCount() != 1) {
-            String string = String.valueOf(stack.getCount());
-            // this.matrices.translate(0.0f, 0.0f, 200.0f);
-            Fonts.VANILLA.drawWithShadow(matrixStack, string, x + 17 - mc.textRenderer.getWidth(string), y + 9.0f, -1);
-        }
-        if (stack.isItemBarVisible())
-        {
-            int i = stack.getItemBarStep();
-            int j = stack.getItemBarColor();
+    private void renderItemOverlay(MatrixStack matrixStack, NametagLayout layout, int i, int x, int y) {
+        if (layout.counts[i] != null) {
+            Fonts.VANILLA.drawWithShadow(matrixStack, layout.counts[i],
+                    x + 17 - mc.textRenderer.getWidth(layout.counts[i]), y + 9.0f, -1, textConsumers);
+        }
+        if (layout.barSteps[i] >= 0) {
             int k = x + 2;
             int l = y + 13;
-            RenderManager.rect(matrixStack, k, l, 13, 1, Colors.BLACK);
-            RenderManager.rect(matrixStack, k, l, i, 1, j | Colors.BLACK);
+            rect(matrixStack, k, l, 13, 1, Colors.BLACK, textConsumers, RenderLayer.getGui());
+            rect(matrixStack, k, l, layout.barSteps[i], 1, layout.barColors[i] | Colors.BLACK,
+                    textConsumers, RenderLayer.getGui());
         }
-        matrixStack.pop();
     }
 
-    private void renderDurability(MatrixStack matrixStack, ItemStack itemStack, float x, float y) {
-        if (!itemStack.isDamageable()) {
-            return;
-        }
-        int n = itemStack.getMaxDamage();
-        int n2 = itemStack.getDamage();
-        int durability = (int) ((n - n2) / ((float) n) * 100.0f);
-        Fonts.VANILLA.drawWithShadow(matrixStack, durability + "%", x * 2, y * 2,
-                ColorUtil.hslToColor((float) (n - n2) / (float) n * 120.0f, 100.0f, 50.0f, 1.0f).getRGB());
+    /**
+     * Same as {@link RenderManager#rect(MatrixStack, double, double, double, double, int)}
+     * but drawn with a batched nametag provider
+     */
+    private void rect(MatrixStack matrixStack, float x, float y, float width, float height, int color,
+                      VertexConsumerProvider vertexConsumers, RenderLayer layer) {
+        Matrix4f matrix4f = matrixStack.peek().getPositionMatrix();
+        VertexConsumer vertexConsumer = vertexConsumers.getBuffer(layer);
+        float x1 = x + width;
+        float y1 = y + height;
+        vertexConsumer.vertex(matrix4f, x1, y1, 0.0f).color(color).next();
+        vertexConsumer.vertex(matrix4f, x1, y, 0.0f).color(color).next();
+        vertexConsumer.vertex(matrix4f, x, y, 0.0f).color(color).next();
+        vertexConsumer.vertex(matrix4f, x, y1, 0.0f).color(color).next();
     }
 
-    private void renderEnchants(MatrixStack matrixStack, ItemStack itemStack, float x, float y) {
+    private String[] getEnchants(ItemStack itemStack) {
         if (itemStack.getItem() instanceof EnchantedGoldenAppleItem) {
-            Fonts.VANILLA.drawWithShadow(matrixStack, "God", x * 2, y * 2, 0xffc34e41);
-            return;
+            return new String[] {"God"};
         }
         if (!itemStack.hasEnchantments()) {
-            return;
+            return new String[0];
         }
         Map<Enchantment, Integer> enchants = EnchantmentHelper.get(itemStack);
-
-        float n2 = 0;
+        String[] enchantStrings = new String[enchants.size()];
+        int i = 0;
         for (Enchantment enchantment : enchants.keySet()) {
             int lvl = enchants.get(enchantment);
             StringBuilder enchantString = new StringBuilder();
@@ -296,9 +320,9 @@ public class NametagsModule extends ToggleModule {
                 enchantString.append(translatedName);
                 enchantString.append(lvl);
             }
-            Fonts.VANILLA.drawWithShadow(matrixStack, enchantString.toString(), x * 2, (y + n2) * 2, -1);
-            n2 += 4.5f;
+            enchantStrings[i++] = enchantString.toString();
         }
+        return enchantStrings;
     }
 
     private float enchantOffset(final int n) {
@@ -310,10 +334,97 @@ public class NametagsModule extends ToggleModule {
         return n2;
     }
 
-    private void renderItemName(MatrixStack matrixStack, ItemStack itemStack, float x, float y) {
-        String itemName = itemStack.getName().getString();
-        float width = mc.textRenderer.getWidth(itemName) / 4.0f;
-        Fonts.VANILLA.drawWithShadow(matrixStack, itemName, (x - width) * 2, y * 2, -1);
+    /**
+     * @param player
+     * @return The cached layout of the player nametag, rebuilt if any of the
+     * displayed values changed
+     */
+    private NametagLayout getLayout(PlayerEntity player) {
+        NametagLayout layout = layouts.get(player.getId());
+        if (layout == null) {
+            layout = new NametagLayout();
+            layouts.put(player.getId(), layout);
+        }
+        if (layout.update(player, getLatency(player), getTotems(player))) {
+            buildLayout(player, layout);
+        }
+        return layout;
+    }
+
+    private void buildLayout(PlayerEntity player, NametagLayout layout) {
+        layout.info = getNametagInfo(player);
+        layout.width = RenderManager.textWidth(layout.info) / 2.0f;
+        layout.items = null;
+        layout.itemName = null;
+        if (!armorConfig.getValue()) {
+            return;
+        }
+        List<ItemStack> displayItems = new ArrayList<>();
+        if (!player.getOffHandStack().isEmpty()) {
+            displayItems.add(player.getOffHandStack());
+        }
+        for (ItemStack armorStack : player.getInventory().armor) {
+            if (!armorStack.isEmpty()) {
+                displayItems.add(armorStack);
+            }
+        }
+        if (!player.getMainHandStack().isEmpty()) {
+            displayItems.add(player.getMainHandStack());
+        }
+        Collections.reverse(displayItems);
+        int size = displayItems.size();
+        layout.items = displayItems.toArray(new ItemStack[0]);
+        layout.counts = new String[size];
+        layout.barSteps = new int[size];
+        layout.barColors = new int[size];
+        layout.durabilities = new String[size];
+        layout.durabilityColors = new int[size];
+        layout.enchants = new String[size][];
+        layout.enchantColors = new int[size];
+        float n10 = 0;
+        int n11 = 0;
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = layout.items[i];
+            n10 -= 8;
+            if (stack.getEnchantments().size() > n11) {
+                n11 = stack.getEnchantments().size();
+            }
+            if (stack.getCount() != 1) {
+                layout.counts[i] = String.valueOf(stack.getCount());
+            }
+            layout.barSteps[i] = stack.isItemBarVisible() ? stack.getItemBarStep() : -1;
+            layout.barColors[i] = stack.getItemBarColor();
+            if (durabilityConfig.getValue() && stack.isDamageable()) {
+                int n = stack.getMaxDamage();
+                int n2 = stack.getDamage();
+                int durability = (int) ((n - n2) / ((float) n) * 100.0f);
+                layout.durabilities[i] = durability + "%";
+                layout.durabilityColors[i] = ColorUtil.hslToColor((float) (n - n2) / (float) n * 120.0f,
+                        100.0f, 50.0f, 1.0f).getRGB();
+            }
+            layout.enchants[i] = enchantmentsConfig.getValue() ? getEnchants(stack) : new String[0];
+            layout.enchantColors[i] = stack.getItem() instanceof EnchantedGoldenAppleItem ? 0xffc34e41 : -1;
+        }
+        layout.itemsX = n10;
+        layout.itemsY = enchantOffset(n11);
+        ItemStack heldItem = player.getMainHandStack();
+        if (itemNameConfig.getValue() && !heldItem.isEmpty()) {
+            layout.itemName = heldItem.getName().getString();
+            layout.itemNameX = -mc.textRenderer.getWidth(layout.itemName) / 4.0f;
+            layout.itemNameY = durabilityConfig.getValue() ? layout.itemsY - 9.0f : layout.itemsY - 4.5f;
+        }
+    }
+
+    private int getLatency(PlayerEntity player) {
+        if (mc.getNetworkHandler() == null) {
+            return -1;
+        }
+        PlayerListEntry playerEntry = mc.getNetworkHandler().getPlayerListEntry(player.getGameProfile().getId());
+        return playerEntry != null ? playerEntry.getLatency() : -1;
+    }
+
+    private int getTotems(PlayerEntity player) {
+        return totemsConfig.getValue() ? Managers.TOTEM.getTotems(player) : 0;
     }
 
     private String getNametagInfo(PlayerEntity player) {
@@ -333,10 +444,10 @@ public class NametagsModule extends ToggleModule {
                 info.append("[S] ");
             }
         }
-        if (pingConfig.getValue() && mc.getNetworkHandler() != null) {
-            PlayerListEntry playerEntry = mc.getNetworkHandler().getPlayerListEntry(player.getGameProfile().getId());
-            if (playerEntry != null) {
-                info.append(playerEntry.getLatency());
+        if (pingConfig.getValue()) {
+            int latency = getLatency(player);
+            if (latency != -1) {
+                info.append(latency);
                 info.append("ms ");
             }
         }
@@ -411,4 +522,73 @@ public class NametagsModule extends ToggleModule {
     public float getScaling() {
         return scalingConfig.getValue();
     }
+
+    /**
+     * Cached text and items of a player nametag. Only rebuilt when one of
+     * the displayed values changes.
+     */
+    private static class NametagLayout {
+        // Values the layout was built from
+        private final ItemStack[] equipment = new ItemStack[SLOTS.length];
+        private final int[] damage = new int[SLOTS.length];
+        private final int[] count = new int[SLOTS.length];
+        private String name;
+        private int latency;
+        private int health;
+        private int totems;
+        private int gamemode;
+        private boolean built;
+        //
+        private String info;
+        private float width;
+        private ItemStack[] items;
+        private String[] counts;
+        private int[] barSteps;
+        private int[] barColors;
+        private String[] durabilities;
+        private int[] durabilityColors;
+        private String[][] enchants;
+        private int[] enchantColors;
+        private float itemsX, itemsY;
+        private String itemName;
+        private float itemNameX, itemNameY;
+        // Render state of the current frame
+        private final MatrixStack matrices = new MatrixStack();
+        private int color;
+        private double dist;
+        private long frame;
+
+        /**
+         * @param player
+         * @param latency
+         * @param totems
+         * @return <tt>true</tt> if the layout must be rebuilt
+         */
+        private boolean update(PlayerEntity player, int latency, int totems) {
+            boolean dirty = !built;
+            int health = (int) Math.ceil(player.getHealth() + player.getAbsorptionAmount());
+            int gamemode = player.isCreative() ? 1 : player.isSpectator() ? 2 : 0;
+            String name = player.getGameProfile().getName();
+            if (this.latency != latency || this.health != health || this.totems != totems
+                    || this.gamemode != gamemode || !name.equals(this.name)) {
+                this.latency = latency;
+                this.health = health;
+                this.totems = totems;
+                this.gamemode = gamemode;
+                this.name = name;
+                dirty = true;
+            }
+            for (int i = 0; i < SLOTS.length; i++) {
+                ItemStack stack = player.getEquippedStack(SLOTS[i]);
+                if (equipment[i] != stack || damage[i] != stack.getDamage() || count[i] != stack.getCount()) {
+                    equipment[i] = stack;
+                    damage[i] = stack.getDamage();
+                    count[i] = stack.getCount();
+                    dirty = true;
+                }
+            }
+            built = true;
+            return dirty;
+        }
+    }
 }
@@ -209,6 +209,11 @@ public class NoRenderModule extends ToggleModule {
 
     @EventListener
     public void onParticle(ParticleEvent event) {
+        // emitters are routed to ParticleEvent listeners as well, only
+        // filter the particles themselves
+        if (event instanceof ParticleEvent.Emitter) {
+            return;
+        }
         if (explosionsConfig.getValue() && (event.getParticleType() == ParticleTypes.EXPLOSION
                 || event.getParticleType() == ParticleTypes.EXPLOSION_EMITTER)
                 || fireworksConfig.getValue() && event.getParticleType() == ParticleTypes.FIREWORK
@@ -33,6 +33,11 @@ public class ParticlesModule extends ToggleModule {
 
     @EventListener
     public void onParticle(ParticleEvent event) {
+        // emitters are routed to ParticleEvent listeners as well, only
+        // filter the particles themselves
+        if (event instanceof ParticleEvent.Emitter) {
+            return;
+        }
         if (potionConfig.getValue() && event.getParticleType() == ParticleTypes.ENTITY_EFFECT
                 || fireworkConfig.getValue() && event.getParticleType() == ParticleTypes.FIREWORK
                 || bottleConfig.getValue() && (event.getParticleType() == ParticleTypes.EFFECT || event.getParticleType() == ParticleTypes.INSTANT_EFFECT)
@@ -1,15 +1,143 @@
 package net.shoreline.client.impl.module.render;
 
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.ShulkerBoxBlock;
+import net.shoreline.client.api.config.Config;
+import net.shoreline.client.api.config.setting.BooleanConfig;
+import net.shoreline.client.api.config.setting.ColorConfig;
+import net.shoreline.client.api.config.setting.NumberConfig;
+import net.shoreline.client.api.event.EventStage;
+import net.shoreline.client.api.event.listener.EventListener;
 import net.shoreline.client.api.module.ModuleCategory;
 import net.shoreline.client.api.module.ToggleModule;
+import net.shoreline.client.api.render.RenderManager;
+import net.shoreline.client.impl.event.config.ConfigUpdateEvent;
+import net.shoreline.client.impl.event.render.RenderWorldEvent;
+import net.shoreline.client.util.world.BlockSearchEngine;
+
+import java.awt.*;
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
+ * Highlights the target blocks found by a {@link BlockSearchEngine}. The
+ * search runs on the engine worker so rendering only reads the published
+ * results.
+ *
  * @author linus
  * @since 1.0
  */
 public class SearchModule extends ToggleModule {
+    //
+    Config<Integer> rangeConfig = new NumberConfig<>("Range", "The chunk radius to search for blocks", 1, 16, 32);
+    Config<Float> widthConfig = new NumberConfig<>("Linewidth", "The line width of the block outlines", 0.1f, 1.25f, 5.0f);
+    Config<Boolean> spawnersConfig = new BooleanConfig("Spawners", "Highlights mob spawners", true);
+    Config<Color> spawnersColorConfig = new ColorConfig("SpawnersColor", "The render color for spawners", new Color(200, 60, 60), false, () -> spawnersConfig.getValue());
+    Config<Boolean> portalsConfig = new BooleanConfig("Portals", "Highlights nether and end portals", true);
+    Config<Color> portalsColorConfig = new ColorConfig("PortalsColor", "The render color for portals", new Color(155, 0, 200), false, () -> portalsConfig.getValue());
+    Config<Boolean> shulkersConfig = new BooleanConfig("Shulkers", "Highlights placed shulker boxes", true);
+    Config<Color> shulkersColorConfig = new ColorConfig("ShulkersColor", "The render color for shulkers", new Color(200, 0, 106), false, () -> shulkersConfig.getValue());
+    //
+    private final BlockSearchEngine engine = new BlockSearchEngine();
+    private Predicate<BlockState> targets;
 
+    /**
+     *
+     */
     public SearchModule() {
         super("Search", "Highlights specified blocks in the world", ModuleCategory.RENDER);
     }
+
+    @Override
+    public void onEnable() {
+        targets = getTargets();
+        engine.search(targets, rangeConfig.getValue());
+    }
+
+    @Override
+    public void onDisable() {
+        engine.stop();
+    }
+
+    @EventListener
+    public void onConfigUpdate(ConfigUpdateEvent event) {
+        if (event.getStage() != EventStage.POST || event.getConfig().getContainer() != this
+                || !isEnabled()) {
+            return;
+        }
+        // colors only change the rendering, the range keeps found blocks
+        if (event.getConfig() == spawnersConfig || event.getConfig() == portalsConfig
+                || event.getConfig() == shulkersConfig) {
+            targets = getTargets();
+            engine.search(targets, rangeConfig.getValue());
+        } else if (event.getConfig() == rangeConfig) {
+            engine.search(targets, rangeConfig.getValue());
+        }
+    }
+
+    @EventListener
+    public void onRenderWorld(RenderWorldEvent event) {
+        List<BlockSearchEngine.Result> results = engine.getResults();
+        if (results.isEmpty()) {
+            return;
+        }
+        float width = widthConfig.getValue();
+        for (BlockSearchEngine.Result result : results) {
+            if (!RenderManager.isFrustumVisible(result.box())) {
+                continue;
+            }
+            ColorConfig color = getColorConfig(result.state().getBlock());
+            if (color == null) {
+                continue;
+            }
+            RenderManager.renderBox(event.getMatrices(), result.box(), color.getRgb(60));
+            RenderManager.renderBoundingBox(event.getMatrices(), result.box(), width, color.getRgb(145));
+        }
+    }
+
+    /**
+     * Creates the predicate of the enabled targets. The engine searches all
+     * chunks again when it is given a new predicate.
+     *
+     * @return
+     */
+    private Predicate<BlockState> getTargets() {
+        final boolean spawners = spawnersConfig.getValue();
+        final boolean portals = portalsConfig.getValue();
+        final boolean shulkers = shulkersConfig.getValue();
+        return state -> {
+            Block block = state.getBlock();
+            return spawners && block == Blocks.SPAWNER
+                    || portals && isPortal(block)
+                    || shulkers && block instanceof ShulkerBoxBlock;
+        };
+    }
+
+    /**
+     * @param block
+     * @return The color config of the target block
+     */
+    private ColorConfig getColorConfig(Block block) {
+        if (block == Blocks.SPAWNER) {
+            return (ColorConfig) spawnersColorConfig;
+        }
+        if (isPortal(block)) {
+            return (ColorConfig) portalsColorConfig;
+        }
+        if (block instanceof ShulkerBoxBlock) {
+            return (ColorConfig) shulkersColorConfig;
+        }
+        return null;
+    }
+
+    /**
+     * @param block
+     * @return
+     */
+    private boolean isPortal(Block block) {
+        return block == Blocks.NETHER_PORTAL || block == Blocks.END_PORTAL
+                || block == Blocks.END_PORTAL_FRAME || block == Blocks.END_GATEWAY;
+    }
 }
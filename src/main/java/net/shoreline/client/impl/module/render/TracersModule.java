@@ -59,8 +59,8 @@ public class TracersModule extends ToggleModule {
                 .rotateX(-(float) Math.toRadians(cameraPos.getPitch()))
                 .rotateY(-(float) Math.toRadians(cameraPos.getYaw()))
                 .add(mc.cameraEntity.getEyePos());
-        for (Entity entity : mc.world.getEntities()) {
-            if (entity == null || !entity.isAlive() || entity == mc.player) {
+        for (Entity entity : Managers.WORLD.getSnapshot().getEntities()) {
+            if (!entity.isAlive() || entity == mc.player) {
                 continue;
             }
             Color color = getTracerColor(entity);
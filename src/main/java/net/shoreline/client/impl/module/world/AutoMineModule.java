@@ -272,7 +272,9 @@ public class AutoMineModule extends RotationModule {
 
     private List<BlockPos> getAutoMineTarget() {
         List<BlockPos> mineTargets = new ArrayList<>();
-        for (PlayerEntity player : mc.world.getPlayers()) {
+        // snapshot positions are from capture, the exact range is checked below
+        for (PlayerEntity player : Managers.WORLD.getSnapshot().getEntitiesInRange(PlayerEntity.class,
+                mc.player.getPos(), enemyRangeConfig.getValue() + 4.0)) {
             if (player == mc.player || player.getDisplayName() != null && Managers.SOCIAL.isFriend(player.getDisplayName())) {
                 continue;
             }
@@ -5,6 +5,8 @@ import net.shoreline.client.impl.manager.ModuleManager;
 import net.shoreline.client.impl.manager.anticheat.GrimManager;
 import net.shoreline.client.impl.manager.anticheat.NCPManager;
 import net.shoreline.client.impl.manager.client.*;
+import net.shoreline.client.impl.manager.combat.ArmorProfileManager;
+import net.shoreline.client.impl.manager.combat.DamageCacheManager;
 import net.shoreline.client.impl.manager.combat.TotemManager;
 import net.shoreline.client.impl.manager.combat.hole.HoleManager;
 import net.shoreline.client.impl.manager.network.NetworkManager;
@@ -13,7 +15,9 @@ import net.shoreline.client.impl.manager.player.MovementManager;
 import net.shoreline.client.impl.manager.player.PositionManager;
 import net.shoreline.client.impl.manager.player.interaction.InteractionManager;
 import net.shoreline.client.impl.manager.player.rotation.RotationManager;
+import net.shoreline.client.impl.manager.world.BlockEntityManager;
 import net.shoreline.client.impl.manager.world.WaypointManager;
+import net.shoreline.client.impl.manager.world.WorldSnapshotManager;
 import net.shoreline.client.impl.manager.world.sound.SoundManager;
 import net.shoreline.client.impl.manager.world.tick.TickManager;
 
@@ -38,8 +42,12 @@ public class Managers {
     public static NCPManager NCP;
     public static GrimManager GRIM;
     public static MovementManager MOVEMENT;
+    public static WorldSnapshotManager WORLD;
+    public static BlockEntityManager BLOCK_ENTITY;
     public static HoleManager HOLE;
     public static TotemManager TOTEM;
+    public static DamageCacheManager DAMAGE;
+    public static ArmorProfileManager ARMOR;
     public static InteractionManager INTERACT;
     public static SoundManager SOUND;
     public static CapeManager CAPES;
@@ -69,8 +77,12 @@ public class Managers {
             NCP = new NCPManager();
             GRIM = new GrimManager();
             MOVEMENT = new MovementManager();
+            WORLD = new WorldSnapshotManager();
+            BLOCK_ENTITY = new BlockEntityManager();
             HOLE = new HoleManager();
             TOTEM = new TotemManager();
+            DAMAGE = new DamageCacheManager();
+            ARMOR = new ArmorProfileManager();
             INTERACT = new InteractionManager();
             COMMAND = new CommandManager();
             SOUND = new SoundManager();
@@ -58,6 +58,7 @@ public class Modules {
     public static ExtendedFireworkModule EXTENDED_FIREWORK;
     public static FakeLatencyModule FAKE_LATENCY;
     public static FastProjectileModule FAST_PROJECTILE;
+    public static NewChunksModule NEW_CHUNKS;
     public static PacketCancelerModule PACKET_CANCELER;
     public static PacketFlyModule PACKET_FLY;
     public static PhaseModule PHASE;
@@ -122,6 +123,7 @@ public class Modules {
     public static NoRotateModule NO_ROTATE;
     public static NoWeatherModule NO_WEATHER;
     public static ParticlesModule PARTICLES;
+    public static SearchModule SEARCH;
     public static SkeletonModule SKELETON;
     public static SkyboxModule SKYBOX;
     public static TooltipsModule TOOLTIPS;
@@ -216,6 +218,7 @@ public class Modules {
             EXTENDED_FIREWORK = (ExtendedFireworkModule) getRegisteredModule("extendedfirework-module");
             FAKE_LATENCY = (FakeLatencyModule) getRegisteredModule("fakelatency-module");
             FAST_PROJECTILE = (FastProjectileModule) getRegisteredModule("fastprojectile-module");
+            NEW_CHUNKS = (NewChunksModule) getRegisteredModule("newchunks-module");
             PACKET_CANCELER = (PacketCancelerModule) getRegisteredModule("packetcanceler-module");
             PACKET_FLY = (PacketFlyModule) getRegisteredModule("packetfly-module");
             PHASE = (PhaseModule) getRegisteredModule("phase-module");
@@ -277,6 +280,7 @@ public class Modules {
             NO_ROTATE = (NoRotateModule) getRegisteredModule("norotate-module");
             NO_WEATHER = (NoWeatherModule) getRegisteredModule("noweather-module");
             PARTICLES = (ParticlesModule) getRegisteredModule("particles-module");
+            SEARCH = (SearchModule) getRegisteredModule("search-module");
             SKELETON = (SkeletonModule) getRegisteredModule("skeleton-module");
             SKYBOX = (SkyboxModule) getRegisteredModule("skybox-module");
             TOOLTIPS = (TooltipsModule) getRegisteredModule("tooltips-module");
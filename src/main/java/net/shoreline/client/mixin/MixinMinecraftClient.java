@@ -108,6 +108,8 @@ public abstract class MixinMinecraftClient implements IMinecraftClient {
     private void hookTickPre(CallbackInfo ci) {
         doAttackCalled = false;
         doItemUseCalled = false;
+        // run main thread listeners queued by the network thread
+        Shoreline.EVENT_HANDLER.drainMainThread();
         if (player != null && world != null) {
             TickEvent tickPreEvent = new TickEvent();
             tickPreEvent.setStage(EventStage.PRE);
@@ -20,6 +20,9 @@ public class MixinBlock {
     @Inject(method = "getSlipperiness", at = @At(value = "RETURN"),
             cancellable = true)
     private void hookGetSlipperiness(CallbackInfoReturnable<Float> cir) {
+        if (!Shoreline.EVENT_HANDLER.hasListeners(BlockSlipperinessEvent.class)) {
+            return;
+        }
         BlockSlipperinessEvent blockSlipperinessEvent =
                 new BlockSlipperinessEvent((Block) (Object) this, cir.getReturnValueF());
         Shoreline.EVENT_HANDLER.dispatch(blockSlipperinessEvent);
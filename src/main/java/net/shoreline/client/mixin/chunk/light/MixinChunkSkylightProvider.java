@@ -23,10 +23,17 @@ public class MixinChunkSkylightProvider {
      */
     @Inject(method = "method_51531", at = @At(value = "HEAD"), cancellable = true)
     private void hookRecalculateLevel(long blockPos, long l, int lightLevel, CallbackInfo ci) {
-        RenderSkylightEvent renderSkylightEvent = new RenderSkylightEvent();
-        Shoreline.EVENT_HANDLER.dispatch(renderSkylightEvent);
-        if (renderSkylightEvent.isCanceled()) {
-            ci.cancel();
+        if (!Shoreline.EVENT_HANDLER.hasListeners(RenderSkylightEvent.class)) {
+            return;
+        }
+        RenderSkylightEvent renderSkylightEvent = RenderSkylightEvent.POOL.acquire();
+        try {
+            Shoreline.EVENT_HANDLER.dispatch(renderSkylightEvent);
+            if (renderSkylightEvent.isCanceled()) {
+                ci.cancel();
+            }
+        } finally {
+            RenderSkylightEvent.POOL.release(renderSkylightEvent);
         }
     }
 }
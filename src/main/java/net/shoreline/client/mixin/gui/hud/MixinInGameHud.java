@@ -40,9 +40,13 @@ public class MixinInGameHud implements Globals {
      */
     @Inject(method = "render", at = @At(value = "TAIL"))
     private void hookRender(DrawContext context, float tickDelta, CallbackInfo ci) {
-        RenderOverlayEvent.Post renderOverlayEvent =
-                new RenderOverlayEvent.Post(context, tickDelta);
-        Shoreline.EVENT_HANDLER.dispatch(renderOverlayEvent);
+        RenderOverlayEvent.Post renderOverlayEvent = RenderOverlayEvent.Post.POOL.acquire();
+        try {
+            renderOverlayEvent.reset(context, tickDelta);
+            Shoreline.EVENT_HANDLER.dispatch(renderOverlayEvent);
+        } finally {
+            RenderOverlayEvent.Post.POOL.release(renderOverlayEvent);
+        }
     }
 
     @Redirect(method = "renderHotbar", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/player/PlayerInventory;selectedSlot:I"))
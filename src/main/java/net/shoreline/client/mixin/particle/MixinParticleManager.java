@@ -35,6 +35,9 @@ public class MixinParticleManager {
                                  double y, double z, double velocityX,
                                  double velocityY, double velocityZ,
                                  CallbackInfoReturnable<Particle> cir) {
+        if (!Shoreline.EVENT_HANDLER.hasListeners(ParticleEvent.class)) {
+            return;
+        }
         ParticleEvent particleEvent = new ParticleEvent(parameters);
         Shoreline.EVENT_HANDLER.dispatch(particleEvent);
         if (particleEvent.isCanceled()) {
@@ -53,6 +56,9 @@ public class MixinParticleManager {
             "/particle/ParticleEffect;I)V", at = @At(value = "HEAD"), cancellable = true)
     private void hookAddEmitter(Entity entity, ParticleEffect parameters,
                                 int maxAge, CallbackInfo ci) {
+        if (!Shoreline.EVENT_HANDLER.hasListeners(ParticleEvent.Emitter.class)) {
+            return;
+        }
         ParticleEvent.Emitter particleEvent =
                 new ParticleEvent.Emitter(parameters);
         Shoreline.EVENT_HANDLER.dispatch(particleEvent);
@@ -46,8 +46,13 @@ public class MixinGameRenderer implements Globals {
 
     @Inject(method = "renderWorld", at = @At(value = "INVOKE", target = "Lnet/minecraft/util/profiler/Profiler;swap(Ljava/lang/String;)V", ordinal = 1))
     private void hookRenderWorld(float tickDelta, long limitTime, MatrixStack matrices, CallbackInfo ci) {
-        RenderWorldEvent.Game renderWorldEvent = new RenderWorldEvent.Game(matrices, tickDelta);
-        Shoreline.EVENT_HANDLER.dispatch(renderWorldEvent);
+        RenderWorldEvent.Game renderWorldEvent = RenderWorldEvent.Game.POOL.acquire();
+        try {
+            renderWorldEvent.reset(matrices, tickDelta);
+            Shoreline.EVENT_HANDLER.dispatch(renderWorldEvent);
+        } finally {
+            RenderWorldEvent.Game.POOL.release(renderWorldEvent);
+        }
     }
 
     @Inject(method = "updateTargetedEntity", at = @At(value = "INVOKE", target = "Lnet/minecraft/util/profiler/Profiler;push(Ljava/lang/String;)V", shift = At.Shift.AFTER))
@@ -33,15 +33,20 @@ public class MixinRenderTickCounter {
             cancellable = true)
     private void hookBeginRenderTick(long timeMillis,
                                      CallbackInfoReturnable<Integer> cir) {
-        TickCounterEvent tickCounterEvent = new TickCounterEvent();
-        Shoreline.EVENT_HANDLER.dispatch(tickCounterEvent);
-        if (tickCounterEvent.isCanceled()) {
-            lastFrameDuration = ((timeMillis - prevTimeMillis) / tickTime) * tickCounterEvent.getTicks();
-            prevTimeMillis = timeMillis;
-            tickDelta += lastFrameDuration;
-            int i = (int) tickDelta;
-            tickDelta -= i;
-            cir.setReturnValue(i);
+        TickCounterEvent tickCounterEvent = TickCounterEvent.POOL.acquire();
+        try {
+            tickCounterEvent.reset();
+            Shoreline.EVENT_HANDLER.dispatch(tickCounterEvent);
+            if (tickCounterEvent.isCanceled()) {
+                lastFrameDuration = ((timeMillis - prevTimeMillis) / tickTime) * tickCounterEvent.getTicks();
+                prevTimeMillis = timeMillis;
+                tickDelta += lastFrameDuration;
+                int i = (int) tickDelta;
+                tickDelta -= i;
+                cir.setReturnValue(i);
+            }
+        } finally {
+            TickCounterEvent.POOL.release(tickCounterEvent);
         }
     }
 }
@@ -48,9 +48,13 @@ public class MixinWorldRenderer implements Globals {
 
         RenderBuffers.preRender();
 
-        final RenderWorldEvent renderWorldEvent =
-                new RenderWorldEvent(matrices, tickDelta);
-        Shoreline.EVENT_HANDLER.dispatch(renderWorldEvent);
+        final RenderWorldEvent renderWorldEvent = RenderWorldEvent.POOL.acquire();
+        try {
+            renderWorldEvent.reset(matrices, tickDelta);
+            Shoreline.EVENT_HANDLER.dispatch(renderWorldEvent);
+        } finally {
+            RenderWorldEvent.POOL.release(renderWorldEvent);
+        }
 
         RenderBuffers.postRender();
     }
@@ -46,6 +46,9 @@ public class MixinBlockModelRenderer {
                             VertexConsumer vertexConsumer, boolean cull,
                             Random random, long seed, int overlay,
                             CallbackInfo ci) {
+        if (!Shoreline.EVENT_HANDLER.hasListeners(RenderBlockEvent.class)) {
+            return;
+        }
         RenderBlockEvent renderBlockEvent =
                 new RenderBlockEvent(state, pos);
         Shoreline.EVENT_HANDLER.dispatch(renderBlockEvent);
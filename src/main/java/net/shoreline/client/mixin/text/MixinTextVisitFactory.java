@@ -44,6 +44,9 @@ public abstract class MixinTextVisitFactory implements Globals {
         if (mc.player == null) {
             return text;
         }
+        if (!Shoreline.EVENT_HANDLER.hasListeners(TextVisitEvent.class)) {
+            return text;
+        }
         final TextVisitEvent textVisitEvent = new TextVisitEvent(text);
         Shoreline.EVENT_HANDLER.dispatch(textVisitEvent);
         if (textVisitEvent.isCanceled()) {
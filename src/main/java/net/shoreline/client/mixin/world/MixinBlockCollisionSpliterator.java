@@ -35,11 +35,18 @@ public class MixinBlockCollisionSpliterator implements Globals {
         if (blockView != mc.world) {
             return voxelShape;
         }
-        BlockCollisionEvent blockCollisionEvent =
-                new BlockCollisionEvent(voxelShape, blockPos, instance);
-        Shoreline.EVENT_HANDLER.dispatch(blockCollisionEvent);
-        if (blockCollisionEvent.isCanceled()) {
-            return blockCollisionEvent.getVoxelShape();
+        if (!Shoreline.EVENT_HANDLER.hasListeners(BlockCollisionEvent.class)) {
+            return voxelShape;
+        }
+        BlockCollisionEvent blockCollisionEvent = BlockCollisionEvent.POOL.acquire();
+        try {
+            blockCollisionEvent.reset(voxelShape, blockPos, instance);
+            Shoreline.EVENT_HANDLER.dispatch(blockCollisionEvent);
+            if (blockCollisionEvent.isCanceled()) {
+                voxelShape = blockCollisionEvent.getVoxelShape();
+            }
+        } finally {
+            BlockCollisionEvent.POOL.release(blockCollisionEvent);
         }
         return voxelShape;
     }
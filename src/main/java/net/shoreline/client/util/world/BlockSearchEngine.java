@@ -0,0 +1,348 @@
+package net.shoreline.client.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.UnloadChunkS2CPacket;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import net.shoreline.client.Shoreline;
+import net.shoreline.client.api.event.EventStage;
+import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.impl.event.TickEvent;
+import net.shoreline.client.impl.event.network.DisconnectEvent;
+import net.shoreline.client.impl.event.network.PacketEvent;
+import net.shoreline.client.util.Globals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * Searches the loaded chunks around the player for target block states.
+ * The palette of each chunk section is checked first and only the sections
+ * whose palette contains a target state are copied and scanned on a worker
+ * thread. Each chunk is searched once, after which chunk data and block
+ * update packets update the results incrementally. The worker publishes
+ * an immutable list of the results, so {@link #getResults()} never blocks.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class BlockSearchEngine implements Globals {
+    // Max number of new chunks checked on the main thread per tick
+    private static final int CHUNKS_PER_TICK = 64;
+    // The worker thread which owns the results
+    private final ExecutorService executor = Executors.newFixedThreadPool(1);
+    // Found blocks by packed chunk and block position. Only accessed by the
+    // worker thread.
+    private final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Result>> found =
+            new Long2ObjectOpenHashMap<>();
+    // The latest published results, replaced by the worker after each update
+    private volatile List<Result> results = Collections.emptyList();
+    // The chunks which have been searched. Only accessed by the main thread.
+    private final LongSet chunks = new LongOpenHashSet();
+    // Chunk loads and block updates received from the network thread
+    private final Queue<Long> chunkUpdates = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> updates = new ConcurrentLinkedQueue<>();
+    // Updates received during the last tick. These are checked one tick
+    // later so that the packets have been applied to the world.
+    private final LongSet pendingChunks = new LongOpenHashSet();
+    private final LongSet pendingUpdates = new LongOpenHashSet();
+    //
+    private Predicate<BlockState> targets;
+    private int range;
+    private ClientWorld world;
+
+    /**
+     *
+     */
+    public BlockSearchEngine() {
+        Shoreline.EVENT_HANDLER.subscribe(this);
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener(filter = {BlockUpdateS2CPacket.class, ChunkDeltaUpdateS2CPacket.class,
+            ChunkDataS2CPacket.class, UnloadChunkS2CPacket.class})
+    public void onPacketInbound(PacketEvent.Inbound event) {
+        if (targets == null) {
+            return;
+        }
+        if (event.getPacket() instanceof BlockUpdateS2CPacket packet) {
+            updates.add(packet.getPos().asLong());
+        } else if (event.getPacket() instanceof ChunkDeltaUpdateS2CPacket packet) {
+            packet.visitUpdates((pos, state) -> updates.add(pos.asLong()));
+        } else if (event.getPacket() instanceof ChunkDataS2CPacket packet) {
+            chunkUpdates.add(ChunkPos.toLong(packet.getChunkX(), packet.getChunkZ()));
+        } else if (event.getPacket() instanceof UnloadChunkS2CPacket packet) {
+            chunkUpdates.add(packet.pos().toLong());
+        }
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onDisconnect(DisconnectEvent event) {
+        world = null;
+        reset();
+    }
+
+    /**
+     * @param event
+     */
+    @EventListener
+    public void onTick(TickEvent event) {
+        if (event.getStage() != EventStage.PRE || targets == null) {
+            return;
+        }
+        if (world != mc.world) {
+            world = mc.world;
+            reset();
+        }
+        if (world == null || mc.player == null) {
+            return;
+        }
+        Predicate<BlockState> targets = this.targets;
+        int centerX = mc.player.getChunkPos().x;
+        int centerZ = mc.player.getChunkPos().z;
+        // evict chunks which are out of range
+        LongList evict = new LongArrayList();
+        LongIterator iterator = chunks.iterator();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            if (Math.abs(ChunkPos.getPackedX(chunk) - centerX) > range + 1
+                    || Math.abs(ChunkPos.getPackedZ(chunk) - centerZ) > range + 1) {
+                iterator.remove();
+                evict.add(chunk);
+            }
+        }
+        // chunks which were (re)loaded or unloaded last tick are searched again
+        iterator = pendingChunks.iterator();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            if (chunks.remove(chunk)) {
+                evict.add(chunk);
+            }
+        }
+        pendingChunks.clear();
+        // search new chunks in range, nearest first
+        List<ChunkCopy> scan = new ArrayList<>();
+        for (int d = 0; d <= range && scan.size() < CHUNKS_PER_TICK; d++) {
+            for (int x = -d; x <= d && scan.size() < CHUNKS_PER_TICK; x++) {
+                for (int z = -d; z <= d && scan.size() < CHUNKS_PER_TICK; z++) {
+                    if (Math.abs(x) != d && Math.abs(z) != d) {
+                        continue;
+                    }
+                    WorldChunk chunk = world.getChunkManager().getWorldChunk(centerX + x, centerZ + z);
+                    if (chunk != null && chunks.add(chunk.getPos().toLong())) {
+                        scan.add(copyChunk(chunk, targets));
+                    }
+                }
+            }
+        }
+        // check block updates which were received last tick
+        LongList update = new LongArrayList();
+        List<BlockState> states = new ArrayList<>();
+        iterator = pendingUpdates.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            BlockPos blockPos = BlockPos.fromLong(pos);
+            // unsearched chunks are checked when they are searched
+            if (!chunks.contains(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(blockPos.getX()),
+                    ChunkSectionPos.getSectionCoord(blockPos.getZ())))) {
+                continue;
+            }
+            BlockState state = world.getBlockState(blockPos);
+            update.add(pos);
+            states.add(targets.test(state) ? state : null);
+        }
+        pendingUpdates.clear();
+        Long pos;
+        while ((pos = chunkUpdates.poll()) != null) {
+            pendingChunks.add(pos.longValue());
+        }
+        while ((pos = updates.poll()) != null) {
+            pendingUpdates.add(pos.longValue());
+        }
+        if (evict.isEmpty() && scan.isEmpty() && update.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> updateResults(evict, scan, update, states, targets));
+    }
+
+    /**
+     * Copies the sections of the chunk whose palette contains a target
+     * state. Sections without a target state are skipped without reading
+     * their blocks.
+     *
+     * @param chunk
+     * @param targets
+     * @return
+     */
+    private ChunkCopy copyChunk(WorldChunk chunk, Predicate<BlockState> targets) {
+        List<PalettedContainer<BlockState>> containers = new ArrayList<>();
+        List<Integer> sectionYs = new ArrayList<>();
+        ChunkSection[] sections = chunk.getSectionArray();
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (section.isEmpty() || !section.hasAny(targets)) {
+                continue;
+            }
+            containers.add(section.getBlockStateContainer().copy());
+            sectionYs.add(chunk.sectionIndexToCoord(i));
+        }
+        return new ChunkCopy(chunk.getPos(), containers, sectionYs);
+    }
+
+    /**
+     * Updates the found blocks and publishes the new results. Runs on the
+     * worker thread.
+     *
+     * @param evict   The chunks to remove from the results
+     * @param scan    The chunks to search
+     * @param update  The updated block positions
+     * @param states  The updated block states or <tt>null</tt> if the state
+     *                is not a target
+     * @param targets
+     */
+    private void updateResults(LongList evict, List<ChunkCopy> scan, LongList update,
+                               List<BlockState> states, Predicate<BlockState> targets) {
+        LongIterator iterator = evict.iterator();
+        while (iterator.hasNext()) {
+            found.remove(iterator.nextLong());
+        }
+        for (ChunkCopy copy : scan) {
+            Long2ObjectOpenHashMap<Result> chunkResults = new Long2ObjectOpenHashMap<>();
+            int startX = copy.pos().getStartX();
+            int startZ = copy.pos().getStartZ();
+            for (int i = 0; i < copy.containers().size(); i++) {
+                PalettedContainer<BlockState> container = copy.containers().get(i);
+                int startY = ChunkSectionPos.getBlockCoord(copy.sectionYs().get(i));
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            BlockState state = container.get(x, y, z);
+                            if (targets.test(state)) {
+                                BlockPos pos = new BlockPos(startX + x, startY + y, startZ + z);
+                                chunkResults.put(pos.asLong(), new Result(pos, state, new Box(pos)));
+                            }
+                        }
+                    }
+                }
+            }
+            if (chunkResults.isEmpty()) {
+                found.remove(copy.pos().toLong());
+            } else {
+                found.put(copy.pos().toLong(), chunkResults);
+            }
+        }
+        for (int i = 0; i < update.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(update.getLong(i));
+            long chunk = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()),
+                    ChunkSectionPos.getSectionCoord(pos.getZ()));
+            BlockState state = states.get(i);
+            if (state != null) {
+                found.computeIfAbsent(chunk, c -> new Long2ObjectOpenHashMap<>())
+                        .put(pos.asLong(), new Result(pos, state, new Box(pos)));
+            } else {
+                Long2ObjectOpenHashMap<Result> chunkResults = found.get(chunk);
+                if (chunkResults != null && chunkResults.remove(pos.asLong()) != null
+                        && chunkResults.isEmpty()) {
+                    found.remove(chunk);
+                }
+            }
+        }
+        List<Result> published = new ArrayList<>();
+        for (Long2ObjectMap<Result> chunkResults : found.values()) {
+            published.addAll(chunkResults.values());
+        }
+        results = Collections.unmodifiableList(published);
+    }
+
+    /**
+     * Clears the results and searches all chunks again
+     */
+    private void reset() {
+        chunks.clear();
+        chunkUpdates.clear();
+        updates.clear();
+        pendingChunks.clear();
+        pendingUpdates.clear();
+        executor.execute(() -> {
+            found.clear();
+            results = Collections.emptyList();
+        });
+    }
+
+    /**
+     * Starts searching for the target states. All chunks are searched
+     * again if the targets changed.
+     *
+     * @param targets The target states. Must be safe to test from the
+     *                worker thread.
+     * @param range   The search radius in chunks
+     */
+    public void search(Predicate<BlockState> targets, int range) {
+        if (this.targets != targets) {
+            this.targets = targets;
+            reset();
+        }
+        this.range = range;
+    }
+
+    /**
+     * Stops searching and clears the results
+     */
+    public void stop() {
+        targets = null;
+        reset();
+    }
+
+    /**
+     * @return The blocks found by the search
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * @param pos
+     * @param state
+     * @param box   The render box of the block
+     */
+    public record Result(BlockPos pos, BlockState state, Box box) {
+
+    }
+
+    /**
+     * @param pos
+     * @param containers The copied sections which contain a target state
+     * @param sectionYs  The section coords of the copied sections
+     */
+    private record ChunkCopy(ChunkPos pos, List<PalettedContainer<BlockState>> containers,
+                             List<Integer> sectionYs) {
+
+    }
+}
@@ -0,0 +1,245 @@
+package net.shoreline.client.util.world;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.shoreline.client.Shoreline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent store of chunk classifications in region files of 32x32
+ * chunks. Each region file is a fixed size bitset with two bits per chunk,
+ * one marking the chunk as classified and one marking the chunk as new,
+ * so a region of 1024 chunks is 256 bytes on disk. Region files are read
+ * into the heap when opened and classifications are written through to the
+ * file. Only a bounded number of regions is kept open, so the heap does not
+ * grow with the number of classified chunks. Region files are not mapped,
+ * a mapping would keep the file locked on windows until it is collected.
+ * Not thread safe, should only be used by one thread.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class ChunkRegionStore {
+    // Chunk classifications
+    public static final int OLD = 1;
+    public static final int NEW = 2;
+    // Chunks per region side
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_CHUNKS = 1 << REGION_SHIFT * 2;
+    // Classified bits followed by new bits
+    private static final int REGION_BYTES = REGION_CHUNKS * 2 / 8;
+    // Max number of open regions, the file of the least recently used
+    // region is closed when another region is opened
+    private static final int MAX_OPEN_REGIONS = 64;
+    //
+    private final Path dir;
+    // Open regions by packed region position in access order
+    private final Long2ObjectLinkedOpenHashMap<Region> regions =
+            new Long2ObjectLinkedOpenHashMap<>();
+
+    /**
+     * @param dir The directory of the region files
+     */
+    public ChunkRegionStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Classifies the chunk if it is not classified yet. Classifications
+     * are never changed once stored.
+     *
+     * @param chunkX
+     * @param chunkZ
+     * @param isNew  <tt>true</tt> if the chunk is new
+     * @return <tt>true</tt> if the chunk was classified
+     */
+    public boolean classify(int chunkX, int chunkZ, boolean isNew) {
+        Region region = getRegion(toRegion(chunkX, chunkZ), true);
+        if (region == null) {
+            return false;
+        }
+        int index = toIndex(chunkX, chunkZ);
+        if (getBit(region.bits, index)) {
+            return false;
+        }
+        if (isNew) {
+            setBit(region.bits, REGION_CHUNKS + index);
+            region.write(REGION_CHUNKS + index);
+        }
+        setBit(region.bits, index);
+        region.write(index);
+        return true;
+    }
+
+    /**
+     * @param region    The packed region position
+     * @param chunkType The classification
+     * @return The indices of the chunks in the region with the
+     * classification, see {@link #toChunkX(long, int)}
+     */
+    public int[] getChunks(long region, int chunkType) {
+        Region open = getRegion(region, false);
+        if (open == null) {
+            return new int[0];
+        }
+        ByteBuffer buf = open.bits;
+        IntArrayList chunks = new IntArrayList();
+        for (int i = 0; i < REGION_CHUNKS; i++) {
+            if (getBit(buf, i) && getBit(buf, REGION_CHUNKS + i) == (chunkType == NEW)) {
+                chunks.add(i);
+            }
+        }
+        return chunks.toIntArray();
+    }
+
+    /**
+     * Closes the files of all open regions
+     */
+    public void close() {
+        for (Region region : regions.values()) {
+            region.close();
+        }
+        regions.clear();
+    }
+
+    /**
+     * @param region
+     * @param create <tt>true</tt> if a missing region file should be created
+     * @return The open region or <tt>null</tt> if the region does not exist
+     * or could not be read
+     */
+    private Region getRegion(long region, boolean create) {
+        Region open = regions.getAndMoveToLast(region);
+        if (open != null) {
+            return open;
+        }
+        Path file = dir.resolve(String.format("r.%d.%d.bin", ChunkPos.getPackedX(region),
+                ChunkPos.getPackedZ(region)));
+        if (!create && !Files.exists(file)) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(dir);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // new and truncated files read as unclassified
+            ByteBuffer bits = ByteBuffer.allocate(REGION_BYTES);
+            int read = 0;
+            while (read >= 0 && bits.hasRemaining()) {
+                read = channel.read(bits);
+            }
+            bits.clear();
+            open = new Region(file, channel, bits);
+        }
+        // error reading file
+        catch (IOException e) {
+            Shoreline.error("Could not open region file {}!", file.getFileName());
+            e.printStackTrace();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+        if (regions.size() >= MAX_OPEN_REGIONS) {
+            regions.removeFirst().close();
+        }
+        regions.putAndMoveToLast(region, open);
+        return open;
+    }
+
+    private static boolean getBit(ByteBuffer buf, int bit) {
+        return (buf.get(bit >>> 3) & 1 << (bit & 7)) != 0;
+    }
+
+    private static void setBit(ByteBuffer buf, int bit) {
+        buf.put(bit >>> 3, (byte) (buf.get(bit >>> 3) | 1 << (bit & 7)));
+    }
+
+    /**
+     * @param chunkX
+     * @param chunkZ
+     * @return The packed region position of the chunk
+     */
+    public static long toRegion(int chunkX, int chunkZ) {
+        return ChunkPos.toLong(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+    }
+
+    /**
+     * @param chunkX
+     * @param chunkZ
+     * @return The index of the chunk in its region
+     */
+    private static int toIndex(int chunkX, int chunkZ) {
+        int mask = (1 << REGION_SHIFT) - 1;
+        return (chunkZ & mask) << REGION_SHIFT | chunkX & mask;
+    }
+
+    /**
+     * @param region
+     * @param index  The index of the chunk in the region
+     * @return The chunk x
+     */
+    public static int toChunkX(long region, int index) {
+        return ChunkPos.getPackedX(region) << REGION_SHIFT | index & (1 << REGION_SHIFT) - 1;
+    }
+
+    /**
+     * @param region
+     * @param index  The index of the chunk in the region
+     * @return The chunk z
+     */
+    public static int toChunkZ(long region, int index) {
+        return ChunkPos.getPackedZ(region) << REGION_SHIFT | index >>> REGION_SHIFT;
+    }
+
+    /**
+     * An open region file and its bits
+     *
+     * @param file
+     * @param channel
+     * @param bits    The heap copy of the region file
+     */
+    private record Region(Path file, FileChannel channel, ByteBuffer bits) {
+        /**
+         * Writes the byte of the bit to the region file
+         *
+         * @param bit
+         */
+        public void write(int bit) {
+            int index = bit >>> 3;
+            try {
+                channel.write(bits.slice(index, 1), index);
+            }
+            // error writing file
+            catch (IOException e) {
+                Shoreline.error("Could not write region file {}!", file.getFileName());
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         *
+         */
+        public void close() {
+            try {
+                channel.close();
+            }
+            // error closing file
+            catch (IOException e) {
+                Shoreline.error("Could not close region file {}!", file.getFileName());
+                e.printStackTrace();
+            }
+        }
+    }
+}
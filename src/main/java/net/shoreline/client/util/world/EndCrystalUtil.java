@@ -1,19 +1,16 @@
 package net.shoreline.client.util.world;
 
 import com.google.common.collect.Multimap;
-import net.minecraft.block.BlockState;
-import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.*;
 import net.minecraft.entity.attribute.*;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.item.ItemStack;
-import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.math.*;
-import net.minecraft.world.BlockView;
+import net.minecraft.world.Difficulty;
+import net.shoreline.client.impl.manager.combat.ArmorProfileManager;
+import net.shoreline.client.init.Managers;
 import net.shoreline.client.util.Globals;
 
-import java.util.function.BiFunction;
-
 /**
  * @author linus
  * @since 1.0
@@ -38,14 +35,73 @@ public class EndCrystalUtil implements Globals {
     public static double getDamageTo(final Entity entity,
                                      final Vec3d crystal,
                                      final boolean ignoreTerrain) {
-        double ab = getExposure(crystal, entity, ignoreTerrain);
+        double cached = Managers.DAMAGE.get(entity, crystal, ignoreTerrain);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double dmg = getDamageTo(entity, crystal, ignoreTerrain, Managers.DAMAGE.getRaycaster());
+        Managers.DAMAGE.put(entity, crystal, ignoreTerrain, dmg);
+        return dmg;
+    }
+
+    /**
+     * @param entity
+     * @param crystal
+     * @param ignoreTerrain
+     * @param raycaster     The raycaster for the exposure, use a frozen
+     *                      raycaster when calling off the main thread
+     * @return
+     * @see ExposureRaycaster#freeze(net.minecraft.world.BlockView, Box)
+     */
+    public static double getDamageTo(final Entity entity,
+                                     final Vec3d crystal,
+                                     final boolean ignoreTerrain,
+                                     final ExposureRaycaster raycaster) {
+        double ab = raycaster.getExposure(crystal, entity.getBoundingBox(), ignoreTerrain);
+        double w = Math.sqrt(entity.squaredDistanceTo(crystal)) / 12.0;
+        double dmg = getBaseDamage(w, ab);
+        dmg = getReduction(entity, mc.world.getDamageSources().explosion(null), dmg);
+        return Math.max(0.0, dmg);
+    }
+
+    /**
+     * Returns an upper bound of {@link #getDamageTo(Entity, Vec3d, boolean)}
+     * which assumes the entity is fully exposed to the explosion. The
+     * damage reductions only grow with the damage, so the bound can be used
+     * to skip the exposure raycasts of candidates which cannot win.
+     *
+     * @param entity
+     * @param crystal
+     * @return The max damage the crystal can deal to the entity
+     */
+    public static double getDamageBound(final Entity entity,
+                                        final Vec3d crystal) {
         double w = Math.sqrt(entity.squaredDistanceTo(crystal)) / 12.0;
-        double ac = (1.0 - w) * ab;
-        double dmg = (float) ((int) ((ac * ac + ac) / 2.0 * 7.0 * 12.0 + 1.0));
+        double dmg = getBaseDamage(w, 1.0);
         dmg = getReduction(entity, mc.world.getDamageSources().explosion(null), dmg);
         return Math.max(0.0, dmg);
     }
 
+    /**
+     * Returns the crystal explosion damage before difficulty and armor
+     * reductions. Like vanilla, entities outside of the explosion diameter
+     * are not damaged, so the damage only grows with the exposure and
+     * shrinks with the distance.
+     *
+     * @param w        The distance to the explosion divided by the
+     *                 explosion diameter
+     * @param exposure The exposure of the entity to the explosion
+     * @return The base damage
+     */
+    public static double getBaseDamage(final double w,
+                                       final double exposure) {
+        if (w > 1.0) {
+            return 0.0;
+        }
+        double ac = (1.0 - w) * exposure;
+        return (float) ((int) ((ac * ac + ac) / 2.0 * 7.0 * 12.0 + 1.0));
+    }
+
     /**
      * @param pos
      * @param entity
@@ -77,8 +133,7 @@ public class EndCrystalUtil implements Globals {
         //
         double ab = getExposure(crystal, box, ignoreTerrain);
         double w = Math.sqrt(pos.squaredDistanceTo(crystal)) / 12.0;
-        double ac = (1.0 - w) * ab;
-        double dmg = (float) ((int) ((ac * ac + ac) / 2.0 * 7.0 * 12.0 + 1.0));
+        double dmg = getBaseDamage(w, ab);
         dmg = getReduction(entity, mc.world.getDamageSources().explosion(null), dmg);
         return Math.max(0.0, dmg);
     }
@@ -89,29 +144,42 @@ public class EndCrystalUtil implements Globals {
      * @return
      */
     private static double getReduction(Entity entity, DamageSource damageSource, double damage) {
-        if (damageSource.isScaledWithDifficulty()) {
-            switch (mc.world.getDifficulty()) {
+        // profiles are calculated for explosion damage sources
+        ArmorProfileManager.ArmorProfile profile = entity instanceof LivingEntity livingEntity ?
+                Managers.ARMOR.get(livingEntity) : null;
+        return getReduction(damageSource.isScaledWithDifficulty(), mc.world.getDifficulty(),
+                profile, damage);
+    }
+
+    /**
+     * Applies the difficulty and equipment reductions to an explosion
+     * damage. Does not read the world, so it can be used with values
+     * captured on the main thread.
+     *
+     * @param scaled     <tt>true</tt> if the damage source is scaled with
+     *                   the difficulty
+     * @param difficulty
+     * @param profile    The equipment of the entity or <tt>null</tt> if the
+     *                   entity is not living
+     * @param damage
+     * @return The reduced damage
+     */
+    public static double getReduction(boolean scaled, Difficulty difficulty,
+                                      ArmorProfileManager.ArmorProfile profile, double damage) {
+        if (scaled) {
+            switch (difficulty) {
                 // case PEACEFUL -> return 0;
                 case EASY -> damage = Math.min(damage / 2 + 1, damage);
                 case HARD -> damage *= 1.5f;
             }
         }
-        if (entity instanceof LivingEntity livingEntity) {
-            damage = DamageUtil.getDamageLeft((float) damage, getArmor(livingEntity), (float) getAttributeValue(livingEntity, EntityAttributes.GENERIC_ARMOR_TOUGHNESS));
-            damage = getProtectionReduction(entity, damage, damageSource);
+        if (profile != null) {
+            damage = DamageUtil.getDamageLeft((float) damage, profile.armor(), profile.toughness());
+            damage = DamageUtil.getInflictedDamage((float) damage, profile.protection());
         }
         return Math.max(damage, 0);
     }
 
-    private static float getArmor(LivingEntity entity) {
-        return (float) Math.floor(getAttributeValue(entity, EntityAttributes.GENERIC_ARMOR));
-    }
-
-    private static float getProtectionReduction(Entity player, double damage, DamageSource source) {
-        int protLevel = EnchantmentHelper.getProtectionAmount(player.getArmorItems(), source);
-        return DamageUtil.getInflictedDamage((float) damage, protLevel);
-    }
-
     public static double getAttributeValue(LivingEntity entity, EntityAttribute attribute) {
         return getAttributeInstance(entity, attribute).getValue();
     }
@@ -133,19 +201,6 @@ public class EndCrystalUtil implements Globals {
         return DefaultAttributeRegistry.get((EntityType<? extends LivingEntity>) entity.getType());
     }
 
-    /**
-     * @param source
-     * @param entity
-     * @param ignoreTerrain
-     * @return
-     */
-    private static float getExposure(final Vec3d source,
-                                     final Entity entity,
-                                     final boolean ignoreTerrain) {
-        final Box box = entity.getBoundingBox();
-        return getExposure(source, box, ignoreTerrain);
-    }
-
     /**
      * @param source
      * @param box
@@ -155,76 +210,6 @@ public class EndCrystalUtil implements Globals {
     private static float getExposure(final Vec3d source,
                                      final Box box,
                                      final boolean ignoreTerrain) {
-        RaycastFactory raycastFactory = getRaycastFactory(ignoreTerrain);
-
-        double xDiff = box.maxX - box.minX;
-        double yDiff = box.maxY - box.minY;
-        double zDiff = box.maxZ - box.minZ;
-
-        double xStep = 1 / (xDiff * 2 + 1);
-        double yStep = 1 / (yDiff * 2 + 1);
-        double zStep = 1 / (zDiff * 2 + 1);
-
-        if (xStep > 0 && yStep > 0 && zStep > 0) {
-            int misses = 0;
-            int hits = 0;
-
-            double xOffset = (1 - Math.floor(1 / xStep) * xStep) * 0.5;
-            double zOffset = (1 - Math.floor(1 / zStep) * zStep) * 0.5;
-
-            xStep = xStep * xDiff;
-            yStep = yStep * yDiff;
-            zStep = zStep * zDiff;
-
-            double startX = box.minX + xOffset;
-            double startY = box.minY;
-            double startZ = box.minZ + zOffset;
-            double endX = box.maxX + xOffset;
-            double endY = box.maxY;
-            double endZ = box.maxZ + zOffset;
-
-            for (double x = startX; x <= endX; x += xStep) {
-                for (double y = startY; y <= endY; y += yStep) {
-                    for (double z = startZ; z <= endZ; z += zStep) {
-                        Vec3d position = new Vec3d(x, y, z);
-
-                        if (raycast(new ExposureRaycastContext(position, source), raycastFactory) == null) misses++;
-
-                        hits++;
-                    }
-                }
-            }
-
-            return (float) misses / hits;
-        }
-
-        return 0f;
+        return Managers.DAMAGE.getRaycaster().getExposure(source, box, ignoreTerrain);
     }
-
-    private static RaycastFactory getRaycastFactory(boolean ignoreTerrain) {
-        if (ignoreTerrain) {
-            return (context, blockPos) -> {
-                BlockState blockState = mc.world.getBlockState(blockPos);
-                if (blockState.getBlock().getBlastResistance() < 600) return null;
-
-                return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
-            };
-        } else {
-            return (context, blockPos) -> {
-                BlockState blockState = mc.world.getBlockState(blockPos);
-                return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
-            };
-        }
-    }
-
-    /* Raycasts */
-
-    private static BlockHitResult raycast(ExposureRaycastContext context, RaycastFactory raycastFactory) {
-        return BlockView.raycast(context.start, context.end, context, raycastFactory, ctx -> null);
-    }
-
-    public record ExposureRaycastContext(Vec3d start, Vec3d end) {}
-
-    @FunctionalInterface
-    public interface RaycastFactory extends BiFunction<ExposureRaycastContext, BlockPos, BlockHitResult> {}
 }
@@ -0,0 +1,396 @@
+package net.shoreline.client.util.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import net.minecraft.world.BlockView;
+import net.shoreline.client.util.Globals;
+
+import java.util.Arrays;
+
+/**
+ * Explosion exposure raycaster which does not allocate per ray. Rays are
+ * traversed with the same voxel stepping as {@link net.minecraft.world.BlockView#raycast}
+ * but over primitives, and block collision shapes are looked up in a local
+ * solidity grid around the player which is shared by every crystal and
+ * target in the same tick. Full cubes are intersected with the same strict
+ * bounds as {@link VoxelShape#raycast(Vec3d, Vec3d, BlockPos)}, and only
+ * blocks with partial collision shapes fall back to it.
+ *
+ * <p>A raycaster created with {@link #freeze(BlockView, Box)} copies the
+ * block shapes of a region up front and never reads the world afterwards,
+ * so it can be shared by worker threads.</p>
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class ExposureRaycaster implements Globals {
+    // The side length of the solidity grid, centered on the player
+    private static final int SIZE = 48;
+    // Cell flags
+    private static final byte KNOWN = 1;
+    private static final byte SOLID = 1 << 1;
+    private static final byte FULL_CUBE = 1 << 2;
+    private static final byte RESISTANT = 1 << 3;
+    //
+    private final byte[] grid;
+    private int originX, originY, originZ;
+    private final int sizeX, sizeY, sizeZ;
+    // The collision shapes of partial blocks, only used by frozen raycasters
+    private final VoxelShape[] shapes;
+    //
+    private BlockView world;
+    private long time = Long.MIN_VALUE;
+    // Reused for world lookups, only used by live raycasters
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+    /**
+     * Creates a raycaster which reads blocks from the client world
+     */
+    public ExposureRaycaster() {
+        grid = new byte[SIZE * SIZE * SIZE];
+        sizeX = SIZE;
+        sizeY = SIZE;
+        sizeZ = SIZE;
+        shapes = null;
+    }
+
+    /**
+     * @param world
+     * @param minX
+     * @param minY
+     * @param minZ
+     * @param maxX
+     * @param maxY
+     * @param maxZ
+     */
+    private ExposureRaycaster(BlockView world, int minX, int minY, int minZ,
+                              int maxX, int maxY, int maxZ) {
+        this.world = world;
+        originX = minX;
+        originY = minY;
+        originZ = minZ;
+        sizeX = maxX - minX + 1;
+        sizeY = maxY - minY + 1;
+        sizeZ = maxZ - minZ + 1;
+        grid = new byte[sizeX * sizeY * sizeZ];
+        shapes = new VoxelShape[grid.length];
+        for (int x = 0; x < sizeX; x++) {
+            for (int y = 0; y < sizeY; y++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    int index = (x * sizeY + y) * sizeZ + z;
+                    grid[index] = computeFlags(minX + x, minY + y, minZ + z);
+                    if ((grid[index] & SOLID) != 0 && (grid[index] & FULL_CUBE) == 0) {
+                        shapes[index] = world.getBlockState(mutable).getCollisionShape(world, mutable);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the block shapes in a region of the world. The returned
+     * raycaster is immutable and can be used from any thread, as long as
+     * every ray stays within the region.
+     *
+     * @param world
+     * @param region The region which contains every ray
+     * @return The frozen raycaster
+     */
+    public static ExposureRaycaster freeze(BlockView world, Box region) {
+        // rays may step one block past their end points
+        return new ExposureRaycaster(world,
+                MathHelper.floor(region.minX) - 1, MathHelper.floor(region.minY) - 1,
+                MathHelper.floor(region.minZ) - 1, MathHelper.floor(region.maxX) + 1,
+                MathHelper.floor(region.maxY) + 1, MathHelper.floor(region.maxZ) + 1);
+    }
+
+    /**
+     * Clears the grid once per tick and recenters it on the player
+     */
+    private void update() {
+        if (shapes != null || world == mc.world && time == mc.world.getTime()) {
+            return;
+        }
+        world = mc.world;
+        time = mc.world.getTime();
+        Arrays.fill(grid, (byte) 0);
+        BlockPos center = mc.player != null ? mc.player.getBlockPos() : BlockPos.ORIGIN;
+        originX = center.getX() - SIZE / 2;
+        originY = center.getY() - SIZE / 2;
+        originZ = center.getZ() - SIZE / 2;
+    }
+
+    /**
+     * Clears the cached block at a position, so the next ray which passes
+     * through it reads the block again. Frozen raycasters are not changed.
+     *
+     * @param x
+     * @param y
+     * @param z
+     */
+    public void invalidate(int x, int y, int z) {
+        if (shapes != null) {
+            return;
+        }
+        int index = getIndex(x, y, z);
+        if (index != -1) {
+            grid[index] = 0;
+        }
+    }
+
+    /**
+     * @param source
+     * @param box
+     * @param ignoreTerrain
+     * @return The fraction of sample points in the box which are exposed
+     * to the source
+     */
+    public float getExposure(final Vec3d source,
+                             final Box box,
+                             final boolean ignoreTerrain) {
+        update();
+        double xStep = 1 / ((box.maxX - box.minX) * 2 + 1);
+        double yStep = 1 / ((box.maxY - box.minY) * 2 + 1);
+        double zStep = 1 / ((box.maxZ - box.minZ) * 2 + 1);
+
+        if (xStep > 0 && yStep > 0 && zStep > 0) {
+            int misses = 0;
+            int hits = 0;
+
+            double xOffset = (1 - Math.floor(1 / xStep) * xStep) * 0.5;
+            double zOffset = (1 - Math.floor(1 / zStep) * zStep) * 0.5;
+
+            // same sample points as Explosion#getExposure, stepping the box
+            // coordinates directly rounds differently at the last sample
+            for (double x = 0; x <= 1; x += xStep) {
+                for (double y = 0; y <= 1; y += yStep) {
+                    for (double z = 0; z <= 1; z += zStep) {
+                        if (!raycast(MathHelper.lerp(x, box.minX, box.maxX) + xOffset,
+                                MathHelper.lerp(y, box.minY, box.maxY),
+                                MathHelper.lerp(z, box.minZ, box.maxZ) + zOffset,
+                                source.x, source.y, source.z, ignoreTerrain)) {
+                            misses++;
+                        }
+                        hits++;
+                    }
+                }
+            }
+            return (float) misses / hits;
+        }
+        return 0f;
+    }
+
+    /**
+     * Steps through the blocks between start and end in the same order as
+     * {@link net.minecraft.world.BlockView#raycast}.
+     *
+     * @return <tt>true</tt> if the ray hits a block
+     */
+    private boolean raycast(double x1, double y1, double z1,
+                            double x2, double y2, double z2,
+                            boolean ignoreTerrain) {
+        if (x1 == x2 && y1 == y2 && z1 == z2) {
+            return false;
+        }
+        double d = MathHelper.lerp(-1.0E-7, x2, x1);
+        double e = MathHelper.lerp(-1.0E-7, y2, y1);
+        double f = MathHelper.lerp(-1.0E-7, z2, z1);
+        double g = MathHelper.lerp(-1.0E-7, x1, x2);
+        double h = MathHelper.lerp(-1.0E-7, y1, y2);
+        double i = MathHelper.lerp(-1.0E-7, z1, z2);
+        int j = MathHelper.floor(g);
+        int k = MathHelper.floor(h);
+        int l = MathHelper.floor(i);
+        if (isHit(j, k, l, x1, y1, z1, x2, y2, z2, ignoreTerrain)) {
+            return true;
+        }
+        double m = d - g;
+        double n = e - h;
+        double o = f - i;
+        int p = MathHelper.sign(m);
+        int q = MathHelper.sign(n);
+        int r = MathHelper.sign(o);
+        double s = p == 0 ? Double.MAX_VALUE : (double) p / m;
+        double t = q == 0 ? Double.MAX_VALUE : (double) q / n;
+        double u = r == 0 ? Double.MAX_VALUE : (double) r / o;
+        double v = s * (p > 0 ? 1.0 - MathHelper.fractionalPart(g) : MathHelper.fractionalPart(g));
+        double w = t * (q > 0 ? 1.0 - MathHelper.fractionalPart(h) : MathHelper.fractionalPart(h));
+        double x = u * (r > 0 ? 1.0 - MathHelper.fractionalPart(i) : MathHelper.fractionalPart(i));
+        while (v <= 1.0 || w <= 1.0 || x <= 1.0) {
+            if (v < w) {
+                if (v < x) {
+                    j += p;
+                    v += s;
+                } else {
+                    l += r;
+                    x += u;
+                }
+            } else if (w < x) {
+                k += q;
+                w += t;
+            } else {
+                l += r;
+                x += u;
+            }
+            if (isHit(j, k, l, x1, y1, z1, x2, y2, z2, ignoreTerrain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return <tt>true</tt> if the ray hits the block at the position
+     */
+    private boolean isHit(int bx, int by, int bz,
+                          double x1, double y1, double z1,
+                          double x2, double y2, double z2,
+                          boolean ignoreTerrain) {
+        int index = getIndex(bx, by, bz);
+        byte flags = getFlags(index, bx, by, bz);
+        if ((flags & SOLID) == 0 || ignoreTerrain && (flags & RESISTANT) == 0) {
+            return false;
+        }
+        if ((flags & FULL_CUBE) != 0) {
+            return raycastCube(bx, by, bz, x1, y1, z1, x2, y2, z2);
+        }
+        Vec3d start = new Vec3d(x1, y1, z1);
+        Vec3d end = new Vec3d(x2, y2, z2);
+        if (shapes != null) {
+            return shapes[index].raycast(start, end, new BlockPos(bx, by, bz)) != null;
+        }
+        mutable.set(bx, by, bz);
+        VoxelShape shape = world.getBlockState(mutable).getCollisionShape(world, mutable);
+        return shape.raycast(start, end, mutable) != null;
+    }
+
+    /**
+     * Intersects the ray with the full cube at the position in the same way
+     * as {@link VoxelShape#raycast(Vec3d, Vec3d, BlockPos)}. The traversal
+     * also visits the blocks which the ray only touches at its end points,
+     * so the ray must actually enter the cube, i.e. start inside of it or
+     * cross one of the faces it moves towards for 0 < t < 1.
+     *
+     * @return <tt>true</tt> if the ray hits the cube
+     */
+    private static boolean raycastCube(int bx, int by, int bz,
+                                       double x1, double y1, double z1,
+                                       double x2, double y2, double z2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double dz = z2 - z1;
+        if (dx * dx + dy * dy + dz * dz < 1.0E-7) {
+            return false;
+        }
+        // rays which start inside of the cube
+        double px = x1 + dx * 0.001 - bx;
+        double py = y1 + dy * 0.001 - by;
+        double pz = z1 + dz * 0.001 - bz;
+        if (px >= 0.0 && px < 1.0 && py >= 0.0 && py < 1.0 && pz >= 0.0 && pz < 1.0) {
+            return true;
+        }
+        // same faces and bounds as Box#traceCollisionSide
+        if (dx > 1.0E-7 && crossesFace(bx, dx, dy, dz, x1, y1, z1, by, bz)
+                || dx < -1.0E-7 && crossesFace(bx + 1, dx, dy, dz, x1, y1, z1, by, bz)) {
+            return true;
+        }
+        if (dy > 1.0E-7 && crossesFace(by, dy, dz, dx, y1, z1, x1, bz, bx)
+                || dy < -1.0E-7 && crossesFace(by + 1, dy, dz, dx, y1, z1, x1, bz, bx)) {
+            return true;
+        }
+        return dz > 1.0E-7 && crossesFace(bz, dz, dx, dy, z1, x1, y1, bx, by)
+                || dz < -1.0E-7 && crossesFace(bz + 1, dz, dx, dy, z1, x1, y1, bx, by);
+    }
+
+    /**
+     * @param face  The face coordinate on the primary axis
+     * @param d     The ray direction on the primary axis
+     * @param d2    The ray direction on the second axis
+     * @param d3    The ray direction on the third axis
+     * @param start The ray start on the primary axis
+     * @param start2
+     * @param start3
+     * @param min2  The cube min on the second axis
+     * @param min3  The cube min on the third axis
+     * @return <tt>true</tt> if the ray crosses the face for 0 < t < 1
+     */
+    private static boolean crossesFace(int face, double d, double d2, double d3,
+                                       double start, double start2, double start3,
+                                       int min2, int min3) {
+        double t = (face - start) / d;
+        if (t <= 0.0 || t >= 1.0) {
+            return false;
+        }
+        double c2 = start2 + t * d2;
+        double c3 = start3 + t * d3;
+        return min2 - 1.0E-7 < c2 && c2 < min2 + 1 + 1.0E-7
+                && min3 - 1.0E-7 < c3 && c3 < min3 + 1 + 1.0E-7;
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @return The grid index of the position or -1 if the position is
+     * outside of the grid
+     */
+    private int getIndex(int x, int y, int z) {
+        int gx = x - originX;
+        int gy = y - originY;
+        int gz = z - originZ;
+        if (gx < 0 || gx >= sizeX || gy < 0 || gy >= sizeY || gz < 0 || gz >= sizeZ) {
+            return -1;
+        }
+        return (gx * sizeY + gy) * sizeZ + gz;
+    }
+
+    /**
+     * @param index
+     * @param x
+     * @param y
+     * @param z
+     * @return The cached flags of the block at the position
+     */
+    private byte getFlags(int index, int x, int y, int z) {
+        if (index == -1) {
+            if (shapes != null) {
+                throw new IllegalStateException("Ray left the frozen region");
+            }
+            return computeFlags(x, y, z);
+        }
+        byte flags = grid[index];
+        if (flags == 0) {
+            flags = computeFlags(x, y, z);
+            grid[index] = flags;
+        }
+        return flags;
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     */
+    private byte computeFlags(int x, int y, int z) {
+        mutable.set(x, y, z);
+        BlockState state = world.getBlockState(mutable);
+        VoxelShape shape = state.getCollisionShape(world, mutable);
+        byte flags = KNOWN;
+        if (!shape.isEmpty()) {
+            flags |= SOLID;
+            if (shape == VoxelShapes.fullCube()) {
+                flags |= FULL_CUBE;
+            }
+        }
+        if (state.getBlock().getBlastResistance() >= 600) {
+            flags |= RESISTANT;
+        }
+        return flags;
+    }
+}
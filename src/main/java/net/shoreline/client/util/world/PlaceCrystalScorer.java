@@ -0,0 +1,297 @@
+package net.shoreline.client.util.world;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.Difficulty;
+import net.shoreline.client.impl.manager.combat.ArmorProfileManager;
+import net.shoreline.client.impl.manager.combat.DamageCacheManager;
+import net.shoreline.client.init.Managers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scores crystal place candidates against targets. The targets, the player
+ * and the settings are captured on the main thread, so with a frozen
+ * raycaster the scorer does not read the world or live entities and can
+ * be used by the parallel {@link PlaceCrystalSearch}. Candidates are
+ * visited in order of their damage bound and the rest are pruned once no
+ * bound can win. Ties resolve to the lowest candidate and target, so the
+ * serial and parallel searches return the same placement.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class PlaceCrystalScorer implements PlaceCrystalSearch.Scorer<PlaceCrystalScorer.Placement> {
+    //
+    private final List<BlockPos> candidates;
+    private final List<Target> targets;
+    private final Target self;
+    private final Settings settings;
+    // The raycaster for the exposures, frozen when scoring off the main
+    // thread
+    private final ExposureRaycaster raycaster;
+    // The damage cache of the main thread or null when scoring off the
+    // main thread
+    private final DamageCacheManager cache;
+    // Candidates scored and skipped by their damage bound
+    private final AtomicInteger evaluated = new AtomicInteger();
+    private final AtomicInteger pruned = new AtomicInteger();
+
+    /**
+     * @param candidates The place positions
+     * @param targets
+     * @param self       The player
+     * @param settings
+     * @param raycaster
+     * @param cache      The damage cache, only use on the main thread
+     */
+    public PlaceCrystalScorer(List<BlockPos> candidates, List<Target> targets, Target self,
+                              Settings settings, ExposureRaycaster raycaster,
+                              DamageCacheManager cache) {
+        this.candidates = candidates;
+        this.targets = targets;
+        this.self = self;
+        this.settings = settings;
+        this.raycaster = raycaster;
+        this.cache = cache;
+    }
+
+    @Override
+    public Placement score(int from, int to) {
+        int size = to - from;
+        int count = targets.size();
+        // bound every pair assuming full exposure, then visit the positions
+        // with the highest bounds first
+        double[] pairBounds = new double[size * count];
+        double[] bounds = new double[size];
+        for (int i = 0; i < size; i++) {
+            BlockPos pos = candidates.get(from + i);
+            Vec3d damageVec = getDamageVec(pos);
+            bounds[i] = -1.0;
+            for (int j = 0; j < count; j++) {
+                Target target = targets.get(j);
+                double bound = -1.0;
+                if (pos.getSquaredDistance(target.pos()) <= 144.0f) {
+                    bound = target.getDamageBound(damageVec, settings);
+                }
+                pairBounds[i * count + j] = bound;
+                bounds[i] = Math.max(bounds[i], bound);
+            }
+        }
+        int[] order = getBoundOrder(bounds);
+        Placement data = null;
+        long dataKey = Long.MAX_VALUE;
+        for (int n = 0; n < size; n++) {
+            int i = order[n];
+            // the positions are sorted by bound, none of the rest can win
+            if (bounds[i] < settings.minBound() || !isBetter(bounds[i], (long) (from + i) * count, data, dataKey)) {
+                pruned.addAndGet(size - n);
+                break;
+            }
+            evaluated.incrementAndGet();
+            Vec3d damageVec = getDamageVec(candidates.get(from + i));
+            double selfDamage = getDamage(self, damageVec);
+            boolean unsafeToPlayer = settings.isUnsafe(selfDamage, self);
+            if (unsafeToPlayer && !settings.safetyOverride()) {
+                continue;
+            }
+            for (int j = 0; j < count; j++) {
+                long key = (long) (from + i) * count + j;
+                double bound = pairBounds[i * count + j];
+                if (bound < settings.minBound() || !isBetter(bound, key, data, dataKey)) {
+                    continue;
+                }
+                Target target = targets.get(j);
+                double damage = getDamage(target, damageVec);
+                // only override the safety if the crystal kills the target
+                if (settings.safetyOverride() && unsafeToPlayer && damage < target.health() + 0.5) {
+                    continue;
+                }
+                if (isBetter(damage, key, data, dataKey)) {
+                    data = new Placement(from + i, j, damage, selfDamage);
+                    dataKey = key;
+                }
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public double getDamage(Placement data) {
+        return data.damage();
+    }
+
+    /**
+     * @param target
+     * @param damageVec
+     * @return The damage of the explosion to the target
+     */
+    private double getDamage(Target target, Vec3d damageVec) {
+        if (cache == null) {
+            return target.getDamage(damageVec, settings, raycaster);
+        }
+        double cached = cache.get(target.entity(), damageVec, settings.ignoreTerrain());
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double damage = target.getDamage(damageVec, settings, raycaster);
+        cache.put(target.entity(), damageVec, settings.ignoreTerrain(), damage);
+        return damage;
+    }
+
+    /**
+     * @return The number of candidates which were scored
+     */
+    public int getEvaluated() {
+        return evaluated.get();
+    }
+
+    /**
+     * @return The number of candidates which were skipped by their bound
+     */
+    public int getPruned() {
+        return pruned.get();
+    }
+
+    /**
+     * @param pos
+     * @return The explosion position of a crystal placed on the block
+     */
+    public static Vec3d getDamageVec(BlockPos pos) {
+        return Vec3d.of(pos).add(0.5, 1.0, 0.5);
+    }
+
+    /**
+     * Orders candidates by descending damage bound. Equal bounds keep the
+     * candidate order.
+     *
+     * @param bounds
+     * @return The candidate indices in visiting order
+     */
+    public static int[] getBoundOrder(double[] bounds) {
+        int[] order = new int[bounds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IntArrays.quickSort(order, (i, j) -> {
+            int cmp = Double.compare(bounds[j], bounds[i]);
+            return cmp != 0 ? cmp : Integer.compare(i, j);
+        });
+        return order;
+    }
+
+    /**
+     * @param damage
+     * @param key     The position of the candidate in the serial search
+     * @param data    The best placement
+     * @param dataKey The position of the best placement in the serial search
+     * @return <tt>true</tt> if the damage beats the best placement
+     */
+    private static boolean isBetter(double damage, long key, Placement data, long dataKey) {
+        return data == null || damage > data.damage() || damage == data.damage() && key < dataKey;
+    }
+
+    /**
+     * @param candidate  The index of the place position
+     * @param target     The index of the target
+     * @param damage
+     * @param selfDamage
+     */
+    public record Placement(int candidate, int target, double damage, double selfDamage) {
+
+    }
+
+    /**
+     * The values of an entity which are read by the damage calculation,
+     * captured on the main thread
+     *
+     * @param entity  The entity, only read by the main thread damage cache
+     * @param box     The bounding box of the entity
+     * @param pos
+     * @param health  The health and absorption of the entity
+     * @param profile The equipment of the entity or <tt>null</tt> if the
+     *                entity is not living
+     */
+    public record Target(Entity entity, Box box, Vec3d pos, float health,
+                         ArmorProfileManager.ArmorProfile profile) {
+        /**
+         * Captures the entity. Must be called on the main thread.
+         *
+         * @param entity
+         * @return
+         */
+        public static Target of(Entity entity) {
+            ArmorProfileManager.ArmorProfile profile = entity instanceof LivingEntity livingEntity ?
+                    Managers.ARMOR.get(livingEntity) : null;
+            return new Target(entity, entity.getBoundingBox(), entity.getPos(),
+                    EntityUtil.getHealth(entity), profile);
+        }
+
+        /**
+         * @param crystal
+         * @param settings
+         * @param raycaster
+         * @return The damage of the explosion, equal to
+         * {@link EndCrystalUtil#getDamageTo(Entity, Vec3d, boolean)}
+         */
+        public double getDamage(Vec3d crystal, Settings settings, ExposureRaycaster raycaster) {
+            double ab = raycaster.getExposure(crystal, box, settings.ignoreTerrain());
+            double w = Math.sqrt(pos.squaredDistanceTo(crystal)) / 12.0;
+            double dmg = EndCrystalUtil.getBaseDamage(w, ab);
+            dmg = EndCrystalUtil.getReduction(settings.scaled(), settings.difficulty(), profile, dmg);
+            return Math.max(0.0, dmg);
+        }
+
+        /**
+         * @param crystal
+         * @param settings
+         * @return The max damage of the explosion, equal to
+         * {@link EndCrystalUtil#getDamageBound(Entity, Vec3d)}
+         */
+        public double getDamageBound(Vec3d crystal, Settings settings) {
+            double w = Math.sqrt(pos.squaredDistanceTo(crystal)) / 12.0;
+            double dmg = EndCrystalUtil.getBaseDamage(w, 1.0);
+            dmg = EndCrystalUtil.getReduction(settings.scaled(), settings.difficulty(), profile, dmg);
+            return Math.max(0.0, dmg);
+        }
+    }
+
+    /**
+     * @param ignoreTerrain  <tt>true</tt> if blocks destroyed by the
+     *                       explosion are ignored
+     * @param minBound       Candidates which cannot deal this much damage
+     *                       are never returned
+     * @param safety         <tt>true</tt> if placements which kill the
+     *                       player are unsafe
+     * @param maxSelfDamage  The max damage to the player of a safe placement
+     * @param safetyOverride <tt>true</tt> if unsafe placements which kill
+     *                       the target are allowed
+     * @param creative       <tt>true</tt> if the player takes no damage
+     * @param scaled         <tt>true</tt> if explosion damage is scaled with
+     *                       the difficulty
+     * @param difficulty
+     */
+    public record Settings(boolean ignoreTerrain, double minBound, boolean safety,
+                           double maxSelfDamage, boolean safetyOverride, boolean creative,
+                           boolean scaled, Difficulty difficulty) {
+        /**
+         * @param selfDamage
+         * @param self
+         * @return <tt>true</tt> if the damage to the player is unsafe
+         */
+        public boolean isUnsafe(double selfDamage, Target self) {
+            if (creative) {
+                return false;
+            }
+            if (safety && selfDamage >= self.health() + 0.5f) {
+                return true;
+            }
+            return selfDamage > maxSelfDamage;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.shoreline.client.util.world;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits a range of place candidates in halves until the ranges are small
+ * enough to score directly. The halves are merged the same way the serial
+ * calculation replaces its best placement, so ties resolve to the earlier
+ * candidate and the result matches scoring the whole range at once.
+ *
+ * @param <T> The placement type
+ * @author linus
+ * @since 1.0
+ */
+public class PlaceCrystalSearch<T> extends RecursiveTask<T> {
+    // The max number of candidates scored by a single task
+    private static final int THRESHOLD = 4;
+    //
+    private final Scorer<T> scorer;
+    private final int from, to;
+
+    /**
+     * @param scorer
+     * @param from   The first candidate index
+     * @param to     The candidate index after the last candidate
+     */
+    public PlaceCrystalSearch(Scorer<T> scorer, int from, int to) {
+        this.scorer = scorer;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected T compute() {
+        if (to - from <= THRESHOLD) {
+            return scorer.score(from, to);
+        }
+        int mid = (from + to) >>> 1;
+        PlaceCrystalSearch<T> left = new PlaceCrystalSearch<>(scorer, from, mid);
+        PlaceCrystalSearch<T> right = new PlaceCrystalSearch<>(scorer, mid, to);
+        left.fork();
+        T rightData = right.compute();
+        T leftData = left.join();
+        if (rightData != null && (leftData == null
+                || scorer.getDamage(rightData) > scorer.getDamage(leftData))) {
+            return rightData;
+        }
+        return leftData;
+    }
+
+    /**
+     * Scores ranges of candidates. Must be safe to call from multiple
+     * threads.
+     *
+     * @param <T> The placement type
+     */
+    public interface Scorer<T> {
+        /**
+         * @param from The first candidate index
+         * @param to   The candidate index after the last candidate
+         * @return The best placement in the range or <tt>null</tt> if no
+         * candidate is valid. Ties resolve to the lowest candidate index.
+         */
+        T score(int from, int to);
+
+        /**
+         * @param data
+         * @return The damage of the placement
+         */
+        double getDamage(T data);
+    }
+}
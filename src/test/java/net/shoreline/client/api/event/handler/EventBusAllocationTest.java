@@ -0,0 +1,87 @@
+package net.shoreline.client.api.event.handler;
+
+import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.listener.EventListener;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that {@link EventBus#dispatch(Event)} does not allocate once the
+ * dispatch table of the event class has been resolved.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class EventBusAllocationTest {
+    //
+    private static final int WARMUP = 200_000;
+    private static final int DISPATCHES = 1_000_000;
+
+    @Test
+    public void testDispatchAllocatesNothing() {
+        EventBus bus = new EventBus();
+        CountingListener listener = new CountingListener();
+        bus.subscribe(listener);
+        bus.subscribe(new CountingListener());
+        TestEvent event = new TestEvent();
+        // resolves the dispatch table and lets the JIT compile dispatch
+        for (int i = 0; i < WARMUP; i++) {
+            bus.dispatch(event);
+        }
+        long allocated = measureAllocated(bus, event);
+        assertEquals(WARMUP + DISPATCHES, listener.count);
+        assertEquals(0L, allocated / DISPATCHES, "Bytes per dispatch");
+    }
+
+    @Test
+    public void testUnobservedDispatchAllocatesNothing() {
+        EventBus bus = new EventBus();
+        bus.subscribe(new CountingListener());
+        UnobservedEvent event = new UnobservedEvent();
+        for (int i = 0; i < WARMUP; i++) {
+            bus.dispatch(event);
+        }
+        assertEquals(0L, measureAllocated(bus, event) / DISPATCHES, "Bytes per dispatch");
+    }
+
+    /**
+     * @param bus
+     * @param event
+     * @return The bytes allocated by the current thread during the dispatches
+     */
+    private long measureAllocated(EventBus bus, Event event) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        long threadId = Thread.currentThread().getId();
+        // the first call may allocate internally
+        threads.getThreadAllocatedBytes(threadId);
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < DISPATCHES; i++) {
+            bus.dispatch(event);
+        }
+        return threads.getThreadAllocatedBytes(threadId) - start;
+    }
+
+    public static class TestEvent extends Event {
+
+    }
+
+    public static class UnobservedEvent extends Event {
+
+    }
+
+    public static class CountingListener {
+        //
+        private int count;
+
+        @EventListener
+        public void onTest(TestEvent event) {
+            count++;
+        }
+    }
+}
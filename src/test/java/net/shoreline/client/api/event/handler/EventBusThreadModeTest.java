@@ -0,0 +1,107 @@
+package net.shoreline.client.api.event.handler;
+
+import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.Pooled;
+import net.shoreline.client.api.event.listener.EventListener;
+import net.shoreline.client.api.event.listener.ThreadMode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the handoff of {@link ThreadMode#MAIN} listeners. The bus is
+ * created on the test thread, so the test thread is its main thread.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class EventBusThreadModeTest {
+
+    @Test
+    public void testQueuedOnOtherThread() throws InterruptedException {
+        EventBus bus = new EventBus();
+        MainListener listener = new MainListener();
+        bus.subscribe(listener);
+        dispatchOffThread(bus, new TestEvent());
+        assertEquals(0, listener.count);
+        bus.drainMainThread();
+        assertEquals(1, listener.count);
+        assertEquals(Thread.currentThread(), listener.thread);
+    }
+
+    @Test
+    public void testUnsubscribedAfterQueued() throws InterruptedException {
+        EventBus bus = new EventBus();
+        MainListener listener = new MainListener();
+        bus.subscribe(listener);
+        dispatchOffThread(bus, new TestEvent());
+        bus.unsubscribe(listener);
+        bus.drainMainThread();
+        assertEquals(0, listener.count);
+        // subscribing again does not revive invocations queued before
+        bus.subscribe(listener);
+        dispatchOffThread(bus, new TestEvent());
+        bus.unsubscribe(listener);
+        bus.subscribe(listener);
+        bus.drainMainThread();
+        assertEquals(0, listener.count);
+        dispatchOffThread(bus, new TestEvent());
+        bus.drainMainThread();
+        assertEquals(1, listener.count);
+    }
+
+    @Test
+    public void testPooledRejected() throws InterruptedException {
+        EventBus bus = new EventBus();
+        assertThrows(IllegalArgumentException.class, () -> bus.subscribe(new PooledListener()));
+        // the rejected subscriber is not partially subscribed
+        assertFalse(bus.hasListeners(TestEvent.class));
+        MainListener listener = new MainListener();
+        bus.subscribe(listener);
+        dispatchOffThread(bus, new TestEvent());
+        bus.drainMainThread();
+        assertEquals(1, listener.count);
+    }
+
+    private static void dispatchOffThread(EventBus bus, Event event) throws InterruptedException {
+        Thread thread = new Thread(() -> bus.dispatch(event));
+        thread.start();
+        thread.join();
+    }
+
+    public static class TestEvent extends Event {
+
+    }
+
+    @Pooled
+    public static class TestPooledEvent extends Event {
+
+    }
+
+    public static class PooledListener {
+
+        @EventListener
+        public void onTest(TestEvent event) {
+
+        }
+
+        @EventListener(threadMode = ThreadMode.MAIN)
+        public void onPooled(TestPooledEvent event) {
+
+        }
+    }
+
+    public static class MainListener {
+        //
+        private int count;
+        private Thread thread;
+
+        @EventListener(threadMode = ThreadMode.MAIN)
+        public void onTest(TestEvent event) {
+            count++;
+            thread = Thread.currentThread();
+        }
+    }
+}
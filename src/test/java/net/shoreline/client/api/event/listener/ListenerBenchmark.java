@@ -0,0 +1,80 @@
+package net.shoreline.client.api.event.listener;
+
+import net.shoreline.client.api.event.Event;
+import net.shoreline.client.api.event.handler.EventBus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of dispatching an event through the {@link EventBus}
+ * with calling the listener methods directly. Half of the subscribers are
+ * of a second class so the invocation sites see more than one receiver,
+ * as they do in game.
+ *
+ * @author linus
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListenerBenchmark {
+    //
+    @Param({"1", "100", "500"})
+    public int listeners;
+    //
+    private EventBus bus;
+    private TestSubscriber[] subscribers;
+    private TestEvent event;
+
+    @Setup
+    public void setup() {
+        bus = new EventBus();
+        subscribers = new TestSubscriber[listeners];
+        for (int i = 0; i < listeners; i++) {
+            subscribers[i] = i % 2 == 0 ? new TestSubscriber() : new OtherSubscriber();
+            bus.subscribe(subscribers[i]);
+        }
+        event = new TestEvent();
+    }
+
+    @Benchmark
+    public void direct(Blackhole blackhole) {
+        for (TestSubscriber subscriber : subscribers) {
+            subscriber.onTest(event);
+        }
+        blackhole.consume(event.value);
+    }
+
+    @Benchmark
+    public void dispatch(Blackhole blackhole) {
+        bus.dispatch(event);
+        blackhole.consume(event.value);
+    }
+
+    public static class TestEvent extends Event {
+        //
+        private long value;
+    }
+
+    public static class TestSubscriber {
+
+        @EventListener
+        public void onTest(TestEvent event) {
+            event.value++;
+        }
+    }
+
+    public static class OtherSubscriber extends TestSubscriber {
+
+        @Override
+        @EventListener
+        public void onTest(TestEvent event) {
+            event.value += 2;
+        }
+    }
+}
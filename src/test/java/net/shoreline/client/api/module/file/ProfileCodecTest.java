@@ -0,0 +1,120 @@
+package net.shoreline.client.api.module.file;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that {@link ProfileCodec} round trips module json without loss.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class ProfileCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        Map<String, JsonObject> modules = createModules();
+        Map<String, JsonObject> decoded = ProfileCodec.decode(ByteBuffer.wrap(ProfileCodec.encode(modules)));
+        assertEquals(modules, decoded);
+        // profile order is kept
+        assertEquals(modules.keySet().stream().toList(), decoded.keySet().stream().toList());
+    }
+
+    @Test
+    public void testCorruptProfile() {
+        byte[] bytes = ProfileCodec.encode(createModules());
+        bytes[0] ^= 0x7f;
+        assertThrows(JsonParseException.class, () -> ProfileCodec.decode(ByteBuffer.wrap(bytes)));
+        byte[] truncated = ProfileCodec.encode(createModules());
+        assertThrows(JsonParseException.class, () -> ProfileCodec.decode(ByteBuffer.wrap(truncated, 0, 12)));
+    }
+
+    @Test
+    public void testCorruptLengths() {
+        // a 5 byte varint string count which decodes to -1
+        byte[] negative = {0x53, 0x48, 0x4c, 0x50, 1, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f};
+        assertThrows(JsonParseException.class, () -> ProfileCodec.decode(ByteBuffer.wrap(negative)));
+        // a module count larger than the profile
+        byte[] huge = {0x53, 0x48, 0x4c, 0x50, 1, 0, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07};
+        assertThrows(JsonParseException.class, () -> ProfileCodec.decode(ByteBuffer.wrap(huge)));
+        // deeply nested arrays
+        byte[] nested = new byte[4096];
+        ByteBuffer buf = ByteBuffer.wrap(nested);
+        buf.putInt(0x53484c50).put((byte) 1).put((byte) 1).put((byte) 1).put((byte) 'a');
+        buf.put((byte) 1).put((byte) 0).put((byte) 0).put((byte) 0);
+        while (buf.remaining() > 1) {
+            buf.put((byte) 8).put((byte) 1);
+        }
+        assertThrows(JsonParseException.class, () -> ProfileCodec.decode(ByteBuffer.wrap(nested)));
+    }
+
+    @Test
+    public void testProfileFile() throws IOException {
+        Path dir = Files.createTempDirectory("profile");
+        ModuleProfileFile profile = new ModuleProfileFile(dir, "test");
+        ModuleConfigFile config = new ModuleConfigFile(dir, "config");
+        ModuleConfigFile export = new ModuleConfigFile(dir, "export");
+        JsonArray configs = new JsonArray();
+        for (Map.Entry<String, JsonObject> module : createModules().entrySet()) {
+            JsonObject object = module.getValue().deepCopy();
+            object.addProperty("id", module.getKey());
+            configs.add(object);
+        }
+        JsonObject in = new JsonObject();
+        in.add("configs", configs);
+        Files.writeString(config.getFilepath(), in.toString());
+        assertTrue(profile.importJson(config));
+        assertTrue(profile.exportJson(export));
+        JsonObject out = JsonParser.parseString(Files.readString(export.getFilepath())).getAsJsonObject();
+        assertEquals(JsonParser.parseString(in.toString()), out);
+        // the profile file must not stay open after it was read, otherwise
+        // saving over it fails on windows
+        assertTrue(profile.importJson(config));
+        // damaged profiles are reported, not thrown out of the command
+        Files.write(profile.getFilepath(), new byte[]{0x53, 0x48, 0x4c, 0x50, 1,
+                (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f});
+        assertFalse(profile.exportJson(export));
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static Map<String, JsonObject> createModules() {
+        Map<String, JsonObject> modules = new LinkedHashMap<>();
+        for (int i = 0; i < 64; i++) {
+            JsonObject module = new JsonObject();
+            module.addProperty("enabled", i % 2 == 0);
+            module.addProperty("keybind", i - 1);
+            module.addProperty("range", 4.5 + i);
+            module.addProperty("speed", 0.1f * i);
+            module.addProperty("mode", i % 3 == 0 ? "STRICT" : "NORMAL");
+            module.addProperty("name", "Module" + i + " é中");
+            JsonArray whitelist = new JsonArray();
+            whitelist.add("minecraft:obsidian");
+            whitelist.add(i);
+            module.add("whitelist", whitelist);
+            JsonObject color = new JsonObject();
+            color.addProperty("rgb", 0xff000000 | i * 0x10101);
+            color.addProperty("global", false);
+            module.add("color", color);
+            modules.put("module" + i + "_module", module);
+        }
+        return modules;
+    }
+}
@@ -0,0 +1,139 @@
+package net.shoreline.client.api.render;
+
+import net.minecraft.util.math.Box;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the change tracking and vertex packing of
+ * {@link RetainedGeometry} without a GL context.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class RetainedGeometryTest {
+    //
+    private static final int FILL = 0x64ff0000;
+    private static final int OUTLINE = 0x91ff0000;
+
+    @Test
+    public void testPutBoxDirty() {
+        RetainedGeometry geometry = new RetainedGeometry();
+        assertFalse(geometry.isDirty());
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, OUTLINE);
+        assertTrue(geometry.isDirty());
+        geometry.build(0.0, 0.0, 0.0);
+        assertFalse(geometry.isDirty());
+        // resubmitting the same shape does not change the geometry
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, OUTLINE);
+        assertFalse(geometry.isDirty());
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 0.5, 1.0), FILL, OUTLINE);
+        assertTrue(geometry.isDirty());
+        geometry.build(0.0, 0.0, 0.0);
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 0.5, 1.0), FILL, 0x20ff0000);
+        assertTrue(geometry.isDirty());
+    }
+
+    @Test
+    public void testRemoveUnused() {
+        RetainedGeometry geometry = new RetainedGeometry();
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, OUTLINE);
+        geometry.putBox("b", new Box(2.0, 0.0, 0.0, 3.0, 1.0, 1.0), FILL, OUTLINE);
+        geometry.removeUnused();
+        geometry.build(0.0, 0.0, 0.0);
+        assertEquals(48, geometry.getQuadCount());
+        // both shapes are submitted again, nothing changes
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, OUTLINE);
+        geometry.putBox("b", new Box(2.0, 0.0, 0.0, 3.0, 1.0, 1.0), FILL, OUTLINE);
+        geometry.removeUnused();
+        assertFalse(geometry.isDirty());
+        // b is no longer submitted
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, OUTLINE);
+        geometry.removeUnused();
+        assertTrue(geometry.isDirty());
+        geometry.build(0.0, 0.0, 0.0);
+        assertEquals(24, geometry.getQuadCount());
+        assertEquals(24, geometry.getLineCount());
+        geometry.remove("a");
+        assertTrue(geometry.isDirty());
+        geometry.build(0.0, 0.0, 0.0);
+        assertEquals(0, geometry.getQuadCount());
+        assertEquals(0, geometry.getLineCount());
+    }
+
+    @Test
+    public void testClear() {
+        RetainedGeometry geometry = new RetainedGeometry();
+        geometry.clear();
+        assertFalse(geometry.isDirty());
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, OUTLINE);
+        geometry.build(0.0, 0.0, 0.0);
+        geometry.clear();
+        assertTrue(geometry.isDirty());
+    }
+
+    @Test
+    public void testVertexCounts() {
+        RetainedGeometry geometry = new RetainedGeometry();
+        geometry.putBox("fill", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, 0);
+        geometry.putBox("outline", new Box(1.0, 0.0, 0.0, 2.0, 1.0, 1.0), 0, OUTLINE);
+        geometry.putBox("both", new Box(2.0, 0.0, 0.0, 3.0, 1.0, 1.0), FILL, OUTLINE);
+        // transparent shapes are not packed
+        geometry.putBox("none", new Box(3.0, 0.0, 0.0, 4.0, 1.0, 1.0), 0x00ffffff, 0x00ffffff);
+        geometry.build(0.0, 0.0, 0.0);
+        assertEquals(48, geometry.getQuadCount());
+        assertEquals(48, geometry.getLineCount());
+        assertTrue(geometry.getQuadVertices().length >= 48 * RetainedGeometry.VERTEX_SIZE);
+        assertTrue(geometry.getLineVertices().length >= 48 * RetainedGeometry.VERTEX_SIZE);
+    }
+
+    @Test
+    public void testVertexOrder() {
+        RetainedGeometry geometry = new RetainedGeometry();
+        geometry.putBox("a", new Box(10.0, 20.0, 30.0, 11.0, 22.0, 33.0), FILL, OUTLINE);
+        geometry.build(8.0, 16.0, 32.0);
+        // positions are relative to the origin
+        float x1 = 2.0f, y1 = 4.0f, z1 = -2.0f, x2 = 3.0f, y2 = 6.0f, z2 = 1.0f;
+        float[][] quads = {
+                {x1, y1, z1}, {x2, y1, z1}, {x2, y1, z2}, {x1, y1, z2},
+                {x1, y2, z1}, {x1, y2, z2}, {x2, y2, z2}, {x2, y2, z1},
+                {x1, y1, z1}, {x1, y2, z1}, {x2, y2, z1}, {x2, y1, z1},
+                {x2, y1, z1}, {x2, y2, z1}, {x2, y2, z2}, {x2, y1, z2},
+                {x1, y1, z2}, {x2, y1, z2}, {x2, y2, z2}, {x1, y2, z2},
+                {x1, y1, z1}, {x1, y1, z2}, {x1, y2, z2}, {x1, y2, z1}
+        };
+        assertVertices(quads, FILL, geometry.getQuadVertices(), geometry.getQuadCount());
+        float[][] lines = {
+                {x1, y1, z1}, {x2, y1, z1}, {x2, y1, z1}, {x2, y1, z2},
+                {x2, y1, z2}, {x1, y1, z2}, {x1, y1, z2}, {x1, y1, z1},
+                {x1, y1, z1}, {x1, y2, z1}, {x2, y1, z1}, {x2, y2, z1},
+                {x2, y1, z2}, {x2, y2, z2}, {x1, y1, z2}, {x1, y2, z2},
+                {x1, y2, z1}, {x2, y2, z1}, {x2, y2, z1}, {x2, y2, z2},
+                {x2, y2, z2}, {x1, y2, z2}, {x1, y2, z2}, {x1, y2, z1}
+        };
+        assertVertices(lines, OUTLINE, geometry.getLineVertices(), geometry.getLineCount());
+    }
+
+    @Test
+    public void testSubmissionOrder() {
+        RetainedGeometry geometry = new RetainedGeometry();
+        geometry.putBox("a", new Box(0.0, 0.0, 0.0, 1.0, 1.0, 1.0), FILL, 0);
+        geometry.putBox("b", new Box(5.0, 0.0, 0.0, 6.0, 1.0, 1.0), FILL, 0);
+        geometry.build(0.0, 0.0, 0.0);
+        int[] vertices = geometry.getQuadVertices();
+        assertEquals(0.0f, Float.intBitsToFloat(vertices[0]));
+        assertEquals(5.0f, Float.intBitsToFloat(vertices[24 * RetainedGeometry.VERTEX_SIZE]));
+    }
+
+    private static void assertVertices(float[][] expected, int color, int[] vertices, int count) {
+        assertEquals(expected.length, count);
+        for (int i = 0; i < count; i++) {
+            int j = i * RetainedGeometry.VERTEX_SIZE;
+            assertEquals(expected[i][0], Float.intBitsToFloat(vertices[j]), "x of vertex " + i);
+            assertEquals(expected[i][1], Float.intBitsToFloat(vertices[j + 1]), "y of vertex " + i);
+            assertEquals(expected[i][2], Float.intBitsToFloat(vertices[j + 2]), "z of vertex " + i);
+            assertEquals(color, vertices[j + 3], "color of vertex " + i);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package net.shoreline.client.impl.manager.network;
+
+import net.minecraft.network.packet.c2s.play.HandSwingC2SPacket;
+import net.minecraft.util.Hand;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the identity semantics and bounds of {@link PacketRegistry}.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class PacketRegistryTest {
+    //
+    private static final int CAPACITY = 4096;
+    private static final int PACKETS = 1_000_000;
+    // Retained heap may grow this much between the checkpoints
+    private static final long MAX_GROWTH = 4L * 1024L * 1024L;
+
+    @Test
+    public void testIdentity() {
+        PacketRegistry registry = new PacketRegistry(CAPACITY, 10000L);
+        HandSwingC2SPacket packet = new HandSwingC2SPacket(Hand.MAIN_HAND);
+        registry.add(packet);
+        assertTrue(registry.contains(packet));
+        assertFalse(registry.contains(new HandSwingC2SPacket(Hand.MAIN_HAND)));
+    }
+
+    @Test
+    public void testCapacity() {
+        PacketRegistry registry = new PacketRegistry(4, 10000L);
+        HandSwingC2SPacket first = new HandSwingC2SPacket(Hand.MAIN_HAND);
+        registry.add(first);
+        for (int i = 0; i < 4; i++) {
+            registry.add(new HandSwingC2SPacket(Hand.OFF_HAND));
+        }
+        assertEquals(4, registry.size());
+        assertFalse(registry.contains(first));
+    }
+
+    @Test
+    public void testDuplicateEviction() {
+        PacketRegistry registry = new PacketRegistry(2, 10000L);
+        HandSwingC2SPacket packet = new HandSwingC2SPacket(Hand.MAIN_HAND);
+        registry.add(packet);
+        registry.add(packet);
+        registry.add(new HandSwingC2SPacket(Hand.OFF_HAND));
+        // one of the two entries of the packet is still in the ring
+        assertTrue(registry.contains(packet));
+        registry.add(new HandSwingC2SPacket(Hand.OFF_HAND));
+        assertFalse(registry.contains(packet));
+    }
+
+    @Test
+    public void testMaxAge() throws InterruptedException {
+        PacketRegistry registry = new PacketRegistry(CAPACITY, 1L);
+        HandSwingC2SPacket packet = new HandSwingC2SPacket(Hand.MAIN_HAND);
+        registry.add(packet);
+        Thread.sleep(10L);
+        assertFalse(registry.contains(packet));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testFlatMemory() {
+        PacketRegistry registry = new PacketRegistry(CAPACITY, Long.MAX_VALUE);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long warm = 0L;
+        for (int i = 1; i <= PACKETS; i++) {
+            HandSwingC2SPacket packet = new HandSwingC2SPacket(Hand.MAIN_HAND);
+            registry.add(packet);
+            assertTrue(registry.contains(packet));
+            // the ring is full long before the first checkpoint
+            if (i == PACKETS / 10) {
+                warm = getRetainedHeap(memory);
+            }
+        }
+        long end = getRetainedHeap(memory);
+        assertEquals(CAPACITY, registry.size());
+        assertTrue(end - warm < MAX_GROWTH, "Retained heap grew by " + (end - warm) + " bytes");
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        PacketRegistry registry = new PacketRegistry(64, 10000L);
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        Throwable[] errors = new Throwable[threads];
+        for (int t = 0; t < threads; t++) {
+            int n = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < PACKETS / 10; i++) {
+                        HandSwingC2SPacket packet = new HandSwingC2SPacket(Hand.MAIN_HAND);
+                        registry.add(packet);
+                        registry.contains(packet);
+                    }
+                } catch (Throwable e) {
+                    errors[n] = e;
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (Throwable error : errors) {
+            assertNull(error);
+        }
+        assertEquals(64, registry.size());
+        registry.clear();
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * @param memory
+     * @return The used heap after a full collection
+     */
+    private static long getRetainedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
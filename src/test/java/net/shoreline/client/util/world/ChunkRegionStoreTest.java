@@ -0,0 +1,76 @@
+package net.shoreline.client.util.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that {@link ChunkRegionStore} persists classifications and
+ * releases its region files when closed.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class ChunkRegionStoreTest {
+
+    @Test
+    public void testClassify() throws IOException {
+        Path dir = Files.createTempDirectory("regions");
+        ChunkRegionStore store = new ChunkRegionStore(dir);
+        assertTrue(store.classify(-1, 33, true));
+        assertTrue(store.classify(0, 0, false));
+        // classifications are never changed
+        assertFalse(store.classify(-1, 33, false));
+        long region = ChunkRegionStore.toRegion(-1, 33);
+        int[] chunks = store.getChunks(region, ChunkRegionStore.NEW);
+        assertEquals(1, chunks.length);
+        assertEquals(-1, ChunkRegionStore.toChunkX(region, chunks[0]));
+        assertEquals(33, ChunkRegionStore.toChunkZ(region, chunks[0]));
+        assertEquals(0, store.getChunks(region, ChunkRegionStore.OLD).length);
+        assertEquals(0, store.getChunks(ChunkRegionStore.toRegion(100, 100), ChunkRegionStore.NEW).length);
+        store.close();
+        delete(dir);
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        Path dir = Files.createTempDirectory("regions");
+        ChunkRegionStore store = new ChunkRegionStore(dir);
+        // more regions than are kept open
+        for (int i = 0; i < 100; i++) {
+            assertTrue(store.classify(i * 32, 0, i % 2 == 0));
+        }
+        store.close();
+        // the files are released, so they can be replaced
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.copy(file, temp);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        store = new ChunkRegionStore(dir);
+        for (int i = 0; i < 100; i++) {
+            long region = ChunkRegionStore.toRegion(i * 32, 0);
+            assertEquals(1, store.getChunks(region, i % 2 == 0 ? ChunkRegionStore.NEW : ChunkRegionStore.OLD).length);
+            assertFalse(store.classify(i * 32, 0, true));
+        }
+        store.close();
+        delete(dir);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+}
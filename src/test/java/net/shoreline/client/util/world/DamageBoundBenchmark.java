@@ -0,0 +1,128 @@
+package net.shoreline.client.util.world;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scoring every place candidate with skipping the candidates
+ * whose damage bound cannot beat the best damage. The evaluated and pruned
+ * candidates are reported as secondary results.
+ *
+ * @author linus
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DamageBoundBenchmark {
+    //
+    private static final int SIZE = 24;
+    //
+    private ExposureRaycaster raycaster;
+    private Vec3d[] crystals;
+    private Box[] targets;
+    private Vec3d[] targetPositions;
+
+    @Setup
+    public void setup() {
+        TestBlockView.bootstrap();
+        TestBlockView world = TestBlockView.random(SIZE, 0x5EED);
+        raycaster = ExposureRaycaster.freeze(world, new Box(0.0, 0.0, 0.0, SIZE, SIZE, SIZE));
+        List<Vec3d> candidates = new ArrayList<>();
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                if (world.getBlockState(new BlockPos(x, 1, z)).isAir()
+                        && world.getBlockState(new BlockPos(x, 2, z)).isAir()) {
+                    candidates.add(new Vec3d(x + 0.5, 1.0, z + 0.5));
+                }
+            }
+        }
+        crystals = candidates.toArray(new Vec3d[0]);
+        targetPositions = new Vec3d[]{new Vec3d(12.5, 1.0, 12.5), new Vec3d(8.5, 1.0, 15.5)};
+        targets = new Box[targetPositions.length];
+        for (int i = 0; i < targets.length; i++) {
+            Vec3d pos = targetPositions[i];
+            targets[i] = new Box(pos.x - 0.3, pos.y, pos.z - 0.3, pos.x + 0.3, pos.y + 1.8, pos.z + 0.3);
+        }
+    }
+
+    @Benchmark
+    public double exhaustive(Counters counters) {
+        double best = 0.0;
+        for (Vec3d crystal : crystals) {
+            counters.evaluated++;
+            for (int j = 0; j < targets.length; j++) {
+                best = Math.max(best, getDamage(crystal, j));
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public double pruned(Counters counters) {
+        double[] bounds = new double[crystals.length];
+        int[] order = new int[crystals.length];
+        for (int i = 0; i < crystals.length; i++) {
+            order[i] = i;
+            for (int j = 0; j < targets.length; j++) {
+                bounds[i] = Math.max(bounds[i], getBound(crystals[i], j));
+            }
+        }
+        IntArrays.quickSort(order, (i, j) -> Double.compare(bounds[j], bounds[i]));
+        double best = 0.0;
+        for (int n = 0; n < order.length; n++) {
+            int i = order[n];
+            if (bounds[i] <= best) {
+                counters.pruned += order.length - n;
+                break;
+            }
+            counters.evaluated++;
+            for (int j = 0; j < targets.length; j++) {
+                if (getBound(crystals[i], j) > best) {
+                    best = Math.max(best, getDamage(crystals[i], j));
+                }
+            }
+        }
+        return best;
+    }
+
+    private double getBound(Vec3d crystal, int target) {
+        return EndCrystalUtil.getBaseDamage(getDistance(crystal, target), 1.0);
+    }
+
+    private double getDamage(Vec3d crystal, int target) {
+        float exposure = raycaster.getExposure(crystal, targets[target], false);
+        return EndCrystalUtil.getBaseDamage(getDistance(crystal, target), exposure);
+    }
+
+    private double getDistance(Vec3d crystal, int target) {
+        return Math.sqrt(targetPositions[target].squaredDistanceTo(crystal)) / 12.0;
+    }
+
+    /**
+     * The candidates which were scored and skipped
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        //
+        public long evaluated;
+        public long pruned;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            evaluated = 0;
+            pruned = 0;
+        }
+    }
+}
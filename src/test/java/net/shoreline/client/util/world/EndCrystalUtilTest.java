@@ -0,0 +1,36 @@
+package net.shoreline.client.util.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the damage bound of {@link EndCrystalUtil} is an upper
+ * bound of the damage at every distance, including explosions further
+ * than the explosion diameter.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class EndCrystalUtilTest {
+
+    @Test
+    public void testBoundIsUpperBound() {
+        for (double w = 0.0; w <= 4.0; w += 1.0 / 1024.0) {
+            double bound = EndCrystalUtil.getBaseDamage(w, 1.0);
+            for (double exposure = 0.0; exposure <= 1.0; exposure += 1.0 / 64.0) {
+                double damage = EndCrystalUtil.getBaseDamage(w, exposure);
+                assertTrue(damage <= bound, "Damage " + damage + " > bound " + bound + " at w = " + w);
+            }
+        }
+    }
+
+    @Test
+    public void testNoDamageOutsideDiameter() {
+        // past 24 blocks the unclamped formula grows again
+        assertEquals(0.0, EndCrystalUtil.getBaseDamage(3.0, 1.0));
+        assertEquals(0.0, EndCrystalUtil.getBaseDamage(1.0 + 1.0E-9, 1.0));
+        assertEquals(1.0, EndCrystalUtil.getBaseDamage(1.0, 1.0));
+    }
+}
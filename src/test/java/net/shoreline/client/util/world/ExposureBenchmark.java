@@ -0,0 +1,61 @@
+package net.shoreline.client.util.world;
+
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the exposure of {@link ExposureRaycaster} with the vanilla
+ * block traversal on the same player boxes and crystal positions.
+ *
+ * @author linus
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExposureBenchmark {
+    //
+    private static final int SIZE = 24;
+    private static final int SOURCES = 256;
+    //
+    private TestBlockView world;
+    private ExposureRaycaster raycaster;
+    private Vec3d[] sources;
+    private Box box;
+
+    @Setup
+    public void setup() {
+        TestBlockView.bootstrap();
+        world = TestBlockView.random(SIZE, 0x5EED);
+        raycaster = ExposureRaycaster.freeze(world, new Box(0.0, 0.0, 0.0, SIZE, SIZE, SIZE));
+        Random random = new Random(42L);
+        sources = new Vec3d[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = new Vec3d(2 + random.nextInt(SIZE - 4) + 0.5,
+                    1 + random.nextInt(SIZE - 4), 2 + random.nextInt(SIZE - 4) + 0.5);
+        }
+        box = new Box(11.7, 5.0, 11.7, 12.3, 6.8, 12.3);
+    }
+
+    @Benchmark
+    public void raycaster(Blackhole blackhole) {
+        for (Vec3d source : sources) {
+            blackhole.consume(raycaster.getExposure(source, box, false));
+        }
+    }
+
+    @Benchmark
+    public void vanilla(Blackhole blackhole) {
+        for (Vec3d source : sources) {
+            blackhole.consume(TestBlockView.getVanillaExposure(world, source, box));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package net.shoreline.client.util.world;
+
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares {@link ExposureRaycaster#getExposure(Vec3d, Box, boolean)} with
+ * the vanilla exposure on random terrain. The exposures must be equal, not
+ * only close, since the damage of every placement depends on them.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class ExposureRaycasterTest {
+    //
+    private static final int SIZE = 24;
+    private static final int SAMPLES = 20_000;
+
+    @BeforeAll
+    public static void setup() {
+        TestBlockView.bootstrap();
+    }
+
+    @Test
+    public void testRandomExposure() {
+        TestBlockView world = TestBlockView.random(SIZE, 0x5EED);
+        ExposureRaycaster raycaster = ExposureRaycaster.freeze(world,
+                new Box(0.0, 0.0, 0.0, SIZE, SIZE, SIZE));
+        Random random = new Random(42L);
+        for (int i = 0; i < SAMPLES; i++) {
+            Vec3d source = new Vec3d(2.0 + random.nextDouble() * (SIZE - 4),
+                    1.0 + random.nextDouble() * (SIZE - 4),
+                    2.0 + random.nextDouble() * (SIZE - 4));
+            Box box = randomBox(random);
+            assertExposure(world, raycaster, source, box);
+        }
+    }
+
+    @Test
+    public void testAlignedExposure() {
+        // crystals sit on top of obsidian and players stand on the ground, so
+        // both the sources and the boxes usually lie exactly on block faces
+        TestBlockView world = TestBlockView.random(SIZE, 0xB10C);
+        ExposureRaycaster raycaster = ExposureRaycaster.freeze(world,
+                new Box(0.0, 0.0, 0.0, SIZE, SIZE, SIZE));
+        Random random = new Random(7L);
+        for (int i = 0; i < SAMPLES; i++) {
+            Vec3d source = new Vec3d(2 + random.nextInt(SIZE - 4) + 0.5,
+                    1 + random.nextInt(SIZE - 4),
+                    2 + random.nextInt(SIZE - 4) + 0.5);
+            double x = 2 + random.nextInt(SIZE - 4) + (random.nextBoolean() ? 0.5 : 0.3);
+            double y = 1 + random.nextInt(SIZE - 4);
+            double z = 2 + random.nextInt(SIZE - 4) + (random.nextBoolean() ? 0.5 : 0.3);
+            Box box = new Box(x - 0.3, y, z - 0.3, x + 0.3, y + 1.8, z + 0.3);
+            assertExposure(world, raycaster, source, box);
+        }
+    }
+
+    @Test
+    public void testIgnoreTerrainExposesMore() {
+        TestBlockView world = TestBlockView.random(SIZE, 0xF00D);
+        ExposureRaycaster raycaster = ExposureRaycaster.freeze(world,
+                new Box(0.0, 0.0, 0.0, SIZE, SIZE, SIZE));
+        Random random = new Random(3L);
+        for (int i = 0; i < SAMPLES; i++) {
+            Vec3d source = new Vec3d(2.0 + random.nextDouble() * (SIZE - 4),
+                    1.0 + random.nextDouble() * (SIZE - 4),
+                    2.0 + random.nextDouble() * (SIZE - 4));
+            Box box = randomBox(random);
+            // ignoring terrain can only expose more of the box
+            float exposure = raycaster.getExposure(source, box, false);
+            float ignored = raycaster.getExposure(source, box, true);
+            assertEquals(Math.max(exposure, ignored), ignored);
+        }
+    }
+
+    private static void assertExposure(TestBlockView world, ExposureRaycaster raycaster,
+                                       Vec3d source, Box box) {
+        assertEquals(TestBlockView.getVanillaExposure(world, source, box),
+                raycaster.getExposure(source, box, false),
+                () -> "Exposure of " + box + " to " + source);
+    }
+
+    private static Box randomBox(Random random) {
+        double x = 2.0 + random.nextDouble() * (SIZE - 6);
+        double y = 1.0 + random.nextDouble() * (SIZE - 6);
+        double z = 2.0 + random.nextDouble() * (SIZE - 6);
+        return new Box(x, y, z, x + 0.2 + random.nextDouble() * 1.8,
+                y + 0.2 + random.nextDouble() * 1.8, z + 0.2 + random.nextDouble() * 1.8);
+    }
+}
@@ -0,0 +1,116 @@
+package net.shoreline.client.util.world;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.Difficulty;
+import net.shoreline.client.impl.manager.combat.ArmorProfileManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies that the parallel {@link PlaceCrystalSearch} finds exactly the
+ * placement of the serial {@link PlaceCrystalScorer} on the same candidate
+ * set. The serial search uses a raycaster of the whole world, the parallel
+ * search the frozen region of the rays like AutoCrystal.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class PlaceCrystalSearchTest {
+    //
+    private static final int SIZE = 24;
+    private static final int SETS = 200;
+
+    @BeforeAll
+    public static void setup() {
+        TestBlockView.bootstrap();
+    }
+
+    @Test
+    public void testParallelMatchesSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(1L);
+        try {
+            for (int n = 0; n < SETS; n++) {
+                TestBlockView world = TestBlockView.random(SIZE, random.nextLong());
+                List<BlockPos> candidates = new ArrayList<>();
+                int size = random.nextInt(120);
+                for (int i = 0; i < size; i++) {
+                    candidates.add(new BlockPos(random.nextInt(SIZE),
+                            random.nextInt(SIZE - 2), random.nextInt(SIZE)));
+                }
+                List<PlaceCrystalScorer.Target> targets = new ArrayList<>();
+                int count = 1 + random.nextInt(4);
+                for (int j = 0; j < count; j++) {
+                    targets.add(randomTarget(random));
+                }
+                PlaceCrystalScorer.Target self = randomTarget(random);
+                PlaceCrystalScorer.Settings settings = new PlaceCrystalScorer.Settings(
+                        random.nextBoolean(), random.nextInt(5) * 0.5, random.nextBoolean(),
+                        4.0f + random.nextInt(17), random.nextBoolean(), random.nextInt(8) == 0,
+                        random.nextBoolean(), Difficulty.byId(random.nextInt(4)));
+                PlaceCrystalScorer serialScorer = new PlaceCrystalScorer(candidates, targets, self,
+                        settings, ExposureRaycaster.freeze(world, new Box(0.0, 0.0, 0.0, SIZE, SIZE, SIZE)), null);
+                PlaceCrystalScorer parallelScorer = new PlaceCrystalScorer(candidates, targets, self,
+                        settings, ExposureRaycaster.freeze(world, getRaycastRegion(candidates, targets, self)), null);
+                PlaceCrystalScorer.Placement serial = serialScorer.score(0, size);
+                PlaceCrystalScorer.Placement parallel = pool.invoke(new PlaceCrystalSearch<>(parallelScorer, 0, size));
+                if (serial == null) {
+                    assertNull(parallel);
+                    continue;
+                }
+                assertEquals(serial.candidate(), parallel.candidate());
+                assertEquals(serial.target(), parallel.target());
+                assertEquals(Double.doubleToRawLongBits(serial.damage()),
+                        Double.doubleToRawLongBits(parallel.damage()));
+                assertEquals(Double.doubleToRawLongBits(serial.selfDamage()),
+                        Double.doubleToRawLongBits(parallel.selfDamage()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param random
+     * @return A player sized target with random health and equipment
+     */
+    private static PlaceCrystalScorer.Target randomTarget(Random random) {
+        Vec3d pos = new Vec3d(2.0 + random.nextInt(SIZE - 4) + 0.5, 1.0 + random.nextInt(SIZE - 4),
+                2.0 + random.nextInt(SIZE - 4) + 0.5);
+        Box box = new Box(pos.x - 0.3, pos.y, pos.z - 0.3, pos.x + 0.3, pos.y + 1.8, pos.z + 0.3);
+        // non living targets have no equipment
+        ArmorProfileManager.ArmorProfile profile = random.nextInt(4) == 0 ? null :
+                new ArmorProfileManager.ArmorProfile(null, null, random.nextInt(21),
+                        random.nextInt(13), random.nextInt(21));
+        return new PlaceCrystalScorer.Target(null, box, pos, 1.0f + random.nextInt(36), profile);
+    }
+
+    /**
+     * @param candidates
+     * @param targets
+     * @param self
+     * @return The region which contains every exposure ray
+     */
+    private static Box getRaycastRegion(List<BlockPos> candidates, List<PlaceCrystalScorer.Target> targets,
+                                        PlaceCrystalScorer.Target self) {
+        Box region = self.box();
+        for (BlockPos pos : candidates) {
+            Vec3d damageVec = PlaceCrystalScorer.getDamageVec(pos);
+            region = region.union(new Box(damageVec, damageVec));
+        }
+        for (PlaceCrystalScorer.Target target : targets) {
+            region = region.union(target.box());
+        }
+        return region;
+    }
+}
@@ -0,0 +1,174 @@
+package net.shoreline.client.util.world;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.SlabBlock;
+import net.minecraft.block.StairsBlock;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.enums.SlabType;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.BlockView;
+
+import java.util.Random;
+
+/**
+ * Block view over a fixed size array of block states, used to test and
+ * benchmark world queries without a world.
+ *
+ * @author linus
+ * @since 1.0
+ */
+public class TestBlockView implements BlockView {
+    //
+    private final BlockState[] states;
+    private final int size;
+
+    /**
+     * @param size The side length of the view, positions outside of the
+     *             view are air
+     */
+    public TestBlockView(int size) {
+        this.size = size;
+        states = new BlockState[size * size * size];
+    }
+
+    /**
+     * Initializes the game registries, must be called before any blocks
+     * are used
+     */
+    public static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    /**
+     * Creates terrain made of full cubes, blast resistant blocks and
+     * partial blocks with a flat floor at y = 0
+     *
+     * @param size
+     * @param seed
+     * @return
+     */
+    public static TestBlockView random(int size, long seed) {
+        Random random = new Random(seed);
+        BlockState[] palette = {
+                Blocks.OBSIDIAN.getDefaultState(),
+                Blocks.BEDROCK.getDefaultState(),
+                Blocks.STONE.getDefaultState(),
+                Blocks.GLASS.getDefaultState(),
+                Blocks.STONE_SLAB.getDefaultState().with(SlabBlock.TYPE, SlabType.BOTTOM),
+                Blocks.STONE_SLAB.getDefaultState().with(SlabBlock.TYPE, SlabType.TOP),
+                Blocks.STONE_STAIRS.getDefaultState().with(StairsBlock.FACING, Direction.EAST),
+                Blocks.OAK_FENCE.getDefaultState(),
+                Blocks.ENCHANTING_TABLE.getDefaultState()
+        };
+        TestBlockView view = new TestBlockView(size);
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                view.set(x, 0, z, random.nextInt(3) == 0 ? Blocks.BEDROCK.getDefaultState()
+                        : Blocks.OBSIDIAN.getDefaultState());
+                for (int y = 1; y < size; y++) {
+                    if (random.nextInt(6) == 0) {
+                        view.set(x, y, z, palette[random.nextInt(palette.length)]);
+                    }
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Computes the exposure the same way as
+     * {@link net.minecraft.world.explosion.Explosion#getExposure(Vec3d, net.minecraft.entity.Entity)},
+     * using the vanilla block traversal and collision shape raycasts. The
+     * sample loop is the vanilla loop, only the entity is replaced by its
+     * bounding box.
+     *
+     * @param world
+     * @param source
+     * @param box
+     * @return
+     */
+    public static float getVanillaExposure(BlockView world, Vec3d source, Box box) {
+        double d = 1.0 / ((box.maxX - box.minX) * 2.0 + 1.0);
+        double e = 1.0 / ((box.maxY - box.minY) * 2.0 + 1.0);
+        double f = 1.0 / ((box.maxZ - box.minZ) * 2.0 + 1.0);
+        double g = (1.0 - Math.floor(1.0 / d) * d) / 2.0;
+        double h = (1.0 - Math.floor(1.0 / f) * f) / 2.0;
+        if (d < 0.0 || e < 0.0 || f < 0.0) {
+            return 0.0f;
+        }
+        int i = 0;
+        int j = 0;
+        for (double k = 0.0; k <= 1.0; k += d) {
+            for (double l = 0.0; l <= 1.0; l += e) {
+                for (double m = 0.0; m <= 1.0; m += f) {
+                    double n = MathHelper.lerp(k, box.minX, box.maxX);
+                    double o = MathHelper.lerp(l, box.minY, box.maxY);
+                    double p = MathHelper.lerp(m, box.minZ, box.maxZ);
+                    Vec3d start = new Vec3d(n + g, o, p + h);
+                    Boolean hit = BlockView.raycast(start, source, world, (view, pos) -> {
+                        VoxelShape shape = view.getBlockState(pos).getCollisionShape(view, pos);
+                        return shape.raycast(start, source, pos) != null ? Boolean.TRUE : null;
+                    }, view -> Boolean.FALSE);
+                    if (!hit) {
+                        i++;
+                    }
+                    j++;
+                }
+            }
+        }
+        return (float) i / (float) j;
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @param state
+     */
+    public void set(int x, int y, int z, BlockState state) {
+        states[(x * size + y) * size + z] = state;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        if (x < 0 || x >= size || y < 0 || y >= size || z < 0 || z >= size) {
+            return Blocks.AIR.getDefaultState();
+        }
+        BlockState state = states[(x * size + y) * size + z];
+        return state != null ? state : Blocks.AIR.getDefaultState();
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return Fluids.EMPTY.getDefaultState();
+    }
+
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return size;
+    }
+
+    @Override
+    public int getBottomY() {
+        return 0;
+    }
+}